@@ -0,0 +1,42 @@
+package benchmark;
+
+/**
+ * Defines the blueprint for all micro-benchmarks run by BenchmarkRunner.
+ * @author ZiXian92
+ */
+public abstract class Benchmark {
+	//Data members
+	private String name;
+
+	/**
+	 * Creates a new benchmark with the given name.
+	 * @param name The name to report this benchmark's results under. Cannot be null or empty string.
+	 */
+	protected Benchmark(String name){
+		assert name!=null && !name.isEmpty();
+		this.name = name;
+	}
+
+	/**
+	 * Gets the name of this benchmark.
+	 * @return The name of this benchmark.
+	 */
+	public String getName(){
+		return name;
+	}
+
+	/**
+	 * Prepares the data used by this benchmark. Called once before warm-up.
+	 * @throws Exception If the data cannot be prepared.
+	 */
+	public void setUp() throws Exception{
+
+	}
+
+	/**
+	 * Executes 1 operation of this benchmark.
+	 * @return The result of the operation, which is consumed so that the JIT compiler cannot remove the work.
+	 * @throws Exception If the operation fails.
+	 */
+	public abstract Object run() throws Exception;
+}
@@ -0,0 +1,111 @@
+package benchmark;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Defines the runner that warms up and measures benchmarks, reporting time, allocation and GC activity per operation.
+ * Warm-up and measurement durations can be set with the benchmark.warmup and benchmark.time system properties,
+ * in milliseconds.
+ * @author ZiXian92
+ */
+public class BenchmarkRunner {
+	private static final long WARMUP_MILLIS = Long.getLong("benchmark.warmup", 1000);
+	private static final long MEASURE_MILLIS = Long.getLong("benchmark.time", 3000);
+	private static final int BATCH_SIZE = 64;	//Operations between clock reads
+
+	//Output formatting
+	private static final String HEADER_FORMAT = "%1$-50s %2$14s %3$14s %4$8s %5$8s";
+	private static final String ROW_FORMAT = "%1$-50s %2$14.1f %3$14.1f %4$8d %5$8d";
+
+	//Consumes benchmark results so that their computation cannot be optimised away.
+	private static volatile Object sink;
+
+	/**
+	 * Runs the given benchmarks one after another and prints their results.
+	 * @param benchmarks The benchmarks to run.
+	 * @throws Exception If a benchmark fails.
+	 */
+	public static void runAll(Benchmark... benchmarks) throws Exception{
+		System.out.println(String.format(HEADER_FORMAT, "Benchmark", "ns/op", "B/op", "GCs", "GC ms"));
+		for(Benchmark benchmark: benchmarks){
+			benchmark.setUp();
+			measure(benchmark, WARMUP_MILLIS);
+			System.gc();
+			Result result = measure(benchmark, MEASURE_MILLIS);
+			System.out.println(String.format(ROW_FORMAT, benchmark.getName(), result.getNanosPerOp(),
+					result.getBytesPerOp(), result.gcCount, result.gcMillis));
+		}
+	}
+
+	/**
+	 * Runs the given benchmark repeatedly for about the given duration.
+	 * @param benchmark The benchmark to run.
+	 * @param millis The duration to run for.
+	 * @return The measurements taken.
+	 * @throws Exception If the benchmark fails.
+	 */
+	private static Result measure(Benchmark benchmark, long millis) throws Exception{
+		Result result = new Result();
+		long gcCount = getGcCount(), gcMillis = getGcMillis();
+		long allocated = getAllocatedBytes();
+		long start = System.nanoTime();
+		long deadline = start+millis*1000000L;
+		long now;
+		do{
+			for(int i=0; i<BATCH_SIZE; i++){
+				sink = benchmark.run();
+			}
+			result.numOps += BATCH_SIZE;
+		} while((now = System.nanoTime())<deadline);
+		result.nanos = now-start;
+		result.bytes = getAllocatedBytes()-allocated;
+		result.gcCount = getGcCount()-gcCount;
+		result.gcMillis = getGcMillis()-gcMillis;
+		return result;
+	}
+
+	/**
+	 * Gets the number of bytes allocated by the current thread so far.
+	 * @return The number of bytes allocated or 0 if the JVM does not report allocations.
+	 */
+	private static long getAllocatedBytes(){
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if(bean instanceof com.sun.management.ThreadMXBean){
+			return ((com.sun.management.ThreadMXBean)bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+
+	private static long getGcCount(){
+		long count = 0;
+		for(GarbageCollectorMXBean bean: ManagementFactory.getGarbageCollectorMXBeans()){
+			count += Math.max(0, bean.getCollectionCount());
+		}
+		return count;
+	}
+
+	private static long getGcMillis(){
+		long millis = 0;
+		for(GarbageCollectorMXBean bean: ManagementFactory.getGarbageCollectorMXBeans()){
+			millis += Math.max(0, bean.getCollectionTime());
+		}
+		return millis;
+	}
+
+	/**
+	 * Holds the measurements of 1 run of a benchmark.
+	 */
+	private static class Result{
+		private long numOps, nanos, bytes, gcCount, gcMillis;
+
+		private double getNanosPerOp(){
+			return (double)nanos/numOps;
+		}
+
+		private double getBytesPerOp(){
+			return (double)bytes/numOps;
+		}
+	}
+}
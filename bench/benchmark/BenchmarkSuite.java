@@ -0,0 +1,18 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Runs all benchmarks. Run from the project's root folder, e.g.
+ * java -cp bin:lib/* benchmark.BenchmarkSuite
+ * @author ZiXian92
+ */
+public class BenchmarkSuite {
+	public static void main(String[] args) throws Exception{
+		ArrayList<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		benchmarks.addAll(Arrays.asList(ModelBenchmark.getBenchmarks()));
+		benchmarks.addAll(Arrays.asList(CondensedRowBenchmark.getBenchmarks()));
+		BenchmarkRunner.runAll(benchmarks.toArray(new Benchmark[benchmarks.size()]));
+	}
+}
@@ -0,0 +1,114 @@
+package benchmark;
+
+import java.io.Writer;
+import java.util.ArrayList;
+
+import structure.Issue;
+import structure.Repository;
+
+/**
+ * Compares formatting of condensed issue rows with String.format, as Issue did previously,
+ * against Issue.getCondensedString() and Repository.render().
+ * @author ZiXian92
+ */
+public class CondensedRowBenchmark {
+	private static final int NUM_ISSUES = 1000;
+
+	//Previous implementation of Issue.getCondensedString(), kept as the baseline.
+	private static final String CONDENSEDFORM = "%1$-6.6s\t%2$-30.30s\t%3$-12.12s\t%4$s";
+
+	public static void main(String[] args) throws Exception{
+		BenchmarkRunner.runAll(getBenchmarks());
+	}
+
+	/**
+	 * Gets the benchmarks defined by this class.
+	 * @return The benchmarks comparing the condensed row formatting.
+	 */
+	public static Benchmark[] getBenchmarks(){
+		final Repository repo = createRepository();
+		return new Benchmark[] {
+			new Benchmark("condensedRow.stringFormat"){
+				private int next = 0;
+
+				@Override
+				public Object run(){
+					Issue issue = repo.getIssue(next%NUM_ISSUES+1);
+					next++;
+					return formatWithStringFormat(issue);
+				}
+			},
+			new Benchmark("condensedRow.getCondensedString"){
+				private int next = 0;
+
+				@Override
+				public Object run(){
+					Issue issue = repo.getIssue(next%NUM_ISSUES+1);
+					next++;
+					return issue.getCondensedString();
+				}
+			},
+			new Benchmark("condensedRow.render(1000 rows)"){
+				private Writer out = new NullWriter();
+
+				@Override
+				public Object run() throws Exception{
+					repo.render(out, 0, NUM_ISSUES);
+					return out;
+				}
+			}
+		};
+	}
+
+	private static String formatWithStringFormat(Issue issue){
+		String title = issue.getTitle();
+		if(title.length()>30){
+			title = title.substring(0, 27)+"...";
+		}
+		String milestone = issue.getMilestone()==null? "No milestone": issue.getMilestone();
+		if(milestone.length()>12){
+			milestone = milestone.substring(0, 9)+"...";
+		}
+		String assignee = issue.getAssignee()==null? "No assignee": issue.getAssignee();
+		return String.format(CONDENSEDFORM, issue.getStatus(), title, milestone, assignee);
+	}
+
+	private static Repository createRepository(){
+		Repository repo = new Repository("benchmark", "owner");
+		ArrayList<Issue> issues = new ArrayList<Issue>();
+		Issue issue;
+		for(int i=1; i<=NUM_ISSUES; i++){
+			issue = new Issue((i%3==0)? "Short title "+i: "A rather long issue title that needs shortening "+i, i, repo);
+			issue.setAssignee((i%4==0)? null: "contributor"+(i%7));
+			issue.setMilestone((i%5==0)? null: "Milestone V"+(i%11));
+			issues.add(issue);
+		}
+		repo.setIssues(issues);
+		return repo;
+	}
+
+	/**
+	 * Defines a Writer that discards everything written to it.
+	 */
+	static class NullWriter extends Writer{
+		@Override
+		public void write(char[] cbuf, int off, int len){
+
+		}
+
+		@Override
+		public void write(String str, int off, int len){
+
+		}
+
+		@Override
+		public void flush(){
+
+		}
+
+		@Override
+		public void close(){
+
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package benchmark;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import misc.Constants;
+import misc.Util;
+
+/**
+ * Defines the test data used by benchmarks, built from the JSON files in testFiles and scaled up synthetically.
+ * Benchmarks must be run from the project's root folder so that testFiles can be found.
+ * @author ZiXian92
+ */
+public class Fixtures {
+	private static final String FILE_ISSUE = "testFiles/issue7";
+	private static final String FILE_LABELS = "testFiles/labels";
+	private static final String FILE_REPO = "testFiles/repo.txt";
+	private static final int NUM_AUTHORS = 20;
+	private static final int NUM_MILESTONES = 8;
+
+	/**
+	 * Reads the given file as a string.
+	 * @param path The path of the file relative to the project's root folder.
+	 * @return The contents of the file with line breaks removed.
+	 * @throws IOException If the file cannot be read.
+	 */
+	public static String read(String path) throws IOException{
+		return Util.getJSONString(new FileInputStream(path));
+	}
+
+	/**
+	 * Gets the issue in testFiles/issue7.
+	 * @return The JSON object of the issue.
+	 * @throws IOException If the file cannot be read.
+	 * @throws JSONException If the file cannot be parsed.
+	 */
+	public static JSONObject getIssue() throws IOException, JSONException{
+		return new JSONObject(read(FILE_ISSUE));
+	}
+
+	/**
+	 * Gets the labels in testFiles/labels.
+	 * @return The JSON array of labels.
+	 * @throws IOException If the file cannot be read.
+	 * @throws JSONException If the file cannot be parsed.
+	 */
+	public static JSONArray getLabels() throws IOException, JSONException{
+		return new JSONArray(read(FILE_LABELS));
+	}
+
+	/**
+	 * Gets the repository in testFiles/repo.txt.
+	 * @return The JSON object of the repository.
+	 * @throws IOException If the file cannot be read.
+	 * @throws JSONException If the file cannot be parsed.
+	 */
+	public static JSONObject getRepository() throws IOException, JSONException{
+		return new JSONObject(read(FILE_REPO));
+	}
+
+	/**
+	 * Gets a list of issues like testFiles/issue7, as returned by GitHub's issues API.
+	 * Each issue has its own number and title, and assignees, milestones, labels and statuses vary between issues.
+	 * @param numIssues The number of issues to generate.
+	 * @return The JSON array of issues.
+	 * @throws IOException If the fixture cannot be read.
+	 * @throws JSONException If the fixture cannot be parsed.
+	 */
+	public static JSONArray getIssues(int numIssues) throws IOException, JSONException{
+		String template = read(FILE_ISSUE);
+		JSONArray labels = getLabels();
+		JSONArray issues = new JSONArray();
+		JSONObject issue;
+		for(int i=1; i<=numIssues; i++){
+			issue = new JSONObject(template);
+			issue.put(Constants.KEY_ISSUENUMBER, i);
+			issue.put(Constants.KEY_ISSUETITLE, issue.getString(Constants.KEY_ISSUETITLE)+" #"+i);
+			issue.put(Constants.KEY_STATUS, (i%3==0)? Constants.ISSUE_STATUSCLOSED: Constants.ISSUE_STATUSOPEN);
+			if(i%5==0){
+				issue.put(Constants.KEY_ASSIGNEE, JSONObject.NULL);
+			} else{
+				issue.getJSONObject(Constants.KEY_ASSIGNEE).put(Constants.KEY_USERLOGIN, "user"+(i%NUM_AUTHORS));
+			}
+			if(i%4==0){
+				issue.put(Constants.KEY_MILESTONE, JSONObject.NULL);
+			} else{
+				issue.getJSONObject(Constants.KEY_MILESTONE).put(Constants.KEY_MILESTONETITLE, "V"+(i%NUM_MILESTONES));
+			}
+			JSONArray issueLabels = new JSONArray();
+			issueLabels.put(labels.getJSONObject(i%labels.length()));
+			issue.put(Constants.KEY_LABELS, issueLabels);
+			issues.put(issue);
+		}
+		return issues;
+	}
+
+	/**
+	 * Gets a list of comments as returned by GitHub's comments API, written by a small set of users.
+	 * @param numComments The number of comments to generate.
+	 * @return The JSON array of comments.
+	 * @throws IOException If the fixture cannot be read.
+	 * @throws JSONException If the fixture cannot be parsed.
+	 */
+	public static JSONArray getComments(int numComments) throws IOException, JSONException{
+		JSONObject issue = getIssue();
+		String body = issue.getString(Constants.KEY_CONTENT);
+		JSONArray comments = new JSONArray();
+		JSONObject comment, user;
+		for(int i=1; i<=numComments; i++){
+			user = new JSONObject();
+			user.put(Constants.KEY_USERLOGIN, "user"+(i%NUM_AUTHORS));
+			comment = new JSONObject();
+			comment.put(Constants.KEY_ID, i);
+			comment.put(Constants.KEY_USER, user);
+			comment.put(Constants.KEY_CONTENT, body+" Comment "+i+".");
+			comments.put(comment);
+		}
+		return comments;
+	}
+}
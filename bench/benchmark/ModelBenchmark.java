@@ -0,0 +1,136 @@
+package benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import misc.StringPool;
+import misc.Util;
+import structure.Issue;
+import structure.Repository;
+
+/**
+ * Defines the benchmarks for reading, decoding and storing the data fetched from GitHub,
+ * and for rendering repositories.
+ * @author ZiXian92
+ */
+public class ModelBenchmark {
+	private static final int NUM_ISSUES = 1000;
+	private static final int NUM_MANYISSUES = 10000;	//Above the size at which Repository stores issues in columns.
+	private static final int NUM_COMMENTS = 100;
+
+	public static void main(String[] args) throws Exception{
+		BenchmarkRunner.runAll(getBenchmarks());
+	}
+
+	/**
+	 * Gets the benchmarks defined by this class.
+	 * @return The benchmarks for the parse, model and render paths.
+	 * @throws Exception If the fixtures cannot be loaded.
+	 */
+	public static Benchmark[] getBenchmarks() throws Exception{
+		final byte[] issuesJson = Fixtures.getIssues(NUM_ISSUES).toString().getBytes("UTF-8");
+		final String issuesString = new String(issuesJson, "UTF-8");
+		final JSONObject issueObj = Fixtures.getIssue();
+		final JSONObject repoObj = Fixtures.getRepository();
+		final JSONArray comments = Fixtures.getComments(NUM_COMMENTS);
+		final Repository repo = new Repository("benchmark", "owner");
+		final ArrayList<Issue> issues = decode(Fixtures.getIssues(NUM_ISSUES), repo);
+		final ArrayList<Issue> manyIssues = decode(Fixtures.getIssues(NUM_MANYISSUES), repo);
+		final Repository renderedRepo = new Repository("rendered", "owner");
+		renderedRepo.setIssues(decode(Fixtures.getIssues(NUM_ISSUES), renderedRepo));
+		final Repository renderedColumnarRepo = new Repository("renderedColumnar", "owner");
+		renderedColumnarRepo.setIssues(decode(Fixtures.getIssues(NUM_MANYISSUES), renderedColumnarRepo));
+		final Issue commentedIssue = Issue.makeInstance(issueObj, repo);
+
+		return new Benchmark[] {
+			new Benchmark("Util.getJSONString("+NUM_ISSUES+" issues)"){
+				@Override
+				public Object run(){
+					return Util.getJSONString(new ByteArrayInputStream(issuesJson));
+				}
+			},
+			new Benchmark("new JSONArray("+NUM_ISSUES+" issues)"){
+				@Override
+				public Object run() throws Exception{
+					return new JSONArray(issuesString);
+				}
+			},
+			new Benchmark("Issue.makeInstance"){
+				@Override
+				public Object run() throws Exception{
+					return Issue.makeInstance(issueObj, repo);
+				}
+			},
+			new Benchmark("Issue.makeInstance(pooled)"){
+				private StringPool pool = new StringPool();
+
+				@Override
+				public Object run() throws Exception{
+					return Issue.makeInstance(issueObj, repo, pool);
+				}
+			},
+			new Benchmark("Repository.makeInstance"){
+				@Override
+				public Object run() throws Exception{
+					return Repository.makeInstance(repoObj);
+				}
+			},
+			new Benchmark("Repository.setIssues("+NUM_ISSUES+")"){
+				private Repository target = new Repository("target", "owner");
+
+				@Override
+				public Object run(){
+					target.setIssues(new ArrayList<Issue>(issues));
+					return target;
+				}
+			},
+			new Benchmark("Repository.setIssues("+NUM_MANYISSUES+", columnar)"){
+				private Repository target = new Repository("target", "owner");
+
+				@Override
+				public Object run(){
+					target.setIssues(new ArrayList<Issue>(manyIssues));
+					return target;
+				}
+			},
+			new Benchmark("Issue.setComments("+NUM_COMMENTS+")"){
+				@Override
+				public Object run() throws Exception{
+					commentedIssue.setComments(comments);
+					return commentedIssue;
+				}
+			},
+			new Benchmark("Repository.toString("+NUM_ISSUES+")"){
+				@Override
+				public Object run(){
+					return renderedRepo.toString();
+				}
+			},
+			new Benchmark("Repository.toString("+NUM_MANYISSUES+", columnar)"){
+				@Override
+				public Object run(){
+					return renderedColumnarRepo.toString();
+				}
+			},
+			new Benchmark("Issue.getCondensedString"){
+				private int next = 0;
+
+				@Override
+				public Object run(){
+					return renderedRepo.getIssue(next++%NUM_ISSUES+1).getCondensedString();
+				}
+			}
+		};
+	}
+
+	private static ArrayList<Issue> decode(JSONArray arr, Repository repo) throws Exception{
+		ArrayList<Issue> issues = new ArrayList<Issue>();
+		for(int i=0; i<arr.length(); i++){
+			issues.add(Issue.makeInstance(arr.getJSONObject(i), repo));
+		}
+		return issues;
+	}
+}
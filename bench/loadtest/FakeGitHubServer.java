@@ -0,0 +1,809 @@
+package loadtest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import org.apache.commons.codec.binary.Base64;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import misc.Constants;
+import misc.Util;
+
+/**
+ * Defines an in-process stand-in for the parts of GitHub's API used by this application, for benchmarks and
+ * load tests that must not depend on the network or on real credentials.
+ * Serves N repositories with M issues of K comments each. Generated data depends only on the seed, so runs
+ * with the same settings see the same data. Issues and comments created or edited through the server are kept
+ * in memory for as long as it runs.
+ * Like GitHub, list responses are paginated with Link headers, carry ETags that are honoured through
+ * If-None-Match, and report rate limits through X-RateLimit headers. Each request can be delayed by a fixed
+ * latency plus random jitter.
+ * Any user name and password is accepted. Start the application with -Dmygithubissuetracker.apiurl set to
+ * getURL() to use this server in place of GitHub.
+ * @author ZiXian92
+ */
+public class FakeGitHubServer {
+	public static final String OWNER = "owner";
+	private static final String REPO_PREFIX = "repo";
+	private static final String USER_PREFIX = "user";
+	private static final String[] LABELS = {"bug", "duplicate", "enhancement", "help wanted", "invalid", "question", "wontfix"};
+	private static final String[] WORDS = {"the", "issue", "fails", "when", "loading", "repository", "list", "after",
+			"login", "with", "many", "comments", "and", "labels", "view", "shows", "wrong", "milestone", "for", "assignee"};
+	private static final int NUM_USERS = 20;
+	private static final int NUM_MILESTONES = 5;
+	private static final int DEFAULT_PAGESIZE = 30;
+	private static final int MAX_PAGESIZE = 100;
+	private static final int DEFAULT_RATELIMIT = 5000;
+	private static final long RATELIMIT_WINDOW = 3600*1000L;
+
+	//Http headers and values
+	private static final String HEADER_CONTENTTYPE = "Content-Type";
+	private static final String HEADER_ETAG = "ETag";
+	private static final String HEADER_IFNONEMATCH = "If-None-Match";
+	private static final String HEADER_LINK = "Link";
+	private static final String HEADER_RATELIMIT = "X-RateLimit-Limit";
+	private static final String HEADER_RATEREMAINING = "X-RateLimit-Remaining";
+	private static final String HEADER_RATERESET = "X-RateLimit-Reset";
+	private static final String VAL_CONTENTTYPE = "application/json; charset=utf-8";
+	private static final String VAL_LINK = "<%1$s%2$s?%3$spage=%4$d&per_page=%5$d>; rel=\"%6$s\"";
+	private static final String PARAM_PAGE = "page";
+	private static final String PARAM_PERPAGE = "per_page";
+	private static final String PARAM_STATE = "state";
+	private static final String STATE_ALL = "all";
+	private static final String PARAM_FILTER = "filter";
+	private static final String PATH_DELIM = "/";
+
+	//Http response codes
+	private static final int STATUS_OK = 200;
+	private static final int STATUS_CREATED = 201;
+	private static final int STATUS_NOTMODIFIED = 304;
+	private static final int STATUS_BADREQUEST = 400;
+	private static final int STATUS_UNAUTHORIZED = 401;
+	private static final int STATUS_FORBIDDEN = 403;
+	private static final int STATUS_NOTFOUND = 404;
+	private static final int STATUS_METHODNOTALLOWED = 405;
+
+	//Settings
+	private int numRepos, numIssues, numComments;
+	private int pageSize = DEFAULT_PAGESIZE;
+	private int rateLimit = DEFAULT_RATELIMIT;
+	private int latency = 0, jitter = 0;
+	private long seed = 0;
+
+	//Data members
+	private HttpServer server;
+	private ExecutorService executor;
+	private String url;
+	private HashMap<String, FakeRepository> repos;
+	private HashMap<String, RateWindow> rateWindows;
+	private AtomicLong numRequests = new AtomicLong();
+	private AtomicLong nextId = new AtomicLong(1L<<32);	//Above all generated IDs.
+
+	/**
+	 * Creates a server with the given amount of data. The server is not started.
+	 * @param numRepos The number of repositories of the user. Must not be negative.
+	 * @param numIssues The number of issues in each repository. Must not be negative.
+	 * @param numComments The number of comments on each issue. Must not be negative.
+	 */
+	public FakeGitHubServer(int numRepos, int numIssues, int numComments){
+		assert numRepos>=0 && numIssues>=0 && numComments>=0;
+		this.numRepos = numRepos;
+		this.numIssues = numIssues;
+		this.numComments = numComments;
+	}
+
+	/**
+	 * Sets the delay added to each request.
+	 * @param latency The fixed delay in milliseconds. Must not be negative.
+	 * @param jitter The maximum random delay in milliseconds added to latency. Must not be negative.
+	 */
+	public void setLatency(int latency, int jitter){
+		assert latency>=0 && jitter>=0;
+		this.latency = latency;
+		this.jitter = jitter;
+	}
+
+	/**
+	 * Sets the number of items per page used when a request does not specify per_page.
+	 * @param pageSize The default page size. Must be between 1 and 100.
+	 */
+	public void setPageSize(int pageSize){
+		assert pageSize>0 && pageSize<=MAX_PAGESIZE;
+		this.pageSize = pageSize;
+	}
+
+	/**
+	 * Sets the number of requests each user may make per hour. Requests answered with 304 Not Modified are not counted.
+	 * @param rateLimit The number of requests allowed per hour. Must be positive.
+	 */
+	public void setRateLimit(int rateLimit){
+		assert rateLimit>0;
+		this.rateLimit = rateLimit;
+	}
+
+	/**
+	 * Sets the seed that the generated data is derived from.
+	 * @param seed The seed.
+	 */
+	public void setSeed(long seed){
+		this.seed = seed;
+	}
+
+	/**
+	 * Starts serving on the loopback interface.
+	 * @param port The port to listen on, or 0 to pick a free port.
+	 * @throws IOException If the server cannot be started.
+	 */
+	public synchronized void start(int port) throws IOException{
+		repos = new HashMap<String, FakeRepository>();
+		for(int i=1; i<=numRepos; i++){
+			repos.put(OWNER+PATH_DELIM+REPO_PREFIX+i, new FakeRepository(REPO_PREFIX+i, i));
+		}
+		rateWindows = new HashMap<String, RateWindow>();
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+		executor = Executors.newCachedThreadPool(new ThreadFactory(){
+			@Override
+			public Thread newThread(Runnable r){
+				Thread thread = new Thread(r, "FakeGitHubServer");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		server.setExecutor(executor);
+		server.createContext(PATH_DELIM, new HttpHandler(){
+			@Override
+			public void handle(HttpExchange exchange) throws IOException{
+				try{
+					FakeGitHubServer.this.handle(exchange);
+				} catch(JSONException e){
+					send(exchange, STATUS_BADREQUEST, message("Problems parsing JSON"));
+				} finally{
+					exchange.close();
+				}
+			}
+		});
+		server.start();
+		url = "http://127.0.0.1:"+server.getAddress().getPort();
+	}
+
+	/**
+	 * Stops this server.
+	 */
+	public synchronized void stop(){
+		if(server!=null){
+			server.stop(0);
+			executor.shutdownNow();
+			server = null;
+		}
+	}
+
+	/**
+	 * Gets the base URL of this server, to be used in place of GitHub's API URL.
+	 * @return The base URL, or null if the server has not been started.
+	 */
+	public String getURL(){
+		return url;
+	}
+
+	/**
+	 * Gets the number of requests received since the server was started.
+	 * @return The number of requests received.
+	 */
+	public long getNumRequests(){
+		return numRequests.get();
+	}
+
+	/**
+	 * Starts a server with the settings given as system properties and serves until the process is killed.
+	 * Properties are fakegithub.port, fakegithub.repos, fakegithub.issues, fakegithub.comments,
+	 * fakegithub.latency, fakegithub.jitter, fakegithub.pagesize, fakegithub.ratelimit and fakegithub.seed.
+	 */
+	public static void main(String[] args) throws IOException{
+		FakeGitHubServer server = new FakeGitHubServer(Integer.getInteger("fakegithub.repos", 10),
+				Integer.getInteger("fakegithub.issues", 100), Integer.getInteger("fakegithub.comments", 5));
+		server.setLatency(Integer.getInteger("fakegithub.latency", 0), Integer.getInteger("fakegithub.jitter", 0));
+		server.setPageSize(Integer.getInteger("fakegithub.pagesize", DEFAULT_PAGESIZE));
+		server.setRateLimit(Integer.getInteger("fakegithub.ratelimit", DEFAULT_RATELIMIT));
+		server.setSeed(Long.getLong("fakegithub.seed", 0));
+		server.start(Integer.getInteger("fakegithub.port", 8080));
+		System.out.println("Serving fake GitHub API at "+server.getURL());
+	}
+
+	/**
+	 * Routes the given request to the handler for its path.
+	 * @param exchange The request to handle.
+	 * @throws IOException If the response cannot be sent.
+	 * @throws JSONException If the request's message cannot be parsed.
+	 */
+	private void handle(HttpExchange exchange) throws IOException, JSONException{
+		numRequests.incrementAndGet();
+		delay();
+		String user = getUser(exchange);
+		if(user==null){
+			send(exchange, STATUS_UNAUTHORIZED, message("Requires authentication"));
+			return;
+		}
+		String method = exchange.getRequestMethod();
+		String path = exchange.getRequestURI().getPath();
+		HashMap<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+		String[] parts = path.split(PATH_DELIM);
+
+		if(path.equals(Constants.EXT_USER)){
+			JSONObject obj = userObject(user);
+			sendCacheable(exchange, user, obj.toString(), null);
+			return;
+		}
+		if(path.equals(Constants.EXT_REPOS)){
+			JSONArray arr = new JSONArray();
+			for(int i=1; i<=numRepos; i++){
+				arr.put(repos.get(OWNER+PATH_DELIM+REPO_PREFIX+i).toJSON());
+			}
+			sendPage(exchange, user, path, params, arr);
+			return;
+		}
+		if(path.equals(Constants.EXT_MYISSUES)){
+			sendPage(exchange, user, path, params, getUserIssues(user, params.get(PARAM_FILTER), params.get(PARAM_STATE)));
+			return;
+		}
+		if(parts.length<5 || !parts[1].equals("repos")){
+			send(exchange, STATUS_NOTFOUND, message("Not Found"));
+			return;
+		}
+		FakeRepository repo = repos.get(parts[2]+PATH_DELIM+parts[3]);
+		if(repo==null){
+			send(exchange, STATUS_NOTFOUND, message("Not Found"));
+			return;
+		}
+		String resource = parts[4];
+		if(parts.length==5 && resource.equals("labels")){
+			sendPage(exchange, user, path, params, repo.getLabels());
+		} else if(parts.length==5 && resource.equals("milestones")){
+			sendPage(exchange, user, path, params, repo.getMilestones());
+		} else if(parts.length==5 && resource.equals("contributors")){
+			sendPage(exchange, user, path, params, repo.getContributors());
+		} else if(parts.length==5 && resource.equals("issues")){
+			if(method.equals("GET")){
+				sendPage(exchange, user, path, params, repo.getIssues(params.get(PARAM_STATE)));
+			} else if(method.equals("POST")){
+				JSONObject issue = repo.createIssue(new JSONObject(Util.getJSONString(exchange.getRequestBody())), user);
+				sendUncached(exchange, user, STATUS_CREATED, issue.toString());
+			} else{
+				send(exchange, STATUS_METHODNOTALLOWED, message("Method Not Allowed"));
+			}
+		} else if(parts.length>=6 && resource.equals("issues")){
+			int number;
+			try{
+				number = Integer.parseInt(parts[5]);
+			} catch(NumberFormatException e){
+				send(exchange, STATUS_NOTFOUND, message("Not Found"));
+				return;
+			}
+			if(!repo.hasIssue(number)){
+				send(exchange, STATUS_NOTFOUND, message("Not Found"));
+			} else if(parts.length==6 && method.equals("GET")){
+				sendCacheable(exchange, user, repo.getIssue(number).toString(), null);
+			} else if(parts.length==6 && method.equals("PATCH")){
+				JSONObject issue = repo.editIssue(number, new JSONObject(Util.getJSONString(exchange.getRequestBody())));
+				sendUncached(exchange, user, STATUS_OK, issue.toString());
+			} else if(parts.length==7 && parts[6].equals("comments") && method.equals("GET")){
+				sendPage(exchange, user, path, params, repo.getComments(number));
+			} else if(parts.length==7 && parts[6].equals("comments") && method.equals("POST")){
+				JSONObject comment = repo.addComment(number, new JSONObject(Util.getJSONString(exchange.getRequestBody())), user);
+				sendUncached(exchange, user, STATUS_CREATED, comment.toString());
+			} else{
+				send(exchange, STATUS_NOTFOUND, message("Not Found"));
+			}
+		} else{
+			send(exchange, STATUS_NOTFOUND, message("Not Found"));
+		}
+	}
+
+	/**
+	 * Gets the issues across all repositories that are assigned to or were created by the given user, each with
+	 * its repository, as GitHub's /issues lists them.
+	 * @param user The login of the requesting user.
+	 * @param filter assigned, created or all. Defaults to assigned if null.
+	 * @param state open, closed or all. Defaults to open if null.
+	 */
+	private JSONArray getUserIssues(String user, String filter, String state) throws JSONException{
+		if(filter==null){
+			filter = Constants.FILTER_ASSIGNED;
+		}
+		boolean isAssigned = !filter.equals(Constants.FILTER_CREATED);
+		boolean isCreated = !filter.equals(Constants.FILTER_ASSIGNED);
+		JSONArray arr = new JSONArray();
+		for(int i=1; i<=numRepos; i++){
+			FakeRepository repo = repos.get(OWNER+PATH_DELIM+REPO_PREFIX+i);
+			JSONArray issues = repo.getIssues(state);
+			for(int j=0; j<issues.length(); j++){
+				JSONObject issue = issues.getJSONObject(j);
+				if((isAssigned && !issue.isNull(Constants.KEY_ASSIGNEE) &&
+						user.equals(issue.getJSONObject(Constants.KEY_ASSIGNEE).getString(Constants.KEY_USERLOGIN))) ||
+						(isCreated && user.equals(issue.getJSONObject(Constants.KEY_USER).getString(Constants.KEY_USERLOGIN)))){
+					JSONObject copy = new JSONObject(issue, JSONObject.getNames(issue));
+					copy.put(Constants.KEY_REPOSITORY, repo.toJSON());
+					arr.put(copy);
+				}
+			}
+		}
+		return arr;
+	}
+
+	/**
+	 * Sends the requested page of the given list, with Link headers to the other pages.
+	 * @param exchange The request being answered.
+	 * @param user The login of the requesting user.
+	 * @param path The path of the request.
+	 * @param params The query parameters of the request.
+	 * @param items The full list.
+	 * @throws IOException If the response cannot be sent.
+	 */
+	private void sendPage(HttpExchange exchange, String user, String path, HashMap<String, String> params,
+			JSONArray items) throws IOException, JSONException{
+		int page = getIntParam(params, PARAM_PAGE, 1);
+		int perPage = Math.min(MAX_PAGESIZE, getIntParam(params, PARAM_PERPAGE, pageSize));
+		if(page<1 || perPage<1){
+			send(exchange, STATUS_BADREQUEST, message("Invalid pagination parameters"));
+			return;
+		}
+		int numPages = Math.max(1, (items.length()+perPage-1)/perPage);
+		JSONArray pageItems = new JSONArray();
+		for(int i=(page-1)*perPage; i<items.length() && i<page*perPage; i++){
+			pageItems.put(items.get(i));
+		}
+
+		//Keeps other query parameters, such as state, in the links.
+		StringBuilder query = new StringBuilder();
+		for(String key: params.keySet()){
+			if(!key.equals(PARAM_PAGE) && !key.equals(PARAM_PERPAGE)){
+				query.append(key).append('=').append(params.get(key)).append('&');
+			}
+		}
+		ArrayList<String> links = new ArrayList<String>();
+		if(page<numPages){
+			links.add(String.format(VAL_LINK, url, path, query, page+1, perPage, "next"));
+			links.add(String.format(VAL_LINK, url, path, query, numPages, perPage, "last"));
+		}
+		if(page>1){
+			links.add(String.format(VAL_LINK, url, path, query, 1, perPage, "first"));
+			links.add(String.format(VAL_LINK, url, path, query, page-1, perPage, "prev"));
+		}
+		sendCacheable(exchange, user, pageItems.toString(), links.isEmpty()? null: Util.convertToString(links));
+	}
+
+	/**
+	 * Sends the given message, or 304 Not Modified if the client already has it.
+	 * @param exchange The request being answered.
+	 * @param user The login of the requesting user.
+	 * @param body The message to send.
+	 * @param link The value of the Link header, or null if there is none.
+	 * @throws IOException If the response cannot be sent.
+	 */
+	private void sendCacheable(HttpExchange exchange, String user, String body, String link) throws IOException{
+		byte[] bytes = body.getBytes("UTF-8");
+		CRC32 crc = new CRC32();
+		crc.update(bytes);
+		String etag = "W/\""+Long.toHexString(crc.getValue())+Integer.toHexString(bytes.length)+"\"";
+		exchange.getResponseHeaders().set(HEADER_ETAG, etag);
+		if(link!=null){
+			exchange.getResponseHeaders().set(HEADER_LINK, link);
+		}
+		String ifNoneMatch = exchange.getRequestHeaders().getFirst(HEADER_IFNONEMATCH);
+		if(etag.equals(ifNoneMatch)){
+			addRateHeaders(exchange, getRateWindow(user), false);
+			exchange.sendResponseHeaders(STATUS_NOTMODIFIED, -1);
+			return;
+		}
+		if(!addRateHeaders(exchange, getRateWindow(user), true)){
+			send(exchange, STATUS_FORBIDDEN, message("API rate limit exceeded for "+user+"."));
+			return;
+		}
+		send(exchange, STATUS_OK, bytes);
+	}
+
+	/**
+	 * Sends the given message with the given status, counting the request against the user's rate limit.
+	 * @param exchange The request being answered.
+	 * @param user The login of the requesting user.
+	 * @param status The status code to send.
+	 * @param body The message to send.
+	 * @throws IOException If the response cannot be sent.
+	 */
+	private void sendUncached(HttpExchange exchange, String user, int status, String body) throws IOException{
+		if(!addRateHeaders(exchange, getRateWindow(user), true)){
+			send(exchange, STATUS_FORBIDDEN, message("API rate limit exceeded for "+user+"."));
+			return;
+		}
+		send(exchange, status, body.getBytes("UTF-8"));
+	}
+
+	private void send(HttpExchange exchange, int status, byte[] body) throws IOException{
+		exchange.getResponseHeaders().set(HEADER_CONTENTTYPE, VAL_CONTENTTYPE);
+		exchange.sendResponseHeaders(status, body.length);
+		OutputStream out = exchange.getResponseBody();
+		out.write(body);
+		out.close();
+	}
+
+	/**
+	 * Adds the rate limit headers for the given window, using up 1 request if count is true.
+	 * @param exchange The request being answered.
+	 * @param window The rate limit window of the requesting user.
+	 * @param count Whether the request counts against the limit.
+	 * @return true if the request is within the limit and false otherwise.
+	 */
+	private boolean addRateHeaders(HttpExchange exchange, RateWindow window, boolean count){
+		boolean isAllowed = true;
+		int remaining;
+		long reset;
+		synchronized(window){
+			long now = System.currentTimeMillis();
+			if(now>=window.resetTime){
+				window.remaining = rateLimit;
+				window.resetTime = now+RATELIMIT_WINDOW;
+			}
+			if(count){
+				if(window.remaining>0){
+					window.remaining--;
+				} else{
+					isAllowed = false;
+				}
+			}
+			remaining = window.remaining;
+			reset = window.resetTime/1000;
+		}
+		exchange.getResponseHeaders().set(HEADER_RATELIMIT, String.valueOf(rateLimit));
+		exchange.getResponseHeaders().set(HEADER_RATEREMAINING, String.valueOf(remaining));
+		exchange.getResponseHeaders().set(HEADER_RATERESET, String.valueOf(reset));
+		return isAllowed;
+	}
+
+	private synchronized RateWindow getRateWindow(String user){
+		RateWindow window = rateWindows.get(user);
+		if(window==null){
+			rateWindows.put(user, window = new RateWindow());
+		}
+		return window;
+	}
+
+	/**
+	 * Gets the user name from the request's basic authentication header.
+	 * Unauthenticated requests are treated as coming from an anonymous user, as the application sends some
+	 * read requests without credentials.
+	 * @param exchange The request.
+	 * @return The user name, or null if the authentication header is malformed.
+	 */
+	private String getUser(HttpExchange exchange) throws UnsupportedEncodingException{
+		String auth = exchange.getRequestHeaders().getFirst(Constants.HEADER_AUTH);
+		if(auth==null){
+			return "anonymous";
+		}
+		String[] parts = auth.split(" ");
+		if(parts.length!=2 || !parts[0].equals("Basic")){
+			return null;
+		}
+		String credentials = new String(Base64.decodeBase64(parts[1]), "UTF-8");
+		int delim = credentials.indexOf(':');
+		return (delim<1 || delim==credentials.length()-1)? null: credentials.substring(0, delim);
+	}
+
+	private void delay(){
+		int millis = latency;
+		if(jitter>0){
+			millis += (int)(Math.random()*(jitter+1));
+		}
+		if(millis>0){
+			try{
+				Thread.sleep(millis);
+			} catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private static HashMap<String, String> parseQuery(String query) throws UnsupportedEncodingException{
+		HashMap<String, String> params = new HashMap<String, String>();
+		if(query==null){
+			return params;
+		}
+		for(String pair: query.split("&")){
+			int delim = pair.indexOf('=');
+			if(delim>0){
+				params.put(URLDecoder.decode(pair.substring(0, delim), "UTF-8"), URLDecoder.decode(pair.substring(delim+1), "UTF-8"));
+			}
+		}
+		return params;
+	}
+
+	private static int getIntParam(HashMap<String, String> params, String key, int defaultValue){
+		try{
+			return params.containsKey(key)? Integer.parseInt(params.get(key)): defaultValue;
+		} catch(NumberFormatException e){
+			return -1;
+		}
+	}
+
+	private static byte[] message(String message){
+		try{
+			return new JSONObject().put("message", message).toString().getBytes("UTF-8");
+		} catch(JSONException e){
+			return new byte[0];	//Will not happen
+		} catch(UnsupportedEncodingException e){
+			return new byte[0];	//Will not happen
+		}
+	}
+
+	private static JSONObject userObject(String login) throws JSONException{
+		JSONObject user = new JSONObject();
+		user.put(Constants.KEY_USERLOGIN, login);
+		user.put(Constants.KEY_ID, Math.abs((long)login.hashCode()));
+		return user;
+	}
+
+	/**
+	 * Spreads the given values into a well-mixed hash, so that generated data does not follow obvious patterns.
+	 */
+	private static long hash(long a, long b, long c){
+		long h = a*0x9E3779B97F4A7C15L+b;
+		h = (h^(h>>>31))*0xBF58476D1CE4E5B9L+c;
+		h = (h^(h>>>27))*0x94D049BB133111EBL;
+		return h^(h>>>31);
+	}
+
+	/**
+	 * Holds the requests left for a user in the current rate limit window.
+	 */
+	private static class RateWindow {
+		int remaining;
+		long resetTime = 0;
+	}
+
+	/**
+	 * Defines a repository on this server. Generated issues and comments are derived from the seed on each access,
+	 * so only those created or edited through the server are stored.
+	 */
+	private class FakeRepository {
+		private String name;
+		private int id;
+		private int numIssues;
+		private HashMap<Integer, JSONObject> storedIssues = new HashMap<Integer, JSONObject>();
+		private HashMap<Integer, ArrayList<JSONObject>> addedComments = new HashMap<Integer, ArrayList<JSONObject>>();
+
+		FakeRepository(String name, int id){
+			this.name = name;
+			this.id = id;
+			this.numIssues = FakeGitHubServer.this.numIssues;
+		}
+
+		JSONObject toJSON() throws JSONException{
+			JSONObject obj = new JSONObject();
+			obj.put(Constants.KEY_ID, id);
+			obj.put(Constants.KEY_REPONAME, name);
+			obj.put(Constants.KEY_FULLNAME, OWNER+PATH_DELIM+name);
+			obj.put(Constants.KEY_OWNER, userObject(OWNER));
+			obj.put(Constants.KEY_HASISSUES, true);
+			return obj;
+		}
+
+		JSONArray getLabels() throws JSONException{
+			JSONArray arr = new JSONArray();
+			for(String label: LABELS){
+				JSONObject obj = new JSONObject();
+				obj.put(Constants.KEY_LABELNAME, label);
+				obj.put("color", Integer.toHexString(0x1000000|label.hashCode()&0xFFFFFF).substring(1));
+				arr.put(obj);
+			}
+			return arr;
+		}
+
+		JSONArray getMilestones() throws JSONException{
+			JSONArray arr = new JSONArray();
+			for(int i=1; i<=NUM_MILESTONES; i++){
+				arr.put(milestoneObject(i));
+			}
+			return arr;
+		}
+
+		JSONArray getContributors() throws JSONException{
+			JSONArray arr = new JSONArray();
+			for(int i=0; i<NUM_USERS; i++){
+				JSONObject obj = userObject(USER_PREFIX+i);
+				obj.put("contributions", NUM_USERS-i);
+				arr.put(obj);
+			}
+			return arr;
+		}
+
+		synchronized boolean hasIssue(int number){
+			return number>=1 && number<=numIssues;
+		}
+
+		/**
+		 * Gets the issues with the given state, newest first, as GitHub lists them.
+		 * @param state open, closed or all. Defaults to open if null.
+		 */
+		synchronized JSONArray getIssues(String state) throws JSONException{
+			if(state==null){
+				state = Constants.ISSUE_STATUSOPEN;
+			}
+			JSONArray arr = new JSONArray();
+			for(int number=numIssues; number>=1; number--){
+				if(state.equals(STATE_ALL) || state.equals(getState(number))){
+					arr.put(getIssue(number));
+				}
+			}
+			return arr;
+		}
+
+		synchronized JSONObject getIssue(int number) throws JSONException{
+			JSONObject issue = storedIssues.get(number);
+			return (issue==null)? generateIssue(number): issue;
+		}
+
+		synchronized JSONArray getComments(int number) throws JSONException{
+			JSONArray arr = new JSONArray();
+			if(number<=FakeGitHubServer.this.numIssues){
+				for(int i=1; i<=numComments; i++){
+					arr.put(generateComment(number, i));
+				}
+			}
+			ArrayList<JSONObject> added = addedComments.get(number);
+			if(added!=null){
+				for(JSONObject comment: added){
+					arr.put(comment);
+				}
+			}
+			return arr;
+		}
+
+		synchronized JSONObject createIssue(JSONObject request, String user) throws JSONException{
+			JSONObject issue = new JSONObject();
+			issue.put(Constants.KEY_ID, nextId.getAndIncrement());
+			issue.put(Constants.KEY_ISSUENUMBER, ++numIssues);
+			issue.put(Constants.KEY_ISSUETITLE, request.getString(Constants.KEY_ISSUETITLE));
+			issue.put(Constants.KEY_CONTENT, request.optString(Constants.KEY_CONTENT, ""));
+			issue.put(Constants.KEY_STATUS, Constants.ISSUE_STATUSOPEN);
+			issue.put(Constants.KEY_USER, userObject(user));
+			issue.put(Constants.KEY_COMMENTS, 0);
+			issue.put(Constants.KEY_ASSIGNEE, JSONObject.NULL);
+			issue.put(Constants.KEY_MILESTONE, JSONObject.NULL);
+			issue.put(Constants.KEY_LABELS, new JSONArray());
+			applyChanges(issue, request);
+			storedIssues.put(numIssues, issue);
+			return issue;
+		}
+
+		synchronized JSONObject editIssue(int number, JSONObject changes) throws JSONException{
+			JSONObject issue = getIssue(number);
+			applyChanges(issue, changes);
+			storedIssues.put(number, issue);
+			return issue;
+		}
+
+		synchronized JSONObject addComment(int number, JSONObject request, String user) throws JSONException{
+			JSONObject comment = new JSONObject();
+			comment.put(Constants.KEY_ID, nextId.getAndIncrement());
+			comment.put(Constants.KEY_USER, userObject(user));
+			comment.put(Constants.KEY_CONTENT, request.getString(Constants.KEY_CONTENT));
+			ArrayList<JSONObject> added = addedComments.get(number);
+			if(added==null){
+				addedComments.put(number, added = new ArrayList<JSONObject>());
+			}
+			added.add(comment);
+			JSONObject issue = getIssue(number);
+			issue.put(Constants.KEY_COMMENTS, issue.getInt(Constants.KEY_COMMENTS)+1);
+			storedIssues.put(number, issue);
+			return comment;
+		}
+
+		/**
+		 * Applies the fields of a create or edit request to the given issue.
+		 */
+		private void applyChanges(JSONObject issue, JSONObject changes) throws JSONException{
+			if(changes.has(Constants.KEY_ISSUETITLE)){
+				issue.put(Constants.KEY_ISSUETITLE, changes.getString(Constants.KEY_ISSUETITLE));
+			}
+			if(changes.has(Constants.KEY_CONTENT)){
+				issue.put(Constants.KEY_CONTENT, changes.isNull(Constants.KEY_CONTENT)? "": changes.getString(Constants.KEY_CONTENT));
+			}
+			if(changes.has(Constants.KEY_STATUS)){
+				issue.put(Constants.KEY_STATUS, changes.getString(Constants.KEY_STATUS));
+			}
+			if(changes.has(Constants.KEY_ASSIGNEE)){
+				issue.put(Constants.KEY_ASSIGNEE, changes.isNull(Constants.KEY_ASSIGNEE)? JSONObject.NULL:
+						userObject(changes.getString(Constants.KEY_ASSIGNEE)));
+			}
+			if(changes.has(Constants.KEY_MILESTONE)){
+				int milestone = changes.isNull(Constants.KEY_MILESTONE)? -1: changes.getInt(Constants.KEY_MILESTONE);
+				issue.put(Constants.KEY_MILESTONE, (milestone<1 || milestone>NUM_MILESTONES)? JSONObject.NULL:
+						milestoneObject(milestone));
+			}
+			if(changes.has(Constants.KEY_LABELS)){
+				JSONArray names = changes.getJSONArray(Constants.KEY_LABELS);
+				JSONArray labels = new JSONArray();
+				for(int i=0; i<names.length(); i++){
+					labels.put(new JSONObject().put(Constants.KEY_LABELNAME, names.getString(i)));
+				}
+				issue.put(Constants.KEY_LABELS, labels);
+			}
+		}
+
+		/**
+		 * Gets the state of the given issue without generating the rest of it.
+		 */
+		private String getState(int number) throws JSONException{
+			JSONObject issue = storedIssues.get(number);
+			if(issue!=null){
+				return issue.getString(Constants.KEY_STATUS);
+			}
+			return (hash(seed, id, number)%10==0)? Constants.ISSUE_STATUSCLOSED: Constants.ISSUE_STATUSOPEN;
+		}
+
+		private JSONObject generateIssue(int number) throws JSONException{
+			Random random = new Random(hash(seed, id, number));
+			JSONObject issue = new JSONObject();
+			issue.put(Constants.KEY_ID, (long)id<<24|number);
+			issue.put(Constants.KEY_ISSUENUMBER, number);
+			issue.put(Constants.KEY_ISSUETITLE, "Issue "+number+": "+words(random, 3+random.nextInt(6)));
+			issue.put(Constants.KEY_CONTENT, words(random, 10+random.nextInt(120)));
+			issue.put(Constants.KEY_STATUS, getState(number));
+			issue.put(Constants.KEY_USER, userObject(USER_PREFIX+random.nextInt(NUM_USERS)));
+			issue.put(Constants.KEY_COMMENTS, numComments);
+			issue.put(Constants.KEY_ASSIGNEE, (random.nextInt(5)==0)? JSONObject.NULL:
+					userObject(USER_PREFIX+random.nextInt(NUM_USERS)));
+			issue.put(Constants.KEY_MILESTONE, (random.nextInt(4)==0)? JSONObject.NULL:
+					milestoneObject(1+random.nextInt(NUM_MILESTONES)));
+			JSONArray labels = new JSONArray();
+			for(int i=random.nextInt(3); i>0; i--){
+				labels.put(new JSONObject().put(Constants.KEY_LABELNAME, LABELS[random.nextInt(LABELS.length)]));
+			}
+			issue.put(Constants.KEY_LABELS, labels);
+			return issue;
+		}
+
+		private JSONObject generateComment(int number, int index) throws JSONException{
+			Random random = new Random(hash(seed, (long)id<<24|number, index));
+			JSONObject comment = new JSONObject();
+			comment.put(Constants.KEY_ID, ((long)id<<24|number)<<8|index);
+			comment.put(Constants.KEY_USER, userObject(USER_PREFIX+random.nextInt(NUM_USERS)));
+			comment.put(Constants.KEY_CONTENT, words(random, 5+random.nextInt(60)));
+			return comment;
+		}
+
+		private JSONObject milestoneObject(int number) throws JSONException{
+			JSONObject milestone = new JSONObject();
+			milestone.put(Constants.KEY_MILESTONENUMBER, number);
+			milestone.put(Constants.KEY_MILESTONETITLE, "V0."+number);
+			milestone.put(Constants.KEY_STATUS, Constants.ISSUE_STATUSOPEN);
+			return milestone;
+		}
+
+		private String words(Random random, int numWords){
+			StringBuilder strBuilder = new StringBuilder(numWords*7);
+			for(int i=0; i<numWords; i++){
+				if(i>0){
+					strBuilder.append(' ');
+				}
+				strBuilder.append(WORDS[random.nextInt(WORDS.length)]);
+			}
+			return strBuilder.toString();
+		}
+	}
+}
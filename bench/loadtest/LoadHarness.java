@@ -0,0 +1,249 @@
+package loadtest;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import misc.Constants;
+import misc.LatencyHistogram;
+import misc.ResponseCache;
+
+/**
+ * Defines the load driver that runs many simulated users against GitHub's API, or against a FakeGitHubServer
+ * started for the run, and reports throughput and latency percentiles per command.
+ * Each user logs in, loads the repository list, then repeatedly selects a repository and an issue, comments on
+ * the issue, sometimes closes it, and goes back up to the repository list, all through Controller.
+ * Model and View are singletons, so each user runs the application's classes in its own class loader to get
+ * its own session. Console output of the users is discarded.
+ * Settings are the system properties loadtest.users, loadtest.iterations and loadtest.seed, as well as
+ * loadtest.url to test against a running server. Without loadtest.url, a FakeGitHubServer is started with
+ * loadtest.repos, loadtest.issues, loadtest.comments, loadtest.latency and loadtest.jitter.
+ * @author ZiXian92
+ */
+public class LoadHarness {
+	private static final String CMD_LOGIN = "login";
+	private static final String CMD_LOAD = "load";
+	private static final String CMD_SELECTREPO = "select repo";
+	private static final String CMD_SELECTISSUE = "select issue";
+	private static final String CMD_COMMENT = "comment";
+	private static final String CMD_CLOSE = "close";
+	private static final String CMD_BACK = "back";
+	private static final String CMD_LIST = "list";
+	private static final int MAX_ISSUEINDEX = 10;	//Issues are picked from the top of the list, which is always loaded.
+	private static final double CLOSE_PROBABILITY = 0.2;
+
+	//Output formatting
+	private static final String HEADER_FORMAT = "%1$-14s %2$8s %3$10s %4$10s %5$10s %6$10s %7$10s %8$10s %9$10s";
+	private static final String ROW_FORMAT = "%1$-14s %2$8d %3$10.1f %4$10.2f %5$10.2f %6$10.2f %7$10.2f %8$10.2f %9$10.2f";
+
+	//Data members
+	private int numUsers, numIterations, numRepos;
+	private long seed;
+	private LinkedHashMap<String, LatencyHistogram> histograms;
+	private AtomicLong numErrors = new AtomicLong();
+
+	/**
+	 * Creates a load harness.
+	 * @param numUsers The number of concurrent users. Must be positive.
+	 * @param numIterations The number of times each user goes through the repository-issue-comment cycle.
+	 * @param numRepos The number of repositories the users pick from. Must be positive.
+	 * @param seed The seed for the users' choices.
+	 */
+	public LoadHarness(int numUsers, int numIterations, int numRepos, long seed){
+		assert numUsers>0 && numIterations>=0 && numRepos>0;
+		this.numUsers = numUsers;
+		this.numIterations = numIterations;
+		this.numRepos = numRepos;
+		this.seed = seed;
+		histograms = new LinkedHashMap<String, LatencyHistogram>();
+		for(String cmd: new String[] {CMD_LOGIN, CMD_LOAD, CMD_LIST, CMD_SELECTREPO, CMD_SELECTISSUE, CMD_COMMENT, CMD_CLOSE, CMD_BACK}){
+			histograms.put(cmd, new LatencyHistogram());
+		}
+	}
+
+	public static void main(String[] args) throws Exception{
+		FakeGitHubServer server = null;
+		String url = System.getProperty("loadtest.url");
+		int numRepos = Integer.getInteger("loadtest.repos", 10);
+		if(System.getProperty(ResponseCache.PROPERTY_CACHEDIR)==null){	//Keeps runs independent of earlier ones.
+			System.setProperty(ResponseCache.PROPERTY_CACHEDIR, "");
+		}
+		if(url==null){
+			server = new FakeGitHubServer(numRepos, Integer.getInteger("loadtest.issues", 200),
+					Integer.getInteger("loadtest.comments", 10));
+			server.setLatency(Integer.getInteger("loadtest.latency", 20), Integer.getInteger("loadtest.jitter", 10));
+			server.setRateLimit(Integer.MAX_VALUE);
+			server.start(0);
+			url = server.getURL();
+		}
+		LoadHarness test = new LoadHarness(Integer.getInteger("loadtest.users", 20), Integer.getInteger("loadtest.iterations", 5),
+				numRepos, Long.getLong("loadtest.seed", 0));
+		test.run(url, System.out);
+		if(server!=null){
+			System.out.println("Requests served: "+server.getNumRequests());
+			server.stop();
+		}
+	}
+
+	/**
+	 * Runs all users against the given API URL until they finish, then prints the results.
+	 * @param url The base URL of the API to test against.
+	 * @param report The stream to print the results to.
+	 * @throws Exception If the users cannot be started.
+	 */
+	public void run(String url, PrintStream report) throws Exception{
+		System.setProperty(Constants.PROPERTY_APIURL, url);
+		PrintStream console = System.out;
+		System.setOut(new PrintStream(new OutputStream(){	//Discards the users' views.
+			@Override
+			public void write(int b){}
+
+			@Override
+			public void write(byte[] b, int off, int len){}
+		}));
+		try{
+			final CountDownLatch start = new CountDownLatch(1);
+			ArrayList<Thread> threads = new ArrayList<Thread>();
+			for(int i=0; i<numUsers; i++){
+				final Session session = new Session(i, createIsolatedLoader());
+				Thread thread = new Thread(new Runnable(){
+					@Override
+					public void run(){
+						try{
+							start.await();
+							session.run();
+						} catch(Exception e){
+							numErrors.incrementAndGet();
+						}
+					}
+				}, "LoadHarness-user"+i);
+				thread.setContextClassLoader(session.loader);
+				threads.add(thread);
+				thread.start();
+			}
+			long startTime = System.nanoTime();
+			start.countDown();
+			for(Thread thread: threads){
+				thread.join();
+			}
+			long elapsed = System.nanoTime()-startTime;
+			printResults(report, elapsed);
+		} finally{
+			System.setOut(console);
+		}
+	}
+
+	/**
+	 * Prints the throughput and latency percentiles of each command.
+	 * @param report The stream to print to.
+	 * @param elapsed The duration of the run in nanoseconds.
+	 */
+	private void printResults(PrintStream report, long elapsed){
+		double seconds = elapsed/1e9;
+		report.println(String.format("%1$d users, %2$d iterations each, %3$.1f s, %4$d errors",
+				numUsers, numIterations, seconds, numErrors.get()));
+		report.println("Latencies in ms");
+		report.println(String.format(HEADER_FORMAT, "Command", "Count", "ops/s", "Mean", "p50", "p90", "p99", "p99.9", "Max"));
+		for(String cmd: histograms.keySet()){
+			LatencyHistogram histogram = histograms.get(cmd);
+			if(histogram.getCount()==0){
+				continue;
+			}
+			report.println(String.format(ROW_FORMAT, cmd, histogram.getCount(), histogram.getCount()/seconds,
+					histogram.getMean()/1000, histogram.getValueAtPercentile(50)/1000.0,
+					histogram.getValueAtPercentile(90)/1000.0, histogram.getValueAtPercentile(99)/1000.0,
+					histogram.getValueAtPercentile(99.9)/1000.0, histogram.getMax()/1000.0));
+		}
+	}
+
+	/**
+	 * Creates a class loader that loads the application's classes afresh from the class path, so that
+	 * the singletons loaded through it are not shared with other users.
+	 * @return The new class loader.
+	 * @throws Exception If the class path cannot be read.
+	 */
+	private static ClassLoader createIsolatedLoader() throws Exception{
+		String[] entries = System.getProperty("java.class.path").split(File.pathSeparator);
+		URL[] urls = new URL[entries.length];
+		for(int i=0; i<entries.length; i++){
+			urls[i] = new File(entries[i]).toURI().toURL();
+		}
+		return new URLClassLoader(urls, ClassLoader.getSystemClassLoader().getParent());
+	}
+
+	/**
+	 * Defines a simulated user, driving its own Controller through reflection.
+	 */
+	private class Session {
+		private int id;
+		private ClassLoader loader;
+		private Object controller;
+		private Method processInput, getSelectedProject, getSelectedIssue;
+		private Random random;
+
+		Session(int id, ClassLoader loader) throws Exception{
+			this.id = id;
+			this.loader = loader;
+			random = new Random(seed+id);
+			Class<?> controllerClass = loader.loadClass("controller.Controller");
+			Thread.currentThread().setContextClassLoader(loader);
+			controller = controllerClass.getDeclaredConstructor().newInstance();
+			processInput = controllerClass.getMethod("processInput", String.class);
+			getSelectedProject = controllerClass.getMethod("getSelectedProject");
+			getSelectedIssue = controllerClass.getMethod("getSelectedIssue");
+		}
+
+		void run() throws Exception{
+			Method executeLogin = controller.getClass().getMethod("executeLogin", String.class, String.class);
+			long start = System.nanoTime();
+			boolean isLoggedIn = (Boolean)executeLogin.invoke(controller, "loaduser"+id, "password");
+			record(CMD_LOGIN, start);
+			if(!isLoggedIn){
+				numErrors.incrementAndGet();
+				return;
+			}
+			start = System.nanoTime();
+			controller.getClass().getMethod("loadData").invoke(controller);
+			record(CMD_LOAD, start);
+
+			for(int i=0; i<numIterations; i++){
+				input(CMD_LIST, "list");
+				input(CMD_SELECTREPO, String.valueOf(1+random.nextInt(numRepos)));
+				if(getSelectedProject.invoke(controller)==null){
+					numErrors.incrementAndGet();
+					continue;
+				}
+				input(CMD_SELECTISSUE, String.valueOf(1+random.nextInt(MAX_ISSUEINDEX)));
+				if(getSelectedIssue.invoke(controller)==null){
+					numErrors.incrementAndGet();
+					input(CMD_BACK, "back");
+					continue;
+				}
+				input(CMD_COMMENT, "Load test comment "+i+" from user "+id);
+				if(random.nextDouble()<CLOSE_PROBABILITY){
+					input(CMD_CLOSE, "close");
+				}
+				input(CMD_BACK, "back");
+				input(CMD_BACK, "back");
+			}
+		}
+
+		private void input(String cmd, String input) throws Exception{
+			long start = System.nanoTime();
+			processInput.invoke(controller, input);
+			record(cmd, start);
+		}
+
+		private void record(String cmd, long start){
+			histograms.get(cmd).record((System.nanoTime()-start)/1000);
+		}
+	}
+}
@@ -1,7 +1,6 @@
 package controller;
 
 import java.io.BufferedReader;
-import java.io.InputStreamReader;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -43,7 +42,7 @@ public class AddIssue extends Command {
 	@Override
 	public void execute() {
 		JSONObject obj = new JSONObject();
-		BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+		BufferedReader reader = view.getInputReader();
 		try{
 			obj.put(Constants.KEY_ISSUETITLE, title);
 
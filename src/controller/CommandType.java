@@ -13,6 +13,11 @@ public enum CommandType {
 	SELECT("select", "s"),
 	BACK("back", "b", "up"),
 	CLOSE("close", "c"), 
+	PAGE("page", "p"),
+	STATS("stats"),
+	EXPORT("export"),
+	IMPORT("import"),
+	MINE("mine"),
 	OTHER();
 	
 	private HashSet<String> aliasTable;
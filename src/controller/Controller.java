@@ -5,9 +5,13 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.logging.SimpleFormatter;
 
+import misc.AsyncLogHandler;
 import misc.Constants;
+import misc.Events;
 import misc.InvalidContextException;
 import misc.RequestException;
+import misc.TaskScope;
+import misc.Tracer;
 import view.View;
 import model.Model;
 
@@ -18,6 +22,19 @@ import model.Model;
 public class Controller implements Observer {
 	//Error messages
 	private static final String MSG_FAILEDLOGGING = "Failed to open file for logging.";
+	private static final String MSG_CANCELLED = "Command cancelled.";
+	
+	//Log files are rotated after LOG_LIMIT bytes, keeping LOG_COUNT files. Records are written in the background
+	//and dropped if more than LOG_BUFFERSIZE are waiting, so that logging never delays commands.
+	private static final String LOG_FILE = "MyGitHubIssueTracker-log%g.txt";
+	private static final int LOG_LIMIT = 1024*1024;
+	private static final int LOG_COUNT = 5;
+	private static final int LOG_BUFFERSIZE = 4096;
+	
+	//Span names for tracing
+	private static final String SPAN_PROCESSINPUT = "Controller.processInput";
+	private static final String SPAN_EXECUTE = ".execute";
+	private static final String ARG_INPUT = "input";
 	
 	//For logging. Also the main logger for the program.
 	private static final Logger logger = Logger.getLogger("com.MyGitHubIssueTracker");
@@ -27,6 +44,7 @@ public class Controller implements Observer {
 	private Model model;
 	private View view;
 	private Parser parser;
+	private volatile TaskScope commandScope = null;	//Scope of the command being executed, if any.
 
 	/**
 	 * Creates a new instance of this controller.
@@ -38,12 +56,15 @@ public class Controller implements Observer {
 		parser = new Parser();
 		logger.setLevel(Level.INFO);
 		logger.setUseParentHandlers(false);
-		try {
-			FileHandler fh = new FileHandler("MyGitHubIssueTracker-log.txt", true);
-			fh.setFormatter(new SimpleFormatter());
-			logger.addHandler(fh);
-		} catch (Exception e) {
-			view.updateView(MSG_FAILEDLOGGING);
+		if(logger.getHandlers().length==0){	//Loggers are shared by all controllers in the JVM.
+			try {
+				FileHandler fh = new FileHandler(LOG_FILE, LOG_LIMIT, LOG_COUNT, true);
+				AsyncLogHandler handler = new AsyncLogHandler(fh, LOG_BUFFERSIZE, AsyncLogHandler.OverflowPolicy.DROP);
+				handler.setFormatter(new SimpleFormatter());
+				logger.addHandler(handler);
+			} catch (Exception e) {
+				view.updateView(MSG_FAILEDLOGGING);
+			}
 		}
 		
 	}
@@ -83,20 +104,53 @@ public class Controller implements Observer {
 	}
 
 	/**
-	 * Executes the given input command.
+	 * Executes the given input command. The command can be cancelled from another thread with cancel().
 	 * @param input The input command to execute.
 	 */
 	public void processInput(String input){
 		if(input==null){
 			input = "";
 		}
+		Tracer.Span span = Tracer.start(SPAN_PROCESSINPUT).setArg(ARG_INPUT, input);
+		TaskScope scope = TaskScope.open();
+		commandScope = scope;
 		try{
 			Command cmd = parser.parse(input, selectedIssue, selectedRepository);
 			logger.log(Level.INFO, "Executing {0}", input);
-			cmd.execute();
+			String repository = selectedRepository;
+			Object event = Events.beginCommand();
+			Tracer.Span commandSpan = Tracer.start(cmd.getClass().getSimpleName()+SPAN_EXECUTE);
+			try{
+				cmd.execute();
+			} finally{
+				commandSpan.end();
+			}
+			Events.commitCommand(event, cmd.getClass().getSimpleName(), repository);
+			if(scope.isCancelled()){
+				logger.log(Level.INFO, "Cancelled {0}", input);
+				view.updateView(MSG_CANCELLED);
+			}
 		} catch(IllegalArgumentException | InvalidContextException e){
 			view.updateView(e.getMessage());
+		} finally{
+			commandScope = null;
+			scope.close();
+			span.end();
+		}
+	}
+	
+	/**
+	 * Cancels the command being executed, aborting its requests to GitHub. Data that the command was
+	 * loading is discarded, so the Model stays as it was before the command.
+	 * @return true if a command was cancelled and false if no command is being executed.
+	 */
+	public boolean cancel(){
+		TaskScope scope = commandScope;
+		if(scope==null){
+			return false;
 		}
+		scope.cancel();
+		return true;
 	}
 
 	@Override
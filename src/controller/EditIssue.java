@@ -1,7 +1,6 @@
 package controller;
 
 import java.io.BufferedReader;
-import java.io.InputStreamReader;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -47,7 +46,7 @@ public class EditIssue extends Command {
 
 	@Override
 	public void execute() {
-		BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+		BufferedReader reader = view.getInputReader();
 		JSONObject obj = new JSONObject();
 		String input;
 		view.updateView(PROMPT_MESSAGE);
@@ -0,0 +1,57 @@
+package controller;
+
+import java.io.IOException;
+
+import org.json.JSONException;
+
+import model.IssueExporter;
+import misc.Constants;
+import misc.FailedRequestException;
+import misc.MissingMessageException;
+import misc.RequestException;
+
+/**
+ * Defines the command to export all issues and comments of the selected repository to a file.
+ * @author ZiXian92
+ */
+public class ExportIssues extends Command {
+	private static final String MSG_EXPORTED = "Exported %1$d issues and %2$d comments to %3$s in %4$.1fs.";
+
+	//Data members
+	private String repoName, path;
+
+	/**
+	 * Creates a new instance of this command.
+	 * @param path The path of the file to export to. Cannot be null or empty string.
+	 * @param repoName The name of the repository to export. Cannot be null or empty string.
+	 */
+	public ExportIssues(String path, String repoName){
+		assert path!=null && !path.isEmpty() && repoName!=null && !repoName.isEmpty();
+		this.path = path;
+		this.repoName = repoName;
+	}
+
+	@Override
+	public void execute() {
+		long start = System.nanoTime();
+		IssueExporter exporter;
+		try{
+			exporter = new IssueExporter(path);
+		} catch(IOException e){
+			view.updateView(Constants.ERROR_EXPORTFILE);
+			return;
+		}
+		try{
+			model.exportIssues(repoName, exporter);
+			exporter.close();
+			view.updateView(String.format(MSG_EXPORTED, exporter.getNumIssues(), exporter.getNumComments(), path,
+					(System.nanoTime()-start)/1e9));
+		} catch(RequestException | FailedRequestException | MissingMessageException | JSONException e){
+			exporter.delete();
+			view.updateView(Constants.ERROR_EXPORTISSUES);
+		} catch(IOException e){
+			exporter.delete();
+			view.updateView(Constants.ERROR_EXPORTFILE);
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package controller;
+
+import java.io.IOException;
+
+import model.IssueImporter;
+import misc.Constants;
+import structure.Repository;
+
+/**
+ * Defines the command to create issues in the selected repository from a JSON Lines file.
+ * @author ZiXian92
+ */
+public class ImportIssues extends Command {
+	private static final String MSG_IMPORTED = "Imported %1$d issues in %2$.1fs (%3$.1f issues/s). "+
+			"%4$d created before, %5$d failed, %6$d comments ignored.";
+	private static final String MSG_RESUME = "Enter the same import command to resume.";
+
+	//Data members
+	private String repoName, path;
+
+	/**
+	 * Creates a new instance of this command.
+	 * @param path The path of the file to import. Cannot be null or empty string.
+	 * @param repoName The name of the repository to import into. Cannot be null or empty string.
+	 */
+	public ImportIssues(String path, String repoName){
+		assert path!=null && !path.isEmpty() && repoName!=null && !repoName.isEmpty();
+		this.path = path;
+		this.repoName = repoName;
+	}
+
+	@Override
+	public void execute() {
+		Repository repo;
+		try{
+			repo = model.getRepository(repoName);	//Loaded before issues are added to it from several threads.
+			if(repo==null){
+				view.updateView(Constants.ERROR_REPONOTFOUND);
+				return;
+			}
+		} catch(Exception e){
+			view.updateView(e.getMessage());
+			return;
+		}
+		long start = System.nanoTime();
+		IssueImporter importer = new IssueImporter(path, repo);
+		try{
+			importer.run();
+		} catch(IOException e){
+			view.updateView(Constants.ERROR_IMPORTFILE);
+			return;
+		}
+		double seconds = (System.nanoTime()-start)/1e9;
+		try{
+			model.getRepository(repoName);	//Shows the repository with the created issues.
+		} catch(Exception e){
+			//The repository was loaded above.
+		}
+		view.updateView(String.format(MSG_IMPORTED, importer.getNumCreated(), seconds,
+				importer.getNumCreated()/Math.max(seconds, 0.001), importer.getNumSkipped(), importer.getNumFailed(),
+				importer.getNumIgnored()));
+		if(!importer.isComplete()){
+			view.updateView(MSG_RESUME);
+		}
+	}
+}
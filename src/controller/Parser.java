@@ -8,6 +8,8 @@ import misc.InvalidContextException;
  * @author ZiXian92
  */
 public class Parser {
+	private static final String PARAM_REPOSTATS = "repo";
+	
     /**
      * Creates a new instance of parser.
      */
@@ -42,6 +44,11 @@ public class Parser {
 			case SELECT: return createSelectCommand(input, selectedIssue, selectedRepo);
 			case BACK: return createBackCommand(selectedIssue, selectedRepo);
 			case CLOSE: return createCloseCommand(input, selectedIssue, selectedRepo);
+			case PAGE: return createPageCommand(input, selectedIssue, selectedRepo);
+			case STATS: return createStatsCommand(input, selectedRepo);
+			case EXPORT: return createExportCommand(input, selectedRepo);
+			case IMPORT: return createImportCommand(input, selectedRepo);
+			case MINE: return createMyIssuesCommand(input);
 			default: return makeAppropriateCommand(input, selectedIssue, selectedRepo);
 		}
 	}
@@ -164,6 +171,119 @@ public class Parser {
 		return new CloseIssue(selectedIssue, selectedRepo);
 	}
 	
+	/**
+	 * Creates a command to show a page of the selected repository's issues.
+	 * @param input The command input. Cannot be null or empty string.
+	 * @param selectedIssue The name of the selected issue. Cannot be an empty string.
+	 * @param selectedRepo The name of the selected repository. Cannot be an empty string.
+	 * @return A Command to show the given page of the selected repository.
+	 * @throws IllegalArgumentException If the page number is missing or is not a number.
+	 * @throws InvalidContextException If no repository is selected or an issue is selected.
+	 */
+	private Command createPageCommand(String input, String selectedIssue, String selectedRepo) throws IllegalArgumentException, InvalidContextException {
+		assert input!=null && !input.isEmpty();
+		if(selectedRepo==null){
+			throw new InvalidContextException(Constants.ERROR_REPONOTSELECTED);
+		}
+		if(selectedIssue!=null){
+			throw new InvalidContextException(Constants.ERROR_INAPPLICABLEPAGECOMMAND);
+		}
+		assert !selectedRepo.isEmpty();
+		String parameter = removeFirstWord(input);
+		if(parameter==null || parameter.isEmpty()){
+			throw new IllegalArgumentException(Constants.ERROR_NOPARAMETER);
+		}
+		try{
+			return new ShowPage(Integer.parseInt(parameter.trim()), selectedRepo);
+		} catch(NumberFormatException e){
+			throw new IllegalArgumentException(Constants.ERROR_INVALIDPAGE);
+		}
+	}
+	
+	/**
+	 * Creates a command to show the session's metrics, or the statistics of the selected repository's issues.
+	 * @param input The command input, which may be followed by "repo". Cannot be null or empty string.
+	 * @param selectedRepo The name of the selected repository. Cannot be an empty string.
+	 * @return A Command to show the session's metrics, or the selected repository's statistics if "repo" is given.
+	 * @throws IllegalArgumentException If the parameter is neither empty nor "repo".
+	 * @throws InvalidContextException If "repo" is given and no repository is selected.
+	 */
+	private Command createStatsCommand(String input, String selectedRepo) throws IllegalArgumentException, InvalidContextException {
+		assert input!=null && !input.isEmpty();
+		String parameter = removeFirstWord(input);
+		if(parameter==null || parameter.trim().isEmpty()){
+			return new ShowStats();
+		} else if(!parameter.trim().equals(PARAM_REPOSTATS)){
+			throw new IllegalArgumentException(Constants.ERROR_INPUTPARSING);
+		} else if(selectedRepo==null){
+			throw new InvalidContextException(Constants.ERROR_REPONOTSELECTED);
+		}
+		assert !selectedRepo.isEmpty();
+		return new ShowRepoStats(selectedRepo);
+	}
+	
+	/**
+	 * Creates a command to export the selected repository's issues and comments to a file.
+	 * @param input The command input. Cannot be null or empty string.
+	 * @param selectedRepo The name of the selected repository. Cannot be an empty string.
+	 * @return A Command to export the selected repository to the file given in input.
+	 * @throws IllegalArgumentException If the file path is missing.
+	 * @throws InvalidContextException If no repository is selected.
+	 */
+	private Command createExportCommand(String input, String selectedRepo) throws IllegalArgumentException, InvalidContextException {
+		assert input!=null && !input.isEmpty();
+		if(selectedRepo==null){
+			throw new InvalidContextException(Constants.ERROR_REPONOTSELECTED);
+		}
+		assert !selectedRepo.isEmpty();
+		String parameter = removeFirstWord(input);
+		if(parameter==null || parameter.isEmpty()){
+			throw new IllegalArgumentException(Constants.ERROR_NOPARAMETER);
+		}
+		return new ExportIssues(parameter.trim(), selectedRepo);
+	}
+	
+	/**
+	 * Creates a command to import issues from a file into the selected repository.
+	 * @param input The command input. Cannot be null or empty string.
+	 * @param selectedRepo The name of the selected repository. Cannot be an empty string.
+	 * @return A Command to import the issues in the file given in input into the selected repository.
+	 * @throws IllegalArgumentException If the file path is missing.
+	 * @throws InvalidContextException If no repository is selected.
+	 */
+	private Command createImportCommand(String input, String selectedRepo) throws IllegalArgumentException, InvalidContextException {
+		assert input!=null && !input.isEmpty();
+		if(selectedRepo==null){
+			throw new InvalidContextException(Constants.ERROR_REPONOTSELECTED);
+		}
+		assert !selectedRepo.isEmpty();
+		String parameter = removeFirstWord(input);
+		if(parameter==null || parameter.isEmpty()){
+			throw new IllegalArgumentException(Constants.ERROR_NOPARAMETER);
+		}
+		return new ImportIssues(parameter.trim(), selectedRepo);
+	}
+	
+	/**
+	 * Creates a command to show the user's issues across all repositories.
+	 * @param input The command input, with an optional filter of assigned, created or all. Cannot be null or empty string.
+	 * @return A Command to show the user's issues that match the filter, or assigned issues if there is no filter.
+	 * @throws IllegalArgumentException If the filter is invalid.
+	 */
+	private Command createMyIssuesCommand(String input) throws IllegalArgumentException {
+		assert input!=null && !input.isEmpty();
+		String parameter = removeFirstWord(input);
+		if(parameter==null || parameter.trim().isEmpty()){
+			return new ShowMyIssues(Constants.FILTER_ASSIGNED);
+		}
+		parameter = parameter.trim();
+		if(!parameter.equals(Constants.FILTER_ASSIGNED) && !parameter.equals(Constants.FILTER_CREATED) &&
+				!parameter.equals(Constants.FILTER_ALL)){
+			throw new IllegalArgumentException(Constants.ERROR_INVALIDFILTER);
+		}
+		return new ShowMyIssues(parameter);
+	}
+	
 	/**
 	 * Creates a command to edit an issue.
 	 * @param selectedIssue The name of the issue to be edited.
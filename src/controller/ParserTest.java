@@ -107,4 +107,96 @@ public class ParserTest {
 		Command cmd = parser.parse("edit abc", "repo1", "issue1");
 		assertTrue(cmd instanceof EditIssue);
 	}
+	
+	@Test
+	public void testPage() throws IllegalArgumentException, InvalidContextException{
+		Parser parser = new Parser();
+		Command cmd = parser.parse("page 2", null, "MyGitHubIssueTracker");
+		assertTrue(cmd instanceof ShowPage);
+		
+		cmd = parser.parse("p 3", null, "MyGitHubIssueTracker");
+		assertTrue(cmd instanceof ShowPage);
+	}
+	
+	@Test
+	//Tests that the stats command is available at every level
+	public void testStats() throws IllegalArgumentException, InvalidContextException{
+		Parser parser = new Parser();
+		assertTrue(parser.parse("stats", null, null) instanceof ShowStats);
+		assertTrue(parser.parse("stats", null, "MyGitHubIssueTracker") instanceof ShowStats);
+		assertTrue(parser.parse("stats", "Issue", "MyGitHubIssueTracker") instanceof ShowStats);
+	}
+	
+	@Test
+	//Tests that the export command applies to the selected repository, with or without a selected issue
+	public void testExport() throws IllegalArgumentException, InvalidContextException{
+		Parser parser = new Parser();
+		assertTrue(parser.parse("export issues.jsonl", null, "MyGitHubIssueTracker") instanceof ExportIssues);
+		assertTrue(parser.parse("export issues.csv.gz", "Issue", "MyGitHubIssueTracker") instanceof ExportIssues);
+	}
+	
+	@Test(expected=InvalidContextException.class)
+	public void testExportWithoutRepo() throws IllegalArgumentException, InvalidContextException{
+		Parser parser = new Parser();
+		parser.parse("export issues.jsonl", null, null);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testExportWithoutPath() throws IllegalArgumentException, InvalidContextException{
+		Parser parser = new Parser();
+		parser.parse("export", null, "MyGitHubIssueTracker");
+	}
+	
+	@Test
+	public void testImport() throws IllegalArgumentException, InvalidContextException{
+		Parser parser = new Parser();
+		assertTrue(parser.parse("import issues.jsonl", null, "MyGitHubIssueTracker") instanceof ImportIssues);
+		assertTrue(parser.parse("import issues.jsonl.gz", "Issue", "MyGitHubIssueTracker") instanceof ImportIssues);
+	}
+	
+	@Test(expected=InvalidContextException.class)
+	public void testImportWithoutRepo() throws IllegalArgumentException, InvalidContextException{
+		Parser parser = new Parser();
+		parser.parse("import issues.jsonl", null, null);
+	}
+	
+	@Test
+	//Tests that the mine command is available at every level
+	public void testMine() throws IllegalArgumentException, InvalidContextException{
+		Parser parser = new Parser();
+		assertTrue(parser.parse("mine", null, null) instanceof ShowMyIssues);
+		assertTrue(parser.parse("mine created", null, "MyGitHubIssueTracker") instanceof ShowMyIssues);
+		assertTrue(parser.parse("mine all", "Issue", "MyGitHubIssueTracker") instanceof ShowMyIssues);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testMineWithInvalidFilter() throws IllegalArgumentException, InvalidContextException{
+		Parser parser = new Parser();
+		parser.parse("mine mentioned", null, null);
+	}
+	
+	@Test
+	public void testRepoStats() throws IllegalArgumentException, InvalidContextException{
+		Parser parser = new Parser();
+		assertTrue(parser.parse("stats repo", null, "MyGitHubIssueTracker") instanceof ShowRepoStats);
+		assertTrue(parser.parse("stats repo", "Issue", "MyGitHubIssueTracker") instanceof ShowRepoStats);
+	}
+	
+	@Test(expected=InvalidContextException.class)
+	public void testRepoStatsWithoutRepo() throws IllegalArgumentException, InvalidContextException{
+		Parser parser = new Parser();
+		parser.parse("stats repo", null, null);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testInvalidPage() throws IllegalArgumentException, InvalidContextException{
+		Parser parser = new Parser();
+		parser.parse("page two", null, "MyGitHubIssueTracker");
+	}
+	
+	@Test(expected=InvalidContextException.class)
+	public void testPageWithIssueSelected() throws IllegalArgumentException, InvalidContextException{
+		Parser parser = new Parser();
+		parser.parse("page 2", "issue1", "MyGitHubIssueTracker");
+	}
 }
@@ -13,8 +13,8 @@ public class SelectIssue extends Command {
 	
 	/**
 	 * Creates a new instance of this command.
-	 * @param issueName The name of the issue to be selected or the index of the issue in the repository,
-	 * 					starting from 1.
+	 * @param issueName The name of the issue to be selected, the index of the issue in the repository,
+	 * 					starting from 1, or the issue's GitHub number prefixed with #.
 	 * @param repo The name of the repository that contains the issue to be selected.
 	 */
 	public SelectIssue(String issueName, String repo){
@@ -0,0 +1,41 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+import org.json.JSONException;
+
+import misc.Constants;
+import misc.FailedRequestException;
+import misc.MissingMessageException;
+import misc.RequestException;
+import structure.Issue;
+import structure.Repository;
+
+/**
+ * Defines the command to show the user's open issues across all repositories, grouped by repository.
+ * @author ZiXian92
+ */
+public class ShowMyIssues extends Command {
+	//Data members
+	private String filter;
+
+	/**
+	 * Creates a new instance of this command.
+	 * @param filter The issues to show: assigned, created or all, as GitHub defines them. Cannot be null.
+	 */
+	public ShowMyIssues(String filter){
+		assert filter!=null;
+		this.filter = filter;
+	}
+
+	@Override
+	public void execute() {
+		try{
+			LinkedHashMap<Repository, ArrayList<Issue>> groups = model.getMyIssues(filter);
+			view.updateView(groups);
+		} catch(RequestException | FailedRequestException | MissingMessageException | JSONException e){
+			view.updateView(Constants.ERROR_MYISSUES);
+		}
+	}
+}
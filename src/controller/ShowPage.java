@@ -0,0 +1,42 @@
+package controller;
+
+import misc.Constants;
+import structure.Repository;
+
+/**
+ * Defines the command to show a page of the selected repository's issues.
+ * @author ZiXian92
+ */
+public class ShowPage extends Command {
+	//Data members
+	private String repoName;
+	private int page;
+
+	/**
+	 * Creates a new instance of this command.
+	 * @param page The 1-based page number of the issues to show.
+	 * @param repoName The name of the repository to show. Cannot be null or empty string.
+	 */
+	public ShowPage(int page, String repoName){
+		assert repoName!=null && !repoName.isEmpty();
+		this.page = page;
+		this.repoName = repoName;
+	}
+
+	@Override
+	public void execute() {
+		try{
+			Repository repo = model.getRepository(repoName);
+			if(repo==null){
+				view.updateView(Constants.ERROR_REPONOTFOUND);
+				new ListCommand().execute();
+			} else{
+				view.updateView(repo, page);
+			}
+		} catch(Exception e){
+			view.updateView(e.getMessage());
+			new ListCommand().execute();
+		}
+	}
+
+}
@@ -0,0 +1,37 @@
+package controller;
+
+import misc.Constants;
+import structure.Repository;
+
+/**
+ * Defines the command to show the counts of the selected repository's issues per label, milestone and assignee,
+ * and of their comments.
+ * @author ZiXian92
+ */
+public class ShowRepoStats extends Command {
+	//Data members
+	private String repoName;
+
+	/**
+	 * Creates a new instance of this command.
+	 * @param repoName The name of the repository to show. Cannot be null or empty string.
+	 */
+	public ShowRepoStats(String repoName){
+		assert repoName!=null && !repoName.isEmpty();
+		this.repoName = repoName;
+	}
+
+	@Override
+	public void execute() {
+		try{
+			Repository repo = model.getRepository(repoName);
+			if(repo==null){
+				view.updateView(Constants.ERROR_REPONOTFOUND);
+			} else{
+				view.updateView(repo.getStats().toString());
+			}
+		} catch(Exception e){
+			view.updateView(e.getMessage());
+		}
+	}
+}
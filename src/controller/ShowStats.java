@@ -0,0 +1,21 @@
+package controller;
+
+import misc.Metrics;
+
+/**
+ * Defines the command to show the request, decoding and cache metrics recorded in this session.
+ * @author ZiXian92
+ */
+public class ShowStats extends Command {
+	/**
+	 * Creates a new instance of this command.
+	 */
+	public ShowStats(){
+		
+	}
+
+	@Override
+	public void execute() {
+		view.updateView(Metrics.getInstance().getSummary());
+	}
+}
@@ -0,0 +1,244 @@
+package misc;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ErrorManager;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * Defines the log handler that hands records to a background writer instead of writing them on the logging thread.
+ * Records are placed in a bounded, lock-free ring buffer and written in batches to the given handler, which is
+ * flushed once per batch. A FileHandler with a size limit and file count gives size-based rotation.
+ * When the buffer is full, records are either dropped or the logging thread waits for space, depending on the policy.
+ * @author ZiXian92
+ */
+public class AsyncLogHandler extends Handler {
+	/**
+	 * What to do with a record when the buffer is full.
+	 */
+	public enum OverflowPolicy{ DROP, BLOCK };
+
+	private static final int BATCH_SIZE = 256;
+	private static final long IDLE_PARKNANOS = TimeUnit.MILLISECONDS.toNanos(100);
+	private static final long BLOCK_PARKNANOS = TimeUnit.MICROSECONDS.toNanos(50);
+	private static final long FLUSH_TIMEOUTNANOS = TimeUnit.SECONDS.toNanos(5);
+
+	//Data members
+	private Handler target;
+	private OverflowPolicy policy;
+	private RingBuffer buffer;
+	private Thread writer;
+	private volatile boolean isWriterIdle = false, isClosed = false;
+	private AtomicLong numDropped = new AtomicLong();
+
+	/**
+	 * Creates a handler that writes to the given handler from a background thread.
+	 * @param target The handler to write records to, such as a FileHandler. Cannot be null.
+	 * @param capacity The maximum number of records waiting to be written. Rounded up to a power of 2.
+	 * @param policy What to do with records logged while the buffer is full. Cannot be null.
+	 */
+	public AsyncLogHandler(Handler target, int capacity, OverflowPolicy policy){
+		assert target!=null && capacity>0 && policy!=null;
+		this.target = target;
+		this.policy = policy;
+		buffer = new RingBuffer(capacity);
+		writer = new Thread(new Runnable(){
+			@Override
+			public void run(){
+				drainUntilClosed();
+			}
+		}, "AsyncLogHandler");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	@Override
+	public void publish(LogRecord record){
+		if(isClosed || !isLoggable(record)){
+			return;
+		}
+		record.getSourceClassName();	//Infers the caller now, as it cannot be found from the writer thread.
+		while(!buffer.offer(record)){
+			if(policy==OverflowPolicy.DROP || isClosed){
+				numDropped.incrementAndGet();
+				Metrics.getInstance().increment(Metrics.COUNTER_LOGDROPPED);
+				return;
+			}
+			LockSupport.unpark(writer);
+			LockSupport.parkNanos(BLOCK_PARKNANOS);
+		}
+		if(isWriterIdle){
+			LockSupport.unpark(writer);
+		}
+	}
+
+	/**
+	 * Waits for the records logged so far to be written, then flushes the target handler.
+	 */
+	@Override
+	public void flush(){
+		long deadline = System.nanoTime()+FLUSH_TIMEOUTNANOS;
+		while(!buffer.isEmpty() && writer.isAlive() && System.nanoTime()<deadline){
+			LockSupport.unpark(writer);
+			Thread.yield();
+		}
+		synchronized(target){
+			target.flush();
+		}
+	}
+
+	/**
+	 * Writes all waiting records, then closes the target handler.
+	 */
+	@Override
+	public void close(){
+		if(isClosed){
+			return;
+		}
+		isClosed = true;
+		LockSupport.unpark(writer);
+		try{
+			writer.join(TimeUnit.NANOSECONDS.toMillis(FLUSH_TIMEOUTNANOS));
+		} catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+		}
+		synchronized(target){
+			target.close();
+		}
+	}
+
+	@Override
+	public void setFormatter(Formatter formatter){
+		super.setFormatter(formatter);
+		target.setFormatter(formatter);
+	}
+
+	@Override
+	public void setEncoding(String encoding) throws java.io.UnsupportedEncodingException{
+		super.setEncoding(encoding);
+		target.setEncoding(encoding);
+	}
+
+	@Override
+	public void setLevel(Level level){
+		super.setLevel(level);
+		target.setLevel(level);
+	}
+
+	/**
+	 * Gets the number of records dropped because the buffer was full.
+	 * @return The number of dropped records.
+	 */
+	public long getNumDropped(){
+		return numDropped.get();
+	}
+
+	/**
+	 * Writes records in batches until this handler is closed and the buffer is empty.
+	 */
+	private void drainUntilClosed(){
+		while(true){
+			int numWritten = drainBatch();
+			if(numWritten>0){
+				continue;
+			}
+			if(isClosed){
+				if(buffer.isEmpty()){
+					return;
+				}
+				continue;
+			}
+			isWriterIdle = true;
+			if(buffer.isEmpty() && !isClosed){	//Checks again, as a record may have been added before going idle.
+				LockSupport.parkNanos(this, IDLE_PARKNANOS);
+			}
+			isWriterIdle = false;
+		}
+	}
+
+	/**
+	 * Writes up to BATCH_SIZE records to the target handler, flushing it if any were written.
+	 * @return The number of records written.
+	 */
+	private int drainBatch(){
+		int numWritten = 0;
+		LogRecord record;
+		synchronized(target){
+			while(numWritten<BATCH_SIZE && (record = buffer.poll())!=null){
+				try{
+					target.publish(record);
+				} catch(RuntimeException e){
+					reportError(null, e, ErrorManager.WRITE_FAILURE);
+				}
+				numWritten++;
+			}
+			if(numWritten>0){
+				target.flush();
+			}
+		}
+		return numWritten;
+	}
+
+	/**
+	 * Defines the bounded queue of records for many logging threads and 1 writer thread.
+	 * Each slot has a sequence number telling whether it is free for the producer at a given position
+	 * or filled for the consumer, so producers only contend on claiming a position.
+	 */
+	private static class RingBuffer {
+		private AtomicReferenceArray<LogRecord> slots;
+		private AtomicLongArray sequences;
+		private AtomicLong tail = new AtomicLong();	//Next position to fill.
+		private volatile long head = 0;	//Next position to take. Only changed by the writer.
+		private int mask;
+
+		RingBuffer(int capacity){
+			int size = Integer.highestOneBit(Math.max(2, capacity-1))<<1;
+			slots = new AtomicReferenceArray<LogRecord>(size);
+			sequences = new AtomicLongArray(size);
+			for(int i=0; i<size; i++){
+				sequences.set(i, i);
+			}
+			mask = size-1;
+		}
+
+		boolean offer(LogRecord record){
+			while(true){
+				long position = tail.get();
+				int index = (int)position&mask;
+				long diff = sequences.get(index)-position;
+				if(diff==0){
+					if(tail.compareAndSet(position, position+1)){
+						slots.lazySet(index, record);
+						sequences.set(index, position+1);	//Publishes the record to the writer.
+						return true;
+					}
+				} else if(diff<0){
+					return false;	//The slot still holds a record from a lap ago.
+				}
+			}
+		}
+
+		LogRecord poll(){
+			long position = head;
+			int index = (int)position&mask;
+			if(sequences.get(index)!=position+1){
+				return null;
+			}
+			LogRecord record = slots.get(index);
+			slots.lazySet(index, null);
+			sequences.set(index, position+mask+1);	//Frees the slot for the next lap.
+			head = position+1;
+			return record;
+		}
+
+		boolean isEmpty(){
+			return head==tail.get();
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package misc;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import org.junit.Test;
+
+/**
+ * Defines the unit test for AsyncLogHandler class.
+ * @author ZiXian92
+ */
+public class AsyncLogHandlerTest {
+	/**
+	 * Keeps the messages of published records, optionally waiting on a latch before the first one.
+	 */
+	private static class CapturingHandler extends Handler {
+		private ArrayList<String> messages = new ArrayList<String>();
+		private CountDownLatch gate;
+		private boolean isClosed = false;
+
+		CapturingHandler(CountDownLatch gate){
+			this.gate = gate;
+		}
+
+		@Override
+		public void publish(LogRecord record){
+			try{
+				gate.await();
+			} catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+			messages.add(record.getMessage());
+		}
+
+		@Override
+		public void flush(){}
+
+		@Override
+		public void close(){
+			isClosed = true;
+		}
+	}
+
+	@Test
+	//Tests that records from many threads are all written, in order for each thread
+	public void testConcurrentPublish() throws InterruptedException{
+		final int numThreads = 4, numRecords = 5000;
+		CapturingHandler target = new CapturingHandler(new CountDownLatch(0));
+		final AsyncLogHandler handler = new AsyncLogHandler(target, 64, AsyncLogHandler.OverflowPolicy.BLOCK);
+		Thread[] threads = new Thread[numThreads];
+		for(int i=0; i<numThreads; i++){
+			final int id = i;
+			threads[i] = new Thread(new Runnable(){
+				@Override
+				public void run(){
+					for(int j=0; j<numRecords; j++){
+						handler.publish(new LogRecord(Level.INFO, id+":"+j));
+					}
+				}
+			});
+			threads[i].start();
+		}
+		for(Thread thread: threads){
+			thread.join();
+		}
+		handler.close();
+		assertTrue(target.isClosed);
+		assertEquals(0, handler.getNumDropped());
+		assertEquals(numThreads*numRecords, target.messages.size());
+		int[] next = new int[numThreads];
+		for(String message: target.messages){
+			String[] parts = message.split(":");
+			int id = Integer.parseInt(parts[0]);
+			assertEquals(next[id]++, Integer.parseInt(parts[1]));
+		}
+	}
+
+	@Test
+	//Tests that records are dropped instead of waiting when the buffer is full
+	public void testDropWhenFull(){
+		CountDownLatch gate = new CountDownLatch(1);
+		CapturingHandler target = new CapturingHandler(gate);
+		AsyncLogHandler handler = new AsyncLogHandler(target, 8, AsyncLogHandler.OverflowPolicy.DROP);
+		for(int i=0; i<100; i++){
+			handler.publish(new LogRecord(Level.INFO, String.valueOf(i)));
+		}
+		assertTrue(handler.getNumDropped()>0);
+		gate.countDown();
+		handler.close();
+		assertEquals(100, target.messages.size()+handler.getNumDropped());
+		assertEquals("0", target.messages.get(0));
+	}
+
+	@Test
+	//Tests that records below the handler's level are not written
+	public void testLevel(){
+		CapturingHandler target = new CapturingHandler(new CountDownLatch(0));
+		AsyncLogHandler handler = new AsyncLogHandler(target, 8, AsyncLogHandler.OverflowPolicy.DROP);
+		handler.setLevel(Level.WARNING);
+		handler.publish(new LogRecord(Level.INFO, "info"));
+		handler.publish(new LogRecord(Level.SEVERE, "severe"));
+		handler.flush();
+		handler.close();
+		assertEquals(1, target.messages.size());
+		assertEquals("severe", target.messages.get(0));
+	}
+}
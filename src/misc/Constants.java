@@ -6,7 +6,10 @@ package misc;
  */
 public class Constants {
 	//API URL and extensions
-	public static final String API_URL = "https://api.github.com";
+	public static final String PROPERTY_APIURL = "mygithubissuetracker.apiurl";
+	public static final String API_URL = System.getProperty(PROPERTY_APIURL, "https://api.github.com");	//Overridable for offline testing.
+	public static final String PROPERTY_TIMEOUT = "mygithubissuetracker.timeout";
+	public static final long LOAD_TIMEOUT = Long.getLong(PROPERTY_TIMEOUT, 30000);	//Milliseconds to load a repository or issue.
 	public static final String EXT_USER = "/user";
 	public static final String EXT_REPOS = "/user/repos";
 	public static final String EXT_REPOISSUES = "/repos/%1$s/%2$s/issues";
@@ -16,11 +19,23 @@ public class Constants {
 	public static final String EXT_EDITISSUE = "/repos/%1$s/%2$s/issues/%3$d";
 	public static final String EXT_ISSUECOMMENTS = "/repos/%1$s/%2$s/issues/%3$d/comments";
 	public static final String EXT_COMMENTS = "/repos/%1$s/%2$s/issues/%3$d/comments";
+	public static final String EXT_MYISSUES = "/issues";
+	public static final String QUERY_MYISSUES = "?filter=%1$s&per_page=100";
+	public static final String QUERY_ALLISSUES = "?state=all&per_page=100";
+	public static final String QUERY_MAXPAGESIZE = "?per_page=100";
+	public static final String QUERY_PAGE = "?per_page=100&page=%1$d";
+	public static final int MAX_PAGESIZE = 100;
 	
 	
 	//Http headers and values
 	public static final String HEADER_ACCEPT = "Accept";
 	public static final String HEADER_AUTH = "Authorization";
+	public static final String HEADER_ETAG = "ETag";
+	public static final String HEADER_IFNONEMATCH = "If-None-Match";
+	public static final String HEADER_LINK = "Link";
+	public static final String HEADER_RATEREMAINING = "X-RateLimit-Remaining";
+	public static final String HEADER_RATERESET = "X-RateLimit-Reset";
+	public static final String VAL_RELNEXT = "rel=\"next\"";
 	public static final String VAL_ACCEPT = "application/vnd.github.v3+json";
 	public static final String VAL_AUTH = "Basic %1$s";
 	public static final String VAL_PREVIEWACCEPT = "application/vnd.github.moondragon-preview+json";
@@ -28,6 +43,7 @@ public class Constants {
 	//Http responses
 	public static final String RESPONSE_CREATED = "HTTP/1.1 201 Created";
 	public static final String RESPONSE_OK = "HTTP/1.1 200 OK";
+	public static final int STATUS_NOTMODIFIED = 304;
 	
 	//JSON keys
 	public static final String KEY_ASSIGNEE = "assignee";
@@ -45,6 +61,7 @@ public class Constants {
 	public static final String KEY_MILESTONETITLE = "title";
 	public static final String KEY_OWNER = "owner";
 	public static final String KEY_REPONAME = "name";
+	public static final String KEY_REPOSITORY = "repository";
 	public static final String KEY_STATUS = "state";
 	public static final String KEY_USER = "user";
 	public static final String KEY_USERLOGIN = "login";
@@ -58,17 +75,24 @@ public class Constants {
 	public static final String ERROR_CLOSEISSUE = "Error closing issue.";
 	public static final String ERROR_EDITISSUE = "Error editing issue.";
 	public static final String ERROR_EMPTYCOMMAND = "Empty command.";
+	public static final String ERROR_EXPORTFILE = "Error writing export file.";
+	public static final String ERROR_EXPORTISSUES = "Error exporting issues. The export file is removed.";
+	public static final String ERROR_IMPORTFILE = "Error reading import file.";
 	public static final String ERROR_FAILEDLOGIN = "Login failed. Either the username and/or password is incorrect.";
 	public static final String ERROR_FAILEDREQUEST = "Request failed.";
 	public static final String ERROR_INAPPLICABLEADDCOMMAND = "Adding issue is not allowed while an issue is selected.";
 	public static final String ERROR_INAPPLICABLEBACKCOMMAND = "No repository is selected. Unable to go further up.";
+	public static final String ERROR_INAPPLICABLEPAGECOMMAND = "Page command not allowed when issue is selected.";
 	public static final String ERROR_INAPPLICABLESELECT = "Select command not allowed when issue is selected.";
 	public static final String ERROR_INITIALIZEDATA  = "Error updating local data. Restart to try again.";
 	public static final String ERROR_INPUTPARSING = "Error parsing input. Please try again.";
+	public static final String ERROR_INVALIDPAGE = "Invalid page number.";
+	public static final String ERROR_INVALIDFILTER = "Invalid filter. Use assigned, created or all.";
 	public static final String ERROR_ISSUENOTFOUND = "Issue/Repository not found.";
 	public static final String ERROR_ISSUENOTSELECTED = "Inapplicable action. Please select an issue.";
 	public static final String ERROR_MISSINGMESSAGE = "Message missing in response. Unable to update local data.";
 	public static final String ERROR_MISSINGTITLE = "No title given.";
+	public static final String ERROR_MYISSUES = "Error getting your issues.";
 	public static final String ERROR_NOPARAMETER = "Invalid command. No parameter passed.";
 	public static final String ERROR_PARSEINPUTTOJSON = "Error converting input to request.";
 	public static final String ERROR_REPOERROR = "Repository not found or error updating repository.";
@@ -80,6 +104,10 @@ public class Constants {
 	public static final String ERROR_UPDATEREPO = "An error occurred while updating the repository.";
 	
 	//Others
+	public static final String FILTER_ALL = "all";
+	public static final String FILTER_ASSIGNED = "assigned";
+	public static final String FILTER_CREATED = "created";
+	public static final String ISSUE_NUMBERPREFIX = "#";
 	public static final String ISSUE_STATUSCLOSED = "closed";
 	public static final String ISSUE_STATUSOPEN = "open";
 	public static final String REPO_FULLNAME = "%1$s/%2$s";
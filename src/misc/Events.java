@@ -0,0 +1,123 @@
+package misc;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Defines the entry point for emitting Java Flight Recorder events for requests, parsing, decoding and commands,
+ * so that recordings show network and CPU time per user action.
+ * Each begin method returns a handle to pass to the matching commit method, which records the event's duration.
+ * On JVMs without Flight Recorder, or when no recording is running, begin methods return null and commit methods
+ * do nothing.
+ * @author ZiXian92
+ */
+public class Events {
+	//For logging
+	private static final Logger logger = Logger.getLogger("com.MyGitHubIssueTracker.misc.Events");
+
+	//Event types, all null if Flight Recorder is unavailable.
+	private static JfrEventType request, parse, decode, command;
+
+	static{
+		logger.setUseParentHandlers(true);
+		try{
+			request = new JfrEventType("Request", "GitHub Request",
+					"A request to GitHub API, until its response has been fully received", "Network",
+					new Class<?>[] {String.class, int.class, long.class}, new String[] {"endpoint", "status", "bytes"},
+					new String[] {"Endpoint", "Status", "Response Bytes"});
+			parse = new JfrEventType("Parse", "JSON Parse",
+					"Reading and parsing of the JSON in a response or cached response", "Network",
+					new Class<?>[] {int.class}, new String[] {"length"}, new String[] {"Characters"});
+			decode = new JfrEventType("Decode", "Decode",
+					"Building of the issues or comments in parsed responses", "Model",
+					new Class<?>[] {String.class, int.class}, new String[] {"source", "numItems"},
+					new String[] {"Source", "Items"});
+			command = new JfrEventType("Command", "Command", "Execution of a command entered by the user", "Controller",
+					new Class<?>[] {String.class, String.class}, new String[] {"command", "repository"},
+					new String[] {"Command", "Selected Repository"});
+		} catch(ReflectiveOperationException | LinkageError e){
+			logger.log(Level.FINE, "Flight Recorder is unavailable: {0}", e.toString());
+			request = parse = decode = command = null;
+		}
+	}
+
+	/**
+	 * Starts timing a request to GitHub API.
+	 * @return The handle of the event, or null if events are unavailable or not being recorded.
+	 */
+	public static Object beginRequest(){
+		return (request==null)? null: request.begin();
+	}
+
+	/**
+	 * Records a request started with beginRequest().
+	 * @param event The handle returned by beginRequest(). Can be null.
+	 * @param endpoint The templated endpoint of the request, as returned by Util.getEndpoint().
+	 * @param status The status code of the response, or -1 if the request failed.
+	 * @param bytes The size of the response's message body.
+	 */
+	public static void commitRequest(Object event, String endpoint, int status, long bytes){
+		if(event!=null){
+			request.commit(event, endpoint, status, bytes);
+		}
+	}
+
+	/**
+	 * Starts timing the parsing of a response's JSON.
+	 * @return The handle of the event, or null if events are unavailable or not being recorded.
+	 */
+	public static Object beginParse(){
+		return (parse==null)? null: parse.begin();
+	}
+
+	/**
+	 * Records parsing started with beginParse().
+	 * @param event The handle returned by beginParse(). Can be null.
+	 * @param length The number of characters parsed.
+	 */
+	public static void commitParse(Object event, int length){
+		if(event!=null){
+			parse.commit(event, length);
+		}
+	}
+
+	/**
+	 * Starts timing the building of issues or comments from parsed responses.
+	 * @return The handle of the event, or null if events are unavailable or not being recorded.
+	 */
+	public static Object beginDecode(){
+		return (decode==null)? null: decode.begin();
+	}
+
+	/**
+	 * Records decoding started with beginDecode().
+	 * @param event The handle returned by beginDecode(). Can be null.
+	 * @param source What was decoded, e.g. issues or comments.
+	 * @param numItems The number of items decoded.
+	 */
+	public static void commitDecode(Object event, String source, int numItems){
+		if(event!=null){
+			decode.commit(event, source, numItems);
+		}
+	}
+
+	/**
+	 * Starts timing a command.
+	 * @return The handle of the event, or null if events are unavailable or not being recorded.
+	 */
+	public static Object beginCommand(){
+		return (command==null)? null: command.begin();
+	}
+
+	/**
+	 * Records a command started with beginCommand().
+	 * @param event The handle returned by beginCommand(). Can be null.
+	 * @param command The name of the command.
+	 * @param repository The repository selected when the command was entered. Can be null.
+	 */
+	public static void commitCommand(Object event, String command, String repository){
+		if(event!=null){
+			Events.command.commit(event, command, repository);
+		}
+	}
+}
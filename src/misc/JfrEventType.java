@@ -0,0 +1,110 @@
+package misc;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Defines a Java Flight Recorder event type of this application.
+ * The type is created through jdk.jfr.EventFactory by reflection, as Flight Recorder's API is not part of Java 8,
+ * so that this class compiles and loads on JVMs without it.
+ * @author ZiXian92
+ */
+class JfrEventType {
+	private static final String CATEGORY = "MyGitHubIssueTracker";
+	private static final String PREFIX_NAME = "mygithubissuetracker.";
+	private static final String PACKAGE_JFR = "jdk.jfr.";
+
+	//Data members
+	private Object factory, eventType;
+	private Method isEnabled;	//Of jdk.jfr.EventType.
+	private Method newEvent, begin, end, shouldCommit, set, commit;	//Of jdk.jfr.EventFactory and jdk.jfr.Event.
+
+	/**
+	 * Creates and registers an event type with the given fields.
+	 * @param name The name of the event type, without the application's prefix. Cannot be null or empty.
+	 * @param label The label shown in JDK Mission Control. Cannot be null or empty.
+	 * @param description The description of the event type. Cannot be null.
+	 * @param subcategory The category of the event type under the application's category. Cannot be null or empty.
+	 * @param fieldTypes The types of the fields, in the order their values are given to commit(). Cannot be null.
+	 * @param fieldNames The names of the fields. Cannot be null and must be as long as fieldTypes.
+	 * @param fieldLabels The labels of the fields. Cannot be null and must be as long as fieldTypes.
+	 * @throws ReflectiveOperationException If Flight Recorder is unavailable or its API cannot be called.
+	 */
+	JfrEventType(String name, String label, String description, String subcategory,
+			Class<?>[] fieldTypes, String[] fieldNames, String[] fieldLabels) throws ReflectiveOperationException{
+		assert name!=null && !name.isEmpty() && label!=null && !label.isEmpty() && description!=null;
+		assert subcategory!=null && !subcategory.isEmpty() && fieldTypes!=null;
+		assert fieldNames!=null && fieldNames.length==fieldTypes.length;
+		assert fieldLabels!=null && fieldLabels.length==fieldTypes.length;
+		Class<?> elementClass = Class.forName(PACKAGE_JFR+"AnnotationElement");
+		Constructor<?> elementConstructor = elementClass.getConstructor(Class.class, Object.class);
+		Class<?> labelClass = Class.forName(PACKAGE_JFR+"Label");
+
+		List<Object> annotations = new ArrayList<Object>();
+		annotations.add(elementConstructor.newInstance(Class.forName(PACKAGE_JFR+"Name"), PREFIX_NAME+name));
+		annotations.add(elementConstructor.newInstance(labelClass, label));
+		annotations.add(elementConstructor.newInstance(Class.forName(PACKAGE_JFR+"Description"), description));
+		annotations.add(elementConstructor.newInstance(Class.forName(PACKAGE_JFR+"Category"),
+				new String[] {CATEGORY, subcategory}));
+
+		Class<?> descriptorClass = Class.forName(PACKAGE_JFR+"ValueDescriptor");
+		Constructor<?> descriptorConstructor = descriptorClass.getConstructor(Class.class, String.class, List.class);
+		List<Object> fields = new ArrayList<Object>();
+		for(int i=0; i<fieldTypes.length; i++){
+			fields.add(descriptorConstructor.newInstance(fieldTypes[i], fieldNames[i],
+					Collections.singletonList(elementConstructor.newInstance(labelClass, fieldLabels[i]))));
+		}
+
+		Class<?> factoryClass = Class.forName(PACKAGE_JFR+"EventFactory");
+		factory = factoryClass.getMethod("create", List.class, List.class).invoke(null, annotations, fields);
+		eventType = factoryClass.getMethod("getEventType").invoke(factory);
+		isEnabled = Class.forName(PACKAGE_JFR+"EventType").getMethod("isEnabled");
+		Class<?> eventClass = Class.forName(PACKAGE_JFR+"Event");
+		newEvent = factoryClass.getMethod("newEvent");
+		begin = eventClass.getMethod("begin");
+		end = eventClass.getMethod("end");
+		shouldCommit = eventClass.getMethod("shouldCommit");
+		set = eventClass.getMethod("set", int.class, Object.class);
+		commit = eventClass.getMethod("commit");
+	}
+
+	/**
+	 * Creates an event of this type and starts timing it, unless no running recording has this type enabled.
+	 * @return The event, or null if the type is disabled or the event could not be created.
+	 */
+	Object begin(){
+		try{
+			if(!(Boolean)isEnabled.invoke(eventType)){	//Nothing is allocated when not recording.
+				return null;
+			}
+			Object event = newEvent.invoke(factory);
+			begin.invoke(event);
+			return event;
+		} catch(ReflectiveOperationException e){
+			return null;
+		}
+	}
+
+	/**
+	 * Stops timing the given event and records it with the given field values if the recording wants it.
+	 * @param event The event returned by begin(). Cannot be null.
+	 * @param values The values of the fields, in the order of the field types given when this type was created.
+	 */
+	void commit(Object event, Object... values){
+		assert event!=null;
+		try{
+			end.invoke(event);
+			if((Boolean)shouldCommit.invoke(event)){
+				for(int i=0; i<values.length; i++){
+					set.invoke(event, i, values[i]);
+				}
+				commit.invoke(event);
+			}
+		} catch(ReflectiveOperationException e){
+			//The event is dropped, as recording must not affect the command.
+		}
+	}
+}
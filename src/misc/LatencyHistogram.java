@@ -0,0 +1,130 @@
+package misc;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Defines a histogram of latencies with log-linear buckets, in the manner of HdrHistogram.
+ * Values below 128 are counted exactly, and larger values fall into buckets no wider than 1/64 of their value,
+ * so reported percentiles are within about 1.6% of the recorded values. Values can be recorded from many threads. Totals are striped across
+ * threads so that recording from busy threads does not contend on a single counter.
+ * @author ZiXian92
+ */
+public class LatencyHistogram {
+	private static final int SUBBUCKET_BITS = 7;
+	private static final int SUBBUCKET_COUNT = 1<<SUBBUCKET_BITS;	//Values below this are counted exactly.
+	private static final int SUBBUCKET_HALF = SUBBUCKET_COUNT/2;
+	private static final int NUM_BUCKETS = SUBBUCKET_COUNT+(64-SUBBUCKET_BITS)*SUBBUCKET_HALF;
+
+	//Data members
+	private AtomicLongArray counts;
+	private LongAdder totalCount, totalValue;
+	private AtomicLong maxValue;
+
+	/**
+	 * Creates an empty histogram.
+	 */
+	public LatencyHistogram(){
+		counts = new AtomicLongArray(NUM_BUCKETS);
+		totalCount = new LongAdder();
+		totalValue = new LongAdder();
+		maxValue = new AtomicLong();
+	}
+
+	/**
+	 * Records the given value.
+	 * @param value The value to record. Must not be negative.
+	 */
+	public void record(long value){
+		assert value>=0;
+		counts.incrementAndGet(indexOf(value));
+		totalCount.increment();
+		totalValue.add(value);
+		long max;
+		while(value>(max = maxValue.get()) && !maxValue.compareAndSet(max, value));
+	}
+
+	/**
+	 * Gets the number of recorded values.
+	 * @return The number of values recorded so far.
+	 */
+	public long getCount(){
+		return totalCount.sum();
+	}
+
+	/**
+	 * Gets the mean of the recorded values.
+	 * @return The mean of the recorded values or 0 if there are none.
+	 */
+	public double getMean(){
+		long count = totalCount.sum();
+		return (count==0)? 0: (double)totalValue.sum()/count;
+	}
+
+	/**
+	 * Gets the sum of the recorded values.
+	 * @return The sum of the recorded values.
+	 */
+	public long getTotal(){
+		return totalValue.sum();
+	}
+
+	/**
+	 * Gets the largest recorded value.
+	 * @return The largest recorded value or 0 if there are none.
+	 */
+	public long getMax(){
+		return maxValue.get();
+	}
+
+	/**
+	 * Gets the value at the given percentile.
+	 * @param percentile The percentile, between 0 and 100.
+	 * @return The highest value in the bucket holding the given percentile, capped at the largest recorded value,
+	 * 			or 0 if no value is recorded.
+	 */
+	public long getValueAtPercentile(double percentile){
+		assert percentile>=0 && percentile<=100;
+		long count = totalCount.sum();
+		if(count==0){
+			return 0;
+		}
+		long target = Math.max(1, (long)Math.ceil(percentile/100*count));
+		long seen = 0;
+		for(int i=0; i<NUM_BUCKETS; i++){
+			seen += counts.get(i);
+			if(seen>=target){
+				return Math.min(highestValueOf(i), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * Gets the bucket that the given value is counted in.
+	 * @param value The value. Must not be negative.
+	 * @return The index of the bucket for value.
+	 */
+	private static int indexOf(long value){
+		if(value<SUBBUCKET_COUNT){
+			return (int)value;
+		}
+		int shift = 63-Long.numberOfLeadingZeros(value)-(SUBBUCKET_BITS-1);	//Keeps the top 7 bits of value.
+		return SUBBUCKET_COUNT+(shift-1)*SUBBUCKET_HALF+(int)(value>>>shift)-SUBBUCKET_HALF;
+	}
+
+	/**
+	 * Gets the highest value counted in the given bucket.
+	 * @param index The index of the bucket.
+	 * @return The highest value that indexOf() maps to index.
+	 */
+	private static long highestValueOf(int index){
+		if(index<SUBBUCKET_COUNT){
+			return index;
+		}
+		int shift = (index-SUBBUCKET_COUNT)/SUBBUCKET_HALF+1;
+		long subBucket = (index-SUBBUCKET_COUNT)%SUBBUCKET_HALF+SUBBUCKET_HALF;
+		return ((subBucket+1)<<shift)-1;
+	}
+}
@@ -0,0 +1,42 @@
+package misc;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Defines the unit test for LatencyHistogram class.
+ * @author ZiXian92
+ */
+public class LatencyHistogramTest {
+
+	@Test
+	//Tests that small values are counted exactly
+	public void testSmallValues(){
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getValueAtPercentile(50));
+		for(int i=1; i<=100; i++){
+			histogram.record(i);
+		}
+		assertEquals(100, histogram.getCount());
+		assertEquals(50.5, histogram.getMean(), 0.001);
+		assertEquals(50, histogram.getValueAtPercentile(50));
+		assertEquals(99, histogram.getValueAtPercentile(99));
+		assertEquals(100, histogram.getValueAtPercentile(100));
+		assertEquals(100, histogram.getMax());
+	}
+
+	@Test
+	//Tests that percentiles of large values are within the histogram's precision
+	public void testLargeValues(){
+		LatencyHistogram histogram = new LatencyHistogram();
+		for(long i=1; i<=10000; i++){
+			histogram.record(i*1000);
+		}
+		assertEquals(5000000, histogram.getValueAtPercentile(50), 5000000/64);
+		assertEquals(9990000, histogram.getValueAtPercentile(99.9), 9990000/64);
+		assertEquals(10000000, histogram.getValueAtPercentile(100));
+		histogram.record(Long.MAX_VALUE);
+		assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+	}
+}
@@ -0,0 +1,171 @@
+package misc;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Defines the registry of counters and timers that record where time and traffic go in this session.
+ * Counters are striped so that they can be updated from many threads at little cost, and timers keep a
+ * latency histogram of each recorded operation. There is only 1 instance of Metrics for the entire session.
+ * @author ZiXian92
+ */
+public class Metrics {
+	//Metric names
+	public static final String COUNTER_BYTES = "bytes %1$s";
+	public static final String COUNTER_STATUS = "status %1$s %2$d";
+	public static final String COUNTER_REQUESTERROR = "error %1$s";
+	public static final String COUNTER_REPOHIT = "cache model.repository hit";
+	public static final String COUNTER_REPOMISS = "cache model.repository miss";
+	public static final String COUNTER_REPOEVICT = "cache model.repository evict";
+	public static final String COUNTER_ISSUEHIT = "cache model.issue hit";
+	public static final String COUNTER_ISSUEMISS = "cache model.issue miss";
+	public static final String COUNTER_RESPONSEMEMORY = "cache response memory hit";
+	public static final String COUNTER_RESPONSEDISK = "cache response disk hit";
+	public static final String COUNTER_RESPONSEMISS = "cache response miss";
+	public static final String COUNTER_VIEWHIT = "cache view hit";
+	public static final String COUNTER_VIEWMISS = "cache view miss";
+	public static final String COUNTER_LOGDROPPED = "log dropped";
+	public static final String TIMER_REQUEST = "request %1$s";
+	public static final String TIMER_DECODE = "json.decode";
+
+	//Output formatting
+	private static final String MSG_NOMETRICS = "No metrics recorded yet.";
+	private static final String HEADER_TIMERS = "Timers(ms)";
+	private static final String HEADER_COUNTERS = "Counters";
+	private static final String TIMER_HEADERFORMAT = "%1$-64s %2$8s %3$9s %4$9s %5$9s %6$9s";
+	private static final String TIMER_FORMAT = "%1$-64s %2$8d %3$9.2f %4$9.2f %5$9.2f %6$9.2f";
+	private static final String COUNTER_FORMAT = "%1$-64s %2$8d";
+
+	//The single instance of this class
+	private static final Metrics instance = new Metrics();
+
+	//Data members
+	private ConcurrentHashMap<String, LongAdder> counters;
+	private ConcurrentHashMap<String, LatencyHistogram> timers;
+
+	private Metrics(){
+		counters = new ConcurrentHashMap<String, LongAdder>();
+		timers = new ConcurrentHashMap<String, LatencyHistogram>();
+	}
+
+	/**
+	 * Gets the only instance of Metrics.
+	 * @return The only instance of this class.
+	 */
+	public static Metrics getInstance(){
+		return instance;
+	}
+
+	/**
+	 * Adds 1 to the counter with the given name.
+	 * @param name The name of the counter. Cannot be null.
+	 */
+	public void increment(String name){
+		getCounter(name).increment();
+	}
+
+	/**
+	 * Adds the given amount to the counter with the given name.
+	 * @param name The name of the counter. Cannot be null.
+	 * @param amount The amount to add.
+	 */
+	public void add(String name, long amount){
+		getCounter(name).add(amount);
+	}
+
+	/**
+	 * Records an operation of the timer with the given name that started at the given time.
+	 * @param name The name of the timer. Cannot be null.
+	 * @param startNanos The value of System.nanoTime() when the operation started.
+	 */
+	public void recordSince(String name, long startNanos){
+		getTimer(name).record(Math.max(0, (System.nanoTime()-startNanos)/1000));
+	}
+
+	/**
+	 * Gets the current value of the counter with the given name.
+	 * @param name The name of the counter. Cannot be null.
+	 * @return The value of the counter or 0 if nothing has been counted under name.
+	 */
+	public long getCount(String name){
+		assert name!=null;
+		LongAdder counter = counters.get(name);
+		return (counter==null)? 0: counter.sum();
+	}
+
+	/**
+	 * Gets the timer with the given name.
+	 * @param name The name of the timer. Cannot be null.
+	 * @return The histogram of the timer's operations in microseconds or null if nothing has been timed under name.
+	 */
+	public LatencyHistogram getTimerHistogram(String name){
+		assert name!=null;
+		return timers.get(name);
+	}
+
+	/**
+	 * Gets the summary of all timers and counters, sorted by name.
+	 * @return The summary of all metrics recorded so far.
+	 */
+	public String getSummary(){
+		if(timers.isEmpty() && counters.isEmpty()){
+			return MSG_NOMETRICS;
+		}
+		StringBuilder strBuilder = new StringBuilder();
+		if(!timers.isEmpty()){
+			strBuilder.append(String.format(TIMER_HEADERFORMAT, HEADER_TIMERS, "Count", "Mean", "p50", "p99", "Max"));
+			for(Map.Entry<String, LatencyHistogram> entry: new TreeMap<String, LatencyHistogram>(timers).entrySet()){
+				LatencyHistogram histogram = entry.getValue();
+				strBuilder.append('\n').append(String.format(TIMER_FORMAT, entry.getKey(), histogram.getCount(),
+						histogram.getMean()/1000, histogram.getValueAtPercentile(50)/1000.0,
+						histogram.getValueAtPercentile(99)/1000.0, histogram.getMax()/1000.0));
+			}
+		}
+		if(!counters.isEmpty()){
+			if(strBuilder.length()>0){
+				strBuilder.append("\n\n");
+			}
+			strBuilder.append(HEADER_COUNTERS);
+			for(Map.Entry<String, LongAdder> entry: new TreeMap<String, LongAdder>(counters).entrySet()){
+				strBuilder.append('\n').append(String.format(COUNTER_FORMAT, entry.getKey(), entry.getValue().sum()));
+			}
+		}
+		return strBuilder.toString();
+	}
+
+	/**
+	 * Clears all metrics.
+	 */
+	public void reset(){
+		counters.clear();
+		timers.clear();
+	}
+
+	private LongAdder getCounter(String name){
+		assert name!=null;
+		LongAdder counter = counters.get(name);
+		if(counter==null){
+			LongAdder newCounter = new LongAdder();
+			counter = counters.putIfAbsent(name, newCounter);
+			if(counter==null){
+				counter = newCounter;
+			}
+		}
+		return counter;
+	}
+
+	private LatencyHistogram getTimer(String name){
+		assert name!=null;
+		LatencyHistogram timer = timers.get(name);
+		if(timer==null){
+			LatencyHistogram newTimer = new LatencyHistogram();
+			timer = timers.putIfAbsent(name, newTimer);
+			if(timer==null){
+				timer = newTimer;
+			}
+		}
+		return timer;
+	}
+}
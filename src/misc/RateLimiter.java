@@ -0,0 +1,108 @@
+package misc;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+
+/**
+ * Defines the record of GitHub's rate limit for the session, kept up to date from the X-RateLimit headers of
+ * every response. Callers that send many requests in a row, such as an import, acquire a request before sending
+ * each one, and are held back until the limit resets once the requests left reach RESERVE. The reserve is left
+ * for the user's own commands.
+ * Until the first response is received, the limit is unknown and requests are not held back.
+ * There is only 1 instance of RateLimiter for the entire session.
+ * @author ZiXian92
+ */
+public class RateLimiter {
+	private static final int RESERVE = 50;
+	private static final int UNKNOWN = -1;
+
+	//For logging
+	private static final Logger logger = Logger.getLogger("com.MyGitHubIssueTracker.misc.RateLimiter");
+
+	//The single instance of this class
+	private static final RateLimiter instance = new RateLimiter();
+
+	//Data members
+	private int remaining;	//Requests left in the current window, less those acquired since the last response.
+	private long resetTime;	//In milliseconds since the epoch.
+
+	private RateLimiter(){
+		logger.setUseParentHandlers(true);
+		remaining = UNKNOWN;
+		resetTime = 0;
+	}
+
+	/**
+	 * Gets the only instance of RateLimiter.
+	 * @return The only instance of this class.
+	 */
+	public static RateLimiter getInstance(){
+		return instance;
+	}
+
+	/**
+	 * Records the rate limit reported in the given response, if any.
+	 * Responses may arrive out of order, so within a window, the lowest count of remaining requests is kept.
+	 * @param response The response received from GitHub. Cannot be null.
+	 */
+	public void update(HttpResponse response){
+		assert response!=null;
+		Header remainingHeader = response.getFirstHeader(Constants.HEADER_RATEREMAINING);
+		Header resetHeader = response.getFirstHeader(Constants.HEADER_RATERESET);
+		if(remainingHeader==null || resetHeader==null){
+			return;
+		}
+		try{
+			update(Integer.parseInt(remainingHeader.getValue().trim()), Long.parseLong(resetHeader.getValue().trim())*1000);
+		} catch(NumberFormatException e){
+			logger.log(Level.WARNING, "Invalid rate limit headers: {0}, {1}",
+					new Object[] {remainingHeader.getValue(), resetHeader.getValue()});
+		}
+	}
+
+	/**
+	 * Records the given rate limit.
+	 * @param remaining The number of requests left in the window.
+	 * @param resetTime The time that the window resets, in milliseconds since the epoch.
+	 */
+	synchronized void update(int remaining, long resetTime){
+		if(resetTime>this.resetTime){	//A new window.
+			this.resetTime = resetTime;
+			this.remaining = remaining;
+		} else if(resetTime==this.resetTime && (this.remaining==UNKNOWN || remaining<this.remaining)){
+			this.remaining = remaining;
+		}
+		notifyAll();
+	}
+
+	/**
+	 * Waits until a request can be sent without using up the reserve, then counts it against the limit.
+	 * @throws InterruptedException If this thread is interrupted while waiting.
+	 */
+	public synchronized void acquire() throws InterruptedException{
+		while(remaining!=UNKNOWN && remaining<=RESERVE){
+			long wait = resetTime-System.currentTimeMillis();
+			if(wait<=0){	//The window has reset, so the limit is unknown until the next response.
+				remaining = UNKNOWN;
+				break;
+			}
+			logger.log(Level.INFO, "Rate limit reached. Waiting {0,number,#}s for it to reset.", wait/1000);
+			wait(wait);
+		}
+		if(remaining!=UNKNOWN){
+			remaining--;
+		}
+	}
+
+	/**
+	 * Gets the number of requests left before the limit is reached.
+	 * @return The number of requests left as last reported by GitHub, less those acquired since,
+	 * 			or -1 if the limit is unknown.
+	 */
+	public synchronized int getRemaining(){
+		return remaining;
+	}
+}
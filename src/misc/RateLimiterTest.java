@@ -0,0 +1,44 @@
+package misc;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Defines the unit test for RateLimiter class.
+ * @author ZiXian92
+ */
+public class RateLimiterTest {
+	@Test
+	//Tests that requests are held back at the reserve until a new window is reported
+	public void testAcquire() throws Exception{
+		final RateLimiter limiter = RateLimiter.getInstance();
+		long resetTime = System.currentTimeMillis()+24*3600*1000L;	//Later than any window reported by other tests.
+		limiter.update(51, resetTime);
+		limiter.update(60, resetTime);	//A response that arrived late.
+		assertEquals(51, limiter.getRemaining());
+		limiter.acquire();
+		assertEquals(50, limiter.getRemaining());
+
+		final CountDownLatch acquired = new CountDownLatch(1);
+		Thread thread = new Thread(new Runnable(){
+			@Override
+			public void run(){
+				try{
+					limiter.acquire();
+					acquired.countDown();
+				} catch(InterruptedException e){
+					//Fails below.
+				}
+			}
+		});
+		thread.start();
+		assertFalse(acquired.await(200, TimeUnit.MILLISECONDS));
+		limiter.update(5000, resetTime+1000);
+		assertTrue(acquired.await(5, TimeUnit.SECONDS));
+		assertEquals(4999, limiter.getRemaining());
+	}
+}
@@ -0,0 +1,364 @@
+package misc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.util.EntityUtils;
+import org.json.JSONArray;
+import org.json.JSONException;
+
+/**
+ * Defines the cache of GitHub's JSON array responses, such as the issues, labels, milestones and contributors
+ * of a repository and the comments of an issue.
+ * Both tiers keep the gzipped entity tag and JSON of each response rather than decoded JSON, so that cached bodies
+ * and comments do not take up the heap as strings. The memory tier drops the least recently used responses beyond
+ * MEMORY_BUDGET compressed bytes, which Model's RepositoryCache counts against its budget. The disk tier keeps
+ * the same bytes in files, so that they survive restarts.
+ * A cached response is always revalidated with a conditional request, which GitHub answers with 304 Not Modified,
+ * without a body and without counting it against the rate limit, if the response is still current.
+ * Responses are cached per login name as well as per URL, as users see different data. Passwords are not part of
+ * the cache keys, so the file names cannot be used to guess them. The disk tier is kept in the
+ * directory given by the system property mygithubissuetracker.cachedir, and is disabled if the property is empty.
+ * There is only 1 instance of ResponseCache for the entire session.
+ * @author ZiXian92
+ */
+public class ResponseCache {
+	public static final String PROPERTY_CACHEDIR = "mygithubissuetracker.cachedir";
+	private static final String DEFAULT_CACHEDIR = System.getProperty("user.home")+File.separator+
+			".MyGitHubIssueTracker"+File.separator+"cache";
+	public static final long MEMORY_BUDGET = 4*1024*1024;
+	private static final long DISK_BUDGET = 256*1024*1024;	//Oldest files are deleted beyond this on start-up.
+	private static final String FILE_SUFFIX = ".json.gz";
+	private static final String TEMP_SUFFIX = ".tmp";
+	private static final char ETAG_DELIM = '\n';
+	private static final char LOGIN_DELIM = ':';	//Between the login name and password in authentication codes.
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	//For logging
+	private static final Logger logger = Logger.getLogger("com.MyGitHubIssueTracker.misc.ResponseCache");
+
+	//The single instance of this class
+	private static final ResponseCache instance = new ResponseCache();
+
+	/**
+	 * Defines a cached response.
+	 */
+	private static class Entry {
+		private String etag;
+		private byte[] data;	//The entity tag and JSON, gzipped in the form of a cache file.
+
+		Entry(String etag, byte[] data){
+			this.etag = etag;
+			this.data = data;
+		}
+	}
+
+	//Data members
+	private LinkedHashMap<String, Entry> memoryEntries;	//Iterates from the least recently used entry.
+	private long memorySize;
+	private File directory;	//Null if the disk tier is disabled.
+
+	private ResponseCache(){
+		logger.setUseParentHandlers(true);
+		memoryEntries = new LinkedHashMap<String, Entry>(64, 0.75f, true);
+		memorySize = 0;
+		String path = System.getProperty(PROPERTY_CACHEDIR, DEFAULT_CACHEDIR);
+		if(!path.isEmpty()){
+			directory = new File(path);
+			if(!directory.isDirectory() && !directory.mkdirs()){
+				logger.log(Level.WARNING, "Failed to create cache directory {0}. Responses will only be cached in memory.", path);
+				directory = null;
+			} else{
+				directory.setReadable(false, false);	//Cached responses may hold private repositories.
+				directory.setReadable(true, true);
+				directory.setWritable(false, false);
+				directory.setWritable(true, true);
+				directory.setExecutable(false, false);
+				directory.setExecutable(true, true);
+				trimDirectory();
+			}
+		}
+	}
+
+	/**
+	 * Gets the only instance of ResponseCache.
+	 * @return The only instance of this class.
+	 */
+	public static ResponseCache getInstance(){
+		return instance;
+	}
+
+	/**
+	 * Gets the JSON array at the given URL, from the cache if GitHub confirms that it is still current.
+	 * @param url The URL of the API method to call. Cannot be null.
+	 * @param authCode The Base64-encoded string of username and password to be used for basic authentication.
+	 * 					Null represents no authentication.
+	 * @return The JSON array at url.
+	 * @throws FailedRequestException If the request fails.
+	 * @throws MissingMessageException If the message is missing in the response.
+	 * @throws JSONException If the message is not a JSON array.
+	 * @throws IOException If an error occurred during the request.
+	 */
+	public JSONArray getJSONArray(String url, String authCode) throws FailedRequestException, MissingMessageException,
+			JSONException, IOException{
+		assert url!=null;
+		String key = DigestUtils.sha256Hex(getLogin(authCode)+ETAG_DELIM+url);
+		Entry entry = getFromMemory(key);
+		boolean isInMemory = entry!=null;
+		if(entry==null && directory!=null){
+			byte[] file = readFromDisk(key);
+			String etag = (file==null)? null: readETag(file);
+			entry = (etag==null)? null: new Entry(etag, file);
+		}
+
+		CloseableHttpResponse response = Util.sendConditionalGetRequest(url, authCode, (entry==null)? null: entry.etag);
+		try{
+			if(entry!=null && response.getStatusLine().getStatusCode()==Constants.STATUS_NOTMODIFIED){
+				if(isInMemory){
+					Metrics.getInstance().increment(Metrics.COUNTER_RESPONSEMEMORY);
+				} else{
+					Metrics.getInstance().increment(Metrics.COUNTER_RESPONSEDISK);
+					putInMemory(key, entry);
+				}
+				return readJSONArray(entry.data);
+			}
+			if(!response.getStatusLine().toString().equals(Constants.RESPONSE_OK)){
+				logger.log(Level.WARNING, "Request to {0} failed.\nResponse: {1}",
+						new Object[] {Util.getEndpoint("GET", url), response.getStatusLine().toString()});
+				throw new FailedRequestException();
+			}
+			HttpEntity messageBody = response.getEntity();
+			if(messageBody==null){
+				logger.log(Level.WARNING, "Request successful. Response message missing.");
+				throw new MissingMessageException();
+			}
+			Metrics.getInstance().increment(Metrics.COUNTER_RESPONSEMISS);
+			byte[] json = EntityUtils.toByteArray(messageBody);
+			JSONArray array = Util.parseJSONArray(new ByteArrayInputStream(json));
+			Header etagHeader = response.getFirstHeader(Constants.HEADER_ETAG);
+			if(etagHeader==null){	//Cannot be revalidated, so an older cached response must not be served either.
+				remove(key);
+			} else{
+				entry = new Entry(etagHeader.getValue(), compress(etagHeader.getValue(), json));
+				putInMemory(key, entry);
+				writeToDisk(key, entry.data);
+			}
+			return array;
+		} finally{
+			response.close();
+		}
+	}
+
+	/**
+	 * Clears the memory tier. Responses cached on disk are kept.
+	 */
+	public synchronized void clearMemory(){
+		memoryEntries.clear();
+		memorySize = 0;
+	}
+
+	private synchronized Entry getFromMemory(String key){
+		return memoryEntries.get(key);
+	}
+
+	/**
+	 * Gets the number of compressed bytes of the responses kept in memory.
+	 * @return The size of the memory tier in bytes, which is at most MEMORY_BUDGET.
+	 */
+	public synchronized long getMemorySize(){
+		return memorySize;
+	}
+
+	/**
+	 * Keeps the given entry in memory, dropping the least recently used entries beyond MEMORY_BUDGET.
+	 */
+	private synchronized void putInMemory(String key, Entry entry){
+		if(entry.data.length>MEMORY_BUDGET){
+			return;
+		}
+		Entry old = memoryEntries.put(key, entry);
+		memorySize += entry.data.length-((old==null)? 0: old.data.length);
+		Iterator<Entry> itr = memoryEntries.values().iterator();
+		while(memorySize>MEMORY_BUDGET && itr.hasNext()){
+			memorySize -= itr.next().data.length;
+			itr.remove();
+		}
+	}
+
+	/**
+	 * Removes the response of the given key from both tiers.
+	 */
+	private void remove(String key){
+		synchronized(this){
+			Entry old = memoryEntries.remove(key);
+			if(old!=null){
+				memorySize -= old.data.length;
+			}
+		}
+		if(directory!=null){
+			new File(directory, key+FILE_SUFFIX).delete();
+		}
+	}
+
+	/**
+	 * Gets the login name in the given authentication code, which is the Base64 encoding of the login name and password.
+	 * @return The login name, or an empty string if there is no authentication.
+	 */
+	private static String getLogin(String authCode){
+		if(authCode==null){
+			return "";
+		}
+		String credentials = new String(Base64.decodeBase64(authCode), UTF8);
+		int delim = credentials.indexOf(LOGIN_DELIM);
+		return (delim==-1)? credentials: credentials.substring(0, delim);
+	}
+
+	/**
+	 * Gzips the given entity tag and JSON in the form of a cache file.
+	 */
+	private static byte[] compress(String etag, byte[] json) throws IOException{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length/4+64);
+		OutputStream out = new GZIPOutputStream(bytes);
+		try{
+			out.write(etag.getBytes(UTF8));
+			out.write(ETAG_DELIM);
+			out.write(json);
+		} finally{
+			out.close();
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Reads the entity tag at the start of the given cache data.
+	 * @return The entity tag, or null if the data cannot be read.
+	 */
+	private static String readETag(byte[] data){
+		try{
+			InputStream in = new GZIPInputStream(new ByteArrayInputStream(data));
+			try{
+				ByteArrayOutputStream etag = new ByteArrayOutputStream();
+				int b;
+				while((b = in.read())!=-1 && b!=ETAG_DELIM){
+					etag.write(b);
+				}
+				return (b==-1 || etag.size()==0)? null: new String(etag.toByteArray(), UTF8);
+			} finally{
+				in.close();
+			}
+		} catch(IOException e){
+			return null;
+		}
+	}
+
+	/**
+	 * Decodes the JSON array that follows the entity tag in the given cache data.
+	 */
+	private static JSONArray readJSONArray(byte[] data) throws JSONException, IOException{
+		InputStream in = new GZIPInputStream(new ByteArrayInputStream(data));
+		try{
+			int b;
+			while((b = in.read())!=-1 && b!=ETAG_DELIM){
+				//Skips the entity tag.
+			}
+			return Util.parseJSONArray(in);
+		} finally{
+			in.close();
+		}
+	}
+
+	/**
+	 * Reads the cache file of the given key.
+	 * @return The gzipped contents of the file or null if there is no such file or it cannot be read.
+	 */
+	private byte[] readFromDisk(String key){
+		File file = new File(directory, key+FILE_SUFFIX);
+		if(!file.isFile()){
+			return null;
+		}
+		try{
+			byte[] data = Files.readAllBytes(file.toPath());
+			file.setLastModified(System.currentTimeMillis());	//Marks the file as recently used.
+			return data;
+		} catch(IOException e){
+			logger.log(Level.WARNING, "Failed to read cache file {0}.", file.getName());
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the given gzipped data to the cache file of the given key. The file is written under another name
+	 * and then renamed, so that readers never see a partly written file.
+	 */
+	private void writeToDisk(String key, byte[] data){
+		if(directory==null){
+			return;
+		}
+		File temp = null;
+		try{
+			temp = File.createTempFile(key, TEMP_SUFFIX, directory);
+			OutputStream out = new FileOutputStream(temp);
+			try{
+				out.write(data);
+			} finally{
+				out.close();
+			}
+			Files.move(temp.toPath(), new File(directory, key+FILE_SUFFIX).toPath(),
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch(IOException e){
+			logger.log(Level.WARNING, "Failed to write cache file for {0}.", key);
+			if(temp!=null){
+				temp.delete();
+			}
+		}
+	}
+
+	/**
+	 * Deletes the least recently used cache files until the rest fit in DISK_BUDGET,
+	 * along with temporary files left by an earlier session.
+	 */
+	private void trimDirectory(){
+		File[] files = directory.listFiles();
+		if(files==null){
+			return;
+		}
+		Arrays.sort(files, new Comparator<File>(){
+			@Override
+			public int compare(File first, File second){
+				return Long.compare(second.lastModified(), first.lastModified());
+			}
+		});
+		long totalSize = 0;
+		for(File file: files){
+			if(file.getName().endsWith(TEMP_SUFFIX)){
+				file.delete();
+				continue;
+			}
+			totalSize += file.length();
+			if(totalSize>DISK_BUDGET){
+				file.delete();
+			}
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package misc;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
+/**
+ * Defines a pool of canonical strings so that equal values decoded from GitHub's responses share one instance.
+ * Entries are weakly held and disappear once no issue or comment refers to them anymore.
+ * @author ZiXian92
+ */
+public class StringPool {
+	//Data members
+	private WeakHashMap<String, WeakReference<String>> pool;
+
+	/**
+	 * Creates a new empty string pool.
+	 */
+	public StringPool(){
+		pool = new WeakHashMap<String, WeakReference<String>>();
+	}
+
+	/**
+	 * Gets the canonical instance of the given string, adding it to this pool if it is not already pooled.
+	 * @param str The string to intern. Can be null.
+	 * @return The pooled string equal to str, or null if str is null.
+	 */
+	public synchronized String intern(String str){
+		if(str==null){
+			return null;
+		}
+		WeakReference<String> ref = pool.get(str);
+		String pooled = (ref==null)? null: ref.get();
+		if(pooled==null){
+			pool.put(str, new WeakReference<String>(str));
+			pooled = str;
+		}
+		return pooled;
+	}
+
+	/**
+	 * Gets the number of distinct strings currently held in this pool.
+	 * @return The number of pooled strings.
+	 */
+	public synchronized int size(){
+		return pool.size();
+	}
+}
@@ -0,0 +1,58 @@
+package misc;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Defines the executor shared by all tasks that block on GitHub requests, such as the loaders of a repository.
+ * On JVMs with virtual threads, each task runs on its own virtual thread, so many repositories can be loaded at
+ * once without tuning a pool. Otherwise, tasks run on a cached pool of daemon threads.
+ * There is only 1 executor for the entire session.
+ * @author ZiXian92
+ */
+public class TaskExecutor {
+	private static final String THREAD_NAME = "TaskExecutor-";
+
+	//For logging
+	private static final Logger logger = Logger.getLogger("com.MyGitHubIssueTracker.misc.TaskExecutor");
+
+	//The single executor
+	private static final ExecutorService executor = createExecutor();
+
+	/**
+	 * Gets the shared executor.
+	 * @return The executor for tasks that block on I/O.
+	 */
+	public static ExecutorService getInstance(){
+		return executor;
+	}
+
+	/**
+	 * Creates an executor that starts a virtual thread for each task, or a cached daemon thread pool if
+	 * virtual threads are unavailable.
+	 * @return The new executor.
+	 */
+	private static ExecutorService createExecutor(){
+		logger.setUseParentHandlers(true);
+		try{	//Looked up by reflection as virtual threads are not part of earlier Java versions.
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService)factory.invoke(null);
+		} catch(Exception e){
+			logger.log(Level.INFO, "Virtual threads unavailable. Using a thread pool.");
+		}
+		final AtomicInteger numThreads = new AtomicInteger();
+		return Executors.newCachedThreadPool(new ThreadFactory(){
+			@Override
+			public Thread newThread(Runnable r){
+				Thread thread = new Thread(r, THREAD_NAME+numThreads.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+}
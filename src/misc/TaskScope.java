@@ -0,0 +1,331 @@
+package misc;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.http.client.methods.HttpRequestBase;
+
+/**
+ * Defines a group of tasks that make up 1 operation, such as loading a repository, and that must finish by a deadline.
+ * Tasks forked in a scope run on TaskExecutor. When a task fails, the deadline passes or the scope is cancelled,
+ * all unfinished tasks are interrupted and the Http requests sent within the scope are aborted, so that no task
+ * outlives its operation and a hung connection cannot hold up the caller.
+ * The thread that opens a scope owns it and must close it in a finally block. While a scope is open, it is the
+ * current scope of its owner and of its tasks, and scopes opened from them become its children.
+ * @author ZiXian92
+ */
+public class TaskScope {
+	private static final String THREAD_NAME = "TaskScope-deadline";
+	private static final String ERROR_CANCELLED = "Request cancelled.";
+	private static final long NO_TIMEOUT = -1;
+
+	private static final ThreadLocal<TaskScope> currentScope = new ThreadLocal<TaskScope>();
+
+	//Cancels scopes whose deadlines have passed, which also aborts requests that the owner is blocked on.
+	private static final ScheduledThreadPoolExecutor deadlineTimer = createTimer();
+
+	//Data members
+	private TaskScope parent;
+	private Thread owner;
+	private boolean hasDeadline;
+	private long deadline;	//In terms of System.nanoTime(). Only applies if hasDeadline is true.
+	private ArrayList<Future<?>> tasks;
+	private Set<TaskScope> children;
+	private Set<HttpRequestBase> requests;
+	private ScheduledFuture<?> deadlineTask;
+	private volatile boolean isCancelled = false, isTimedOut = false;
+	private volatile Throwable failure;
+
+	private TaskScope(TaskScope parent, long timeoutMillis){
+		this.parent = parent;
+		owner = Thread.currentThread();
+		hasDeadline = timeoutMillis>=0;
+		if(hasDeadline){
+			deadline = System.nanoTime()+TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		}
+		if(parent!=null && parent.hasDeadline && (!hasDeadline || parent.deadline-deadline<0)){
+			hasDeadline = true;
+			deadline = parent.deadline;
+		}
+		tasks = new ArrayList<Future<?>>();
+		children = Collections.newSetFromMap(new ConcurrentHashMap<TaskScope, Boolean>());
+		requests = Collections.newSetFromMap(new ConcurrentHashMap<HttpRequestBase, Boolean>());
+	}
+
+	/**
+	 * Opens a scope as a child of the current scope of this thread and makes it the current scope.
+	 * The scope's deadline is no later than its parent's.
+	 * @param timeoutMillis The time in milliseconds that the operation may take.
+	 * @return The new scope.
+	 */
+	public static TaskScope open(long timeoutMillis){
+		assert timeoutMillis>=0;
+		return open(currentScope.get(), timeoutMillis);
+	}
+
+	/**
+	 * Opens a scope without a deadline of its own as a child of the current scope of this thread, and makes it
+	 * the current scope. The scope ends by the deadline of its parent, if any, or when it is cancelled.
+	 * @return The new scope.
+	 */
+	public static TaskScope open(){
+		return open(currentScope.get(), NO_TIMEOUT);
+	}
+
+	private static TaskScope open(TaskScope parent, long timeoutMillis){
+		final TaskScope scope = new TaskScope(parent, timeoutMillis);
+		if(parent!=null){
+			parent.children.add(scope);
+			if(parent.isCancelled){
+				scope.cancel();
+			}
+		}
+		if(scope.hasDeadline){
+			scope.deadlineTask = deadlineTimer.schedule(new Runnable(){
+				@Override
+				public void run(){
+					scope.timeOut();
+				}
+			}, scope.getRemainingNanos(), TimeUnit.NANOSECONDS);
+		}
+		currentScope.set(scope);
+		return scope;
+	}
+
+	/**
+	 * Gets the current scope of this thread.
+	 * @return The innermost open scope of this thread or null if there is none.
+	 */
+	public static TaskScope current(){
+		return currentScope.get();
+	}
+
+	/**
+	 * Runs the given task on TaskExecutor as part of this scope. If the task throws an exception, the scope
+	 * is cancelled and join() throws the exception.
+	 * @param task The task to run. Cannot be null.
+	 * @return The future result of the task.
+	 */
+	public <T> Future<T> fork(final Callable<T> task){
+		assert task!=null && Thread.currentThread()==owner;
+		Future<T> future = TaskExecutor.getInstance().submit(new Callable<T>(){
+			@Override
+			public T call() throws Exception{
+				TaskScope previous = currentScope.get();
+				currentScope.set(TaskScope.this);
+				try{
+					if(isCancelled){
+						throw new CancellationException();
+					}
+					return task.call();
+				} catch(Exception e){
+					fail(e);
+					throw e;
+				} finally{
+					currentScope.set(previous);
+				}
+			}
+		});
+		synchronized(tasks){
+			tasks.add(future);
+		}
+		if(isCancelled){
+			future.cancel(true);
+		}
+		return future;
+	}
+
+	/**
+	 * Waits for all tasks forked in this scope to finish.
+	 * @throws ExecutionException If a task failed. The cause is the first failure.
+	 * @throws TimeoutException If the deadline passed before all tasks finished.
+	 * @throws CancellationException If this scope was cancelled.
+	 * @throws InterruptedException If this thread was interrupted while waiting. The scope is cancelled.
+	 */
+	public void join() throws ExecutionException, TimeoutException, InterruptedException{
+		ArrayList<Future<?>> snapshot;
+		synchronized(tasks){
+			snapshot = new ArrayList<Future<?>>(tasks);
+		}
+		for(Future<?> task: snapshot){
+			if(isCancelled){
+				break;
+			}
+			try{
+				task.get(Math.max(0, getRemainingNanos()), TimeUnit.NANOSECONDS);
+			} catch(TimeoutException e){
+				timeOut();
+			} catch(CancellationException e){
+				//Cancelled together with the scope, which is reported below.
+			} catch(ExecutionException e){
+				fail(e.getCause());
+			} catch(InterruptedException e){
+				cancel();
+				throw e;
+			}
+		}
+		checkCancelled();
+	}
+
+	/**
+	 * Checks if this scope has ended early, for the owner to call between steps of its own work.
+	 * @throws ExecutionException If a task failed. The cause is the first failure.
+	 * @throws TimeoutException If the deadline passed.
+	 * @throws CancellationException If this scope was cancelled.
+	 */
+	public void checkCancelled() throws ExecutionException, TimeoutException{
+		if(failure!=null){
+			throw new ExecutionException(failure);
+		} else if(isTimedOut){
+			throw new TimeoutException();
+		} else if(isCancelled){
+			throw new CancellationException();
+		}
+	}
+
+	/**
+	 * Cancels this scope and its children. Unfinished tasks are interrupted and requests in progress are aborted.
+	 */
+	public void cancel(){
+		isCancelled = true;
+		synchronized(tasks){
+			for(Future<?> task: tasks){
+				task.cancel(true);
+			}
+		}
+		for(HttpRequestBase req: requests){
+			req.abort();
+		}
+		for(TaskScope child: children){
+			child.cancel();
+		}
+	}
+
+	/**
+	 * Checks if this scope has been cancelled, including by a failure or the deadline.
+	 * @return true if this scope has been cancelled and false otherwise.
+	 */
+	public boolean isCancelled(){
+		return isCancelled;
+	}
+
+	/**
+	 * Checks if the deadline of this scope passed before its tasks finished.
+	 * @return true if this scope timed out and false otherwise.
+	 */
+	public boolean isTimedOut(){
+		return isTimedOut;
+	}
+
+	/**
+	 * Gets the time left until the deadline of this scope.
+	 * @return The remaining time in milliseconds, which is 0 if the deadline has passed,
+	 * 			or Long.MAX_VALUE if this scope has no deadline.
+	 */
+	public long getRemainingMillis(){
+		return hasDeadline? Math.max(0, TimeUnit.NANOSECONDS.toMillis(getRemainingNanos())): Long.MAX_VALUE;
+	}
+
+	/**
+	 * Closes this scope, interrupting tasks that are still running, and makes its parent the current scope again.
+	 */
+	public void close(){
+		assert Thread.currentThread()==owner;
+		if(deadlineTask!=null){
+			deadlineTask.cancel(false);
+		}
+		synchronized(tasks){
+			for(Future<?> task: tasks){
+				if(!task.isDone()){
+					task.cancel(true);
+				}
+			}
+		}
+		for(HttpRequestBase req: requests){
+			req.abort();
+		}
+		if(parent!=null){
+			parent.children.remove(this);
+		}
+		if(currentScope.get()==this){
+			currentScope.set(parent);
+		}
+	}
+
+	/**
+	 * Adds the given request to the current scope of this thread, if any, so that it is aborted with the scope.
+	 * @param req The request about to be sent. Cannot be null.
+	 * @throws InterruptedIOException If the current scope has been cancelled.
+	 */
+	static void register(HttpRequestBase req) throws InterruptedIOException{
+		assert req!=null;
+		TaskScope scope = currentScope.get();
+		if(scope==null){
+			return;
+		}
+		scope.requests.add(req);
+		if(scope.isCancelled){	//Checked after adding, so that a concurrent cancel() cannot miss the request.
+			scope.requests.remove(req);
+			throw new InterruptedIOException(ERROR_CANCELLED);
+		}
+	}
+
+	/**
+	 * Removes the given request from the current scope of this thread once it has completed.
+	 * @param req The completed request. Cannot be null.
+	 */
+	static void unregister(HttpRequestBase req){
+		assert req!=null;
+		TaskScope scope = currentScope.get();
+		if(scope!=null){
+			scope.requests.remove(req);
+		}
+	}
+
+	private long getRemainingNanos(){
+		return hasDeadline? deadline-System.nanoTime(): Long.MAX_VALUE;
+	}
+
+	private synchronized void timeOut(){
+		if(!isCancelled){
+			isTimedOut = true;
+			cancel();
+		}
+	}
+
+	/**
+	 * Records the given failure of a task and cancels its siblings, unless the scope has ended already,
+	 * in which case the failure is likely caused by the cancellation.
+	 */
+	private synchronized void fail(Throwable cause){
+		if(!isCancelled){
+			failure = cause;
+			cancel();
+		}
+	}
+
+	private static ScheduledThreadPoolExecutor createTimer(){
+		ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, new ThreadFactory(){
+			@Override
+			public Thread newThread(Runnable r){
+				Thread thread = new Thread(r, THREAD_NAME);
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		timer.setRemoveOnCancelPolicy(true);
+		return timer;
+	}
+}
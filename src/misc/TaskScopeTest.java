@@ -0,0 +1,131 @@
+package misc;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+
+/**
+ * Defines the unit test for TaskScope class.
+ * @author ZiXian92
+ */
+public class TaskScopeTest {
+	/**
+	 * Counts down started, then blocks until interrupted, counting down interrupted when it is.
+	 */
+	private static Callable<String> blockUntilInterrupted(final CountDownLatch started, final CountDownLatch interrupted){
+		return new Callable<String>(){
+			@Override
+			public String call() throws Exception{
+				started.countDown();
+				try{
+					Thread.sleep(60000);
+				} catch(InterruptedException e){
+					interrupted.countDown();
+					throw e;
+				}
+				return "late";
+			}
+		};
+	}
+
+	@Test
+	public void testJoin() throws Exception{
+		TaskScope scope = TaskScope.open(5000);
+		try{
+			Future<String> first = scope.fork(new Callable<String>(){
+				@Override
+				public String call(){
+					return "first";
+				}
+			});
+			Future<TaskScope> second = scope.fork(new Callable<TaskScope>(){
+				@Override
+				public TaskScope call(){
+					return TaskScope.current();
+				}
+			});
+			scope.join();
+			assertEquals("first", first.get());
+			assertSame(scope, second.get());
+		} finally{
+			scope.close();
+		}
+		assertNull(TaskScope.current());
+	}
+
+	@Test
+	public void testFailureCancelsSiblings() throws Exception{
+		CountDownLatch started = new CountDownLatch(1), interrupted = new CountDownLatch(1);
+		TaskScope scope = TaskScope.open(5000);
+		try{
+			scope.fork(blockUntilInterrupted(started, interrupted));
+			assertTrue(started.await(5, TimeUnit.SECONDS));	//A task cancelled before it starts is never interrupted.
+			scope.fork(new Callable<String>(){
+				@Override
+				public String call() throws IOException{
+					throw new IOException("failed");
+				}
+			});
+			try{
+				scope.join();
+				fail("Expected the failure to be thrown.");
+			} catch(ExecutionException e){
+				assertTrue(e.getCause() instanceof IOException);
+			}
+			assertTrue(scope.isCancelled());
+			assertFalse(scope.isTimedOut());
+			assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+		} finally{
+			scope.close();
+		}
+	}
+
+	@Test
+	public void testDeadline() throws Exception{
+		CountDownLatch started = new CountDownLatch(1), interrupted = new CountDownLatch(1);
+		TaskScope scope = TaskScope.open(1000);
+		long start = System.nanoTime();
+		try{
+			scope.fork(blockUntilInterrupted(started, interrupted));
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			try{
+				scope.join();
+				fail("Expected the deadline to pass.");
+			} catch(TimeoutException e){
+				//Expected
+			}
+			assertTrue(scope.isTimedOut());
+			assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+			assertTrue(System.nanoTime()-start<5000000000L);
+		} finally{
+			scope.close();
+		}
+	}
+
+	@Test
+	public void testChildDeadline(){
+		TaskScope parent = TaskScope.open(1000);
+		try{
+			TaskScope child = TaskScope.open(60000);
+			try{
+				assertSame(child, TaskScope.current());
+				assertTrue(child.getRemainingMillis()<=1000);
+				parent.cancel();
+				assertTrue(child.isCancelled());
+			} finally{
+				child.close();
+			}
+			assertSame(parent, TaskScope.current());
+		} finally{
+			parent.close();
+		}
+	}
+}
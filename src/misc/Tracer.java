@@ -0,0 +1,264 @@
+package misc;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.json.JSONObject;
+
+/**
+ * Defines the tracer that records nested spans of work, from a command down to the requests it sends, so that
+ * the critical path of a slow command and the overlap of its sub-requests can be inspected.
+ * Each thread has a current span, and new spans become children of it. Work handed to other threads keeps
+ * its parent span when wrapped with wrap(). Spans without a parent start a new trace.
+ * Tracing is enabled by setting the system property mygithubissuetracker.trace to a file path. Finished spans
+ * are written to that file on exit in the Chrome trace event format, which chrome://tracing and
+ * Perfetto can open. When tracing is disabled, spans cost nothing but a thread-local lookup.
+ * @author ZiXian92
+ */
+public class Tracer {
+	public static final String PROPERTY_TRACEFILE = "mygithubissuetracker.trace";
+	private static final int MAX_SPANS = 200000;	//Later spans are dropped to bound memory use.
+
+	//Chrome trace event fields
+	private static final String FIELD_NAME = "name";
+	private static final String FIELD_PHASE = "ph";
+	private static final String FIELD_TIMESTAMP = "ts";
+	private static final String FIELD_DURATION = "dur";
+	private static final String FIELD_PROCESS = "pid";
+	private static final String FIELD_THREAD = "tid";
+	private static final String FIELD_ARGS = "args";
+	private static final String PHASE_COMPLETE = "X";
+	private static final String ARG_TRACE = "traceId";
+	private static final String ARG_SPAN = "spanId";
+	private static final String ARG_PARENT = "parentId";
+	private static final String ARG_THREAD = "thread";
+
+	//For logging
+	private static final Logger logger = Logger.getLogger("com.MyGitHubIssueTracker.misc.Tracer");
+
+	private static final String traceFile = System.getProperty(PROPERTY_TRACEFILE);
+	private static final boolean isEnabled = traceFile!=null && !traceFile.isEmpty();
+	private static final Span NOOP_SPAN = new Span(null, null, 0, 0);
+	private static final ThreadLocal<Span> currentSpan = new ThreadLocal<Span>();
+	private static final ConcurrentLinkedQueue<Span> finishedSpans = new ConcurrentLinkedQueue<Span>();
+	private static final AtomicInteger numFinished = new AtomicInteger();
+	private static final AtomicLong nextSpanId = new AtomicLong(1);
+	private static final Random random = new Random();
+	private static final long epochNanos = System.nanoTime();
+	private static final long epochMicros = System.currentTimeMillis()*1000;
+
+	static{
+		logger.setUseParentHandlers(true);
+		if(isEnabled){
+			Runtime.getRuntime().addShutdownHook(new Thread(new Runnable(){
+				@Override
+				public void run(){
+					export(traceFile);
+				}
+			}));
+		}
+	}
+
+	/**
+	 * Defines a span of work. A span ends when end() is called, which makes its parent the current span again.
+	 */
+	public static class Span {
+		private String name;
+		private Span parent;
+		private long traceId, spanId, parentId;
+		private long startNanos, durationNanos;
+		private long threadId;
+		private String threadName;
+		private LinkedHashMap<String, Object> args;
+
+		private Span(String name, Span parent, long traceId, long spanId){
+			this.name = name;
+			this.parent = parent;
+			this.traceId = traceId;
+			this.spanId = spanId;
+			this.parentId = (parent==null)? 0: parent.spanId;
+			Thread thread = Thread.currentThread();
+			threadId = thread.getId();
+			threadName = thread.getName();
+			startNanos = System.nanoTime();
+		}
+
+		/**
+		 * Attaches the given detail to this span.
+		 * @param key The name of the detail. Cannot be null.
+		 * @param value The value of the detail.
+		 * @return This span.
+		 */
+		public Span setArg(String key, Object value){
+			if(this!=NOOP_SPAN){
+				if(args==null){
+					args = new LinkedHashMap<String, Object>();
+				}
+				args.put(key, value);
+			}
+			return this;
+		}
+
+		/**
+		 * Ends this span, making its parent the current span of this thread.
+		 */
+		public void end(){
+			if(this==NOOP_SPAN){
+				return;
+			}
+			durationNanos = System.nanoTime()-startNanos;
+			if(currentSpan.get()==this){
+				currentSpan.set(parent);
+			}
+			if(numFinished.incrementAndGet()<=MAX_SPANS){
+				finishedSpans.add(this);
+			}
+		}
+	}
+
+	/**
+	 * Starts a span as a child of the current span of this thread, or as the root of a new trace if there is none.
+	 * The new span becomes the current span until it ends.
+	 * @param name The name of the span. Cannot be null.
+	 * @return The started span.
+	 */
+	public static Span start(String name){
+		if(!isEnabled){
+			return NOOP_SPAN;
+		}
+		assert name!=null;
+		Span parent = currentSpan.get();
+		long traceId = (parent==null)? random.nextLong()&Long.MAX_VALUE: parent.traceId;
+		Span span = new Span(name, parent, traceId, nextSpanId.getAndIncrement());
+		currentSpan.set(span);
+		return span;
+	}
+
+	/**
+	 * Wraps the given task so that, on whichever thread it runs, it runs in a span named name whose parent is
+	 * the span that is current now.
+	 * @param task The task to wrap. Cannot be null.
+	 * @param name The name of the span to run the task in. Cannot be null.
+	 * @return The wrapped task, or task itself if tracing is disabled.
+	 */
+	public static Runnable wrap(final Runnable task, final String name){
+		assert task!=null && name!=null;
+		if(!isEnabled){
+			return task;
+		}
+		final Span parent = currentSpan.get();
+		return new Runnable(){
+			@Override
+			public void run(){
+				Span previous = currentSpan.get();
+				currentSpan.set(parent);
+				Span span = start(name);
+				try{
+					task.run();
+				} finally{
+					span.end();
+					currentSpan.set(previous);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Wraps the given task so that, on whichever thread it runs, it runs in a span named name whose parent is
+	 * the span that is current now.
+	 * @param task The task to wrap. Cannot be null.
+	 * @param name The name of the span to run the task in. Cannot be null.
+	 * @return The wrapped task, or task itself if tracing is disabled.
+	 */
+	public static <T> Callable<T> wrap(final Callable<T> task, final String name){
+		assert task!=null && name!=null;
+		if(!isEnabled){
+			return task;
+		}
+		final Span parent = currentSpan.get();
+		return new Callable<T>(){
+			@Override
+			public T call() throws Exception{
+				Span previous = currentSpan.get();
+				currentSpan.set(parent);
+				Span span = start(name);
+				try{
+					return task.call();
+				} finally{
+					span.end();
+					currentSpan.set(previous);
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Checks if tracing is enabled.
+	 * @return true if spans are being recorded and false otherwise.
+	 */
+	public static boolean isEnabled(){
+		return isEnabled;
+	}
+
+	/**
+	 * Writes all spans finished so far to the given file in the Chrome trace event format.
+	 * @param path The path of the file to write to. Cannot be null.
+	 */
+	public static synchronized void export(String path){
+		assert path!=null;
+		ArrayList<Span> spans = new ArrayList<Span>(finishedSpans);
+		try{
+			Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(path), "UTF-8"));
+			try{
+				out.write("[\n");
+				for(int i=0; i<spans.size(); i++){
+					if(i>0){
+						out.write(",\n");
+					}
+					out.write(toTraceEvent(spans.get(i)).toString());
+				}
+				out.write("\n]\n");
+			} finally{
+				out.close();
+			}
+		} catch(Exception e){
+			logger.log(Level.WARNING, "Failed to write trace to {0}.", path);
+		}
+	}
+
+	private static JSONObject toTraceEvent(Span span) throws Exception{
+		JSONObject event = new JSONObject();
+		event.put(FIELD_NAME, span.name);
+		event.put(FIELD_PHASE, PHASE_COMPLETE);
+		event.put(FIELD_TIMESTAMP, epochMicros+(span.startNanos-epochNanos)/1000);
+		event.put(FIELD_DURATION, span.durationNanos/1000);
+		event.put(FIELD_PROCESS, 1);
+		event.put(FIELD_THREAD, span.threadId);
+		JSONObject args = new JSONObject();
+		args.put(ARG_TRACE, Long.toHexString(span.traceId));
+		args.put(ARG_SPAN, span.spanId);
+		if(span.parentId!=0){
+			args.put(ARG_PARENT, span.parentId);
+		}
+		args.put(ARG_THREAD, span.threadName);
+		if(span.args!=null){
+			for(Map.Entry<String, Object> arg: span.args.entrySet()){
+				args.put(arg.getKey(), String.valueOf(arg.getValue()));
+			}
+		}
+		event.put(FIELD_ARGS, args);
+		return event;
+	}
+}
@@ -6,13 +6,23 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
 
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPatch;
 import org.apache.http.client.methods.HttpPost;
-import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
 
 /**
  * Defines the utility class of commonly-used methods in this application.
@@ -21,6 +31,31 @@ import org.apache.http.impl.client.HttpClients;
 public class Util {
 	//Output formatting
 	private static final String ITEM_DELIM = ", ";
+	private static final String LINK_DELIM = ",";
+	
+	//Endpoint templates
+	private static final String PATH_DELIM = "/";
+	private static final String PATH_REPOS = "repos";
+	private static final String PARAM_OWNER = "{owner}";
+	private static final String PARAM_REPO = "{repo}";
+	private static final String PARAM_NUMBER = "{number}";
+	
+	//Span details for tracing
+	private static final String ARG_STATUS = "status";
+	private static final String ARG_BYTES = "bytes";
+	private static final String ARG_ERROR = "error";
+	
+	//Connections kept open for reuse by all requests. Tasks on TaskExecutor may send many requests at once.
+	private static final int MAX_CONNECTIONS = 200;
+	private static final int MAX_CONNECTIONSPERROUTE = 100;
+	
+	//Timeouts in milliseconds, so that an unresponsive server cannot block a request forever.
+	//Requests sent within a TaskScope wait for data no longer than the scope's remaining time.
+	private static final int CONNECT_TIMEOUT = 10000;
+	private static final int SOCKET_TIMEOUT = 30000;
+	private static final RequestConfig requestConfig = RequestConfig.custom().setConnectTimeout(CONNECT_TIMEOUT)
+			.setConnectionRequestTimeout(CONNECT_TIMEOUT).setSocketTimeout(SOCKET_TIMEOUT).build();
+	private static final CloseableHttpClient client = createClient();
 	
 	/**
 	 * List of allowed Http requests for this class.
@@ -48,6 +83,94 @@ public class Util {
 		return strBuilder.toString();
 	}
 	
+	/**
+	 * Reads and parses the JSON array in the given message body, recording the time spent parsing.
+	 * @param in The input stream of the HTTP response's message body. Cannot be null.
+	 * @return The JSON array contained in the message body.
+	 * @throws JSONException If the message body is not a JSON array.
+	 */
+	public static JSONArray parseJSONArray(InputStream in) throws JSONException{
+		Object event = Events.beginParse();
+		String json = getJSONString(in);
+		long start = System.nanoTime();
+		try{
+			return new JSONArray(json);
+		} finally{
+			Metrics.getInstance().recordSince(Metrics.TIMER_DECODE, start);
+			Events.commitParse(event, json.length());
+		}
+	}
+	
+	/**
+	 * Reads and parses the JSON object in the given message body, recording the time spent parsing.
+	 * @param in The input stream of the HTTP response's message body. Cannot be null.
+	 * @return The JSON object contained in the message body.
+	 * @throws JSONException If the message body is not a JSON object.
+	 */
+	public static JSONObject parseJSONObject(InputStream in) throws JSONException{
+		Object event = Events.beginParse();
+		String json = getJSONString(in);
+		long start = System.nanoTime();
+		try{
+			return new JSONObject(json);
+		} finally{
+			Metrics.getInstance().recordSince(Metrics.TIMER_DECODE, start);
+			Events.commitParse(event, json.length());
+		}
+	}
+	
+	/**
+	 * Gets the endpoint that the given request URL calls, with owner, repository and issue numbers replaced
+	 * by placeholders so that requests to the same endpoint are grouped together.
+	 * @param method The Http method of the request. Cannot be null.
+	 * @param url The URL of the request. Cannot be null.
+	 * @return The method and templated path of the request, e.g. GET /repos/{owner}/{repo}/issues.
+	 */
+	public static String getEndpoint(String method, String url){
+		assert method!=null && url!=null;
+		String path = url.startsWith(Constants.API_URL)? url.substring(Constants.API_URL.length()): url;
+		int queryStart = path.indexOf('?');
+		if(queryStart>=0){
+			path = path.substring(0, queryStart);
+		}
+		String[] segments = path.split(PATH_DELIM);
+		boolean isRepoPath = segments.length>1 && segments[1].equals(PATH_REPOS);
+		StringBuilder strBuilder = new StringBuilder(method).append(' ');
+		for(int i=1; i<segments.length; i++){
+			strBuilder.append(PATH_DELIM);
+			if(isRepoPath && i==2){
+				strBuilder.append(PARAM_OWNER);
+			} else if(isRepoPath && i==3){
+				strBuilder.append(PARAM_REPO);
+			} else if(!segments[i].isEmpty() && isNumber(segments[i])){
+				strBuilder.append(PARAM_NUMBER);
+			} else{
+				strBuilder.append(segments[i]);
+			}
+		}
+		return strBuilder.toString();
+	}
+	
+	/**
+	 * Gets the URL of the next page of a paginated list from the Link header of the given response.
+	 * @param response The response holding a page of the list. Cannot be null.
+	 * @return The URL of the next page or null if the response holds the last page.
+	 */
+	public static String getNextPageURL(HttpResponse response){
+		assert response!=null;
+		Header link = response.getFirstHeader(Constants.HEADER_LINK);
+		if(link==null){
+			return null;
+		}
+		for(String part: link.getValue().split(LINK_DELIM)){
+			int urlEnd = part.indexOf('>');
+			if(part.indexOf(Constants.VAL_RELNEXT, urlEnd)!=-1){
+				return part.substring(part.indexOf('<')+1, urlEnd);
+			}
+		}
+		return null;
+	}
+	
 	/**
 	 * Converts the given list of strings into a string.
 	 * @param list The list of strings to be converted.
@@ -76,7 +199,36 @@ public class Util {
 	 * */
 	public static CloseableHttpResponse sendGetRequest(String url, String authCode) throws IOException{
 		assert url!=null;
-		return sendRequest(HttpRequestType.GET, url, authCode, null);
+		return sendRequest(HttpRequestType.GET, url, authCode, null, Constants.VAL_ACCEPT, null);
+	}
+	
+	/**
+	 * Sends a Http GET request to the given URL, accepting the given media type.
+	 * @param url The URL of the API method to call. Cannot be null.
+	 * @param authCode The Base64-encoded string of username and password to be used for basic authentication.
+	 * 					Null represents no authentication.
+	 * @param accept The media type to accept, such as a preview version of GitHub API. Cannot be null.
+	 * @return The corresponding Http response for the request.
+	 * @throws IOException If an error occurred during the request.
+	 */
+	public static CloseableHttpResponse sendGetRequest(String url, String authCode, String accept) throws IOException{
+		assert url!=null && accept!=null;
+		return sendRequest(HttpRequestType.GET, url, authCode, null, accept, null);
+	}
+	
+	/**
+	 * Sends a conditional Http GET request to the given URL, which GitHub answers with 304 Not Modified
+	 * and no message body if the resource still has the given entity tag.
+	 * @param url The URL of the API method to call. Cannot be null.
+	 * @param authCode The Base64-encoded string of username and password to be used for basic authentication.
+	 * 					Null represents no authentication.
+	 * @param etag The entity tag of the copy of the resource that the caller has. Null sends an unconditional request.
+	 * @return The corresponding Http response for the request.
+	 * @throws IOException If an error occurred during the request.
+	 */
+	public static CloseableHttpResponse sendConditionalGetRequest(String url, String authCode, String etag) throws IOException{
+		assert url!=null;
+		return sendRequest(HttpRequestType.GET, url, authCode, null, Constants.VAL_ACCEPT, etag);
 	}
 	
 	/**
@@ -90,7 +242,7 @@ public class Util {
 	 */
 	public static final CloseableHttpResponse sendPostRequest(String url, String authCode, HttpEntity msg) throws IOException{
 		assert url!=null && authCode!=null;
-		return sendRequest(HttpRequestType.POST, url, authCode, msg);
+		return sendRequest(HttpRequestType.POST, url, authCode, msg, Constants.VAL_ACCEPT, null);
 	}
 	
 	/**
@@ -104,7 +256,7 @@ public class Util {
 	 */
 	public static final CloseableHttpResponse sendPatchRequest(String url, String authCode, HttpEntity msg) throws IOException{
 		assert url!=null && authCode!=null;
-		return sendRequest(HttpRequestType.PATCH, url, authCode, msg);
+		return sendRequest(HttpRequestType.PATCH, url, authCode, msg, Constants.VAL_ACCEPT, null);
 	}
 	
 	/**
@@ -113,13 +265,15 @@ public class Util {
 	 * @param url The URL of the API method to be called. Cannot be null.
 	 * @param authCode The Base64-encoded string of username and password for basic authentication.
 	 * @param msg The message entity to be used in POST or PATCH requests.
+	 * @param accept The media type to accept.
+	 * @param etag The entity tag to send in If-None-Match, or null to send an unconditional request.
 	 * @return The corresponding Http response for the request.
 	 * @throws IOException If an error occurred during the request.
 	 */
 	private static CloseableHttpResponse sendRequest(HttpRequestType reqType,
-			String url, String authCode, HttpEntity msg) throws IOException {
+			String url, String authCode, HttpEntity msg, String accept, String etag) throws IOException {
 		assert reqType!=null && url!=null;
-		HttpUriRequest req;
+		HttpRequestBase req;
 		switch(reqType){
 			case GET: req = new HttpGet(url);
 					break;
@@ -135,10 +289,77 @@ public class Util {
 					break;
 			default: return null;	//will not happen
 		}
-		req.addHeader(Constants.HEADER_ACCEPT, Constants.VAL_ACCEPT);
+		req.addHeader(Constants.HEADER_ACCEPT, accept);
 		if(authCode!=null && !authCode.isEmpty()){
 			req.addHeader(Constants.HEADER_AUTH, String.format(Constants.VAL_AUTH, authCode));
 		}
-		return HttpClients.createDefault().execute(req);
+		if(etag!=null){
+			req.addHeader(Constants.HEADER_IFNONEMATCH, etag);
+		}
+		TaskScope scope = TaskScope.current();
+		if(scope!=null){	//Aborted if the scope is cancelled or times out.
+			int timeout = (int)Math.max(1, Math.min(SOCKET_TIMEOUT, scope.getRemainingMillis()));
+			req.setConfig(RequestConfig.copy(requestConfig).setSocketTimeout(timeout)
+					.setConnectTimeout(Math.min(CONNECT_TIMEOUT, timeout)).build());
+		}
+		
+		//Receives the whole response before returning, so that its latency and size can be recorded and
+		//the connection is released even if the caller does not read the message body.
+		Metrics metrics = Metrics.getInstance();
+		String endpoint = getEndpoint(reqType.name(), url);
+		Object event = Events.beginRequest();
+		Tracer.Span span = Tracer.start(endpoint);
+		long start = System.nanoTime();
+		CloseableHttpResponse response = null;
+		long numBytes = 0;
+		try{
+			TaskScope.register(req);
+			response = client.execute(req);
+			HttpEntity entity = response.getEntity();
+			if(entity!=null){
+				ByteArrayEntity buffered = new ByteArrayEntity(EntityUtils.toByteArray(entity));
+				buffered.setContentType(entity.getContentType());
+				response.setEntity(buffered);
+				numBytes = buffered.getContentLength();
+			}
+		} catch(IOException e){
+			if(response!=null){
+				response.close();
+			}
+			metrics.increment(String.format(Metrics.COUNTER_REQUESTERROR, endpoint));
+			Events.commitRequest(event, endpoint, -1, 0);
+			span.setArg(ARG_ERROR, e.getClass().getSimpleName()).end();
+			throw e;
+		} finally{
+			TaskScope.unregister(req);
+		}
+		RateLimiter.getInstance().update(response);
+		int status = response.getStatusLine().getStatusCode();
+		metrics.recordSince(String.format(Metrics.TIMER_REQUEST, endpoint), start);
+		metrics.increment(String.format(Metrics.COUNTER_STATUS, endpoint, status));
+		metrics.add(String.format(Metrics.COUNTER_BYTES, endpoint), numBytes);
+		Events.commitRequest(event, endpoint, status, numBytes);
+		span.setArg(ARG_STATUS, status).setArg(ARG_BYTES, numBytes).end();
+		return response;
+	}
+	
+	/**
+	 * Creates the Http client shared by all requests, with a pool of persistent connections.
+	 * @return The shared Http client.
+	 */
+	private static CloseableHttpClient createClient(){
+		PoolingHttpClientConnectionManager connManager = new PoolingHttpClientConnectionManager();
+		connManager.setMaxTotal(MAX_CONNECTIONS);
+		connManager.setDefaultMaxPerRoute(MAX_CONNECTIONSPERROUTE);
+		return HttpClients.custom().setConnectionManager(connManager).setDefaultRequestConfig(requestConfig).build();
+	}
+	
+	private static boolean isNumber(String str){
+		for(int i=0; i<str.length(); i++){
+			if(!Character.isDigit(str.charAt(i))){
+				return false;
+			}
+		}
+		return true;
 	}
 }
@@ -0,0 +1,263 @@
+package model;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.zip.GZIPOutputStream;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import misc.Constants;
+
+/**
+ * Defines the writer that exports issues and comments as they are received from GitHub, either as JSON Lines
+ * with 1 object per line, or as CSV with 1 row per issue or comment. Records are written through a buffer as
+ * they are given, so memory use does not grow with the number of issues exported.
+ * When exporting to a file, the format is chosen by its extension: .csv for CSV and anything else for JSON Lines.
+ * Files ending in .gz are also gzip-compressed.
+ * @author ZiXian92
+ */
+public class IssueExporter implements Closeable {
+	/**
+	 * The formats that records can be written in.
+	 */
+	public enum Format{ JSONL, CSV };
+
+	//Record fields
+	public static final String FIELD_TYPE = "type";
+	public static final String FIELD_ISSUE = "issue";
+	public static final String TYPE_ISSUE = "issue";
+	public static final String TYPE_COMMENT = "comment";
+	private static final String CSV_HEADER = "type,number,id,state,title,user,assignee,milestone,labels,body";
+	private static final char CSV_DELIM = ',';
+	private static final char CSV_QUOTE = '"';
+	private static final String LABEL_DELIM = ";";
+	private static final char LINE_DELIM = '\n';
+
+	private static final String SUFFIX_GZIP = ".gz";
+	private static final String SUFFIX_CSV = ".csv";
+	private static final int BUFFER_SIZE = 64*1024;
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	//Data members
+	private Writer out;
+	private Format format;
+	private File file;	//Null if not writing to a file.
+	private int numIssues, numComments;
+
+	/**
+	 * Creates an exporter that writes to the file at the given path, replacing it if it exists.
+	 * @param path The path of the file to export to. Cannot be null or empty.
+	 * @throws IOException If the file cannot be created.
+	 */
+	public IssueExporter(String path) throws IOException{
+		assert path!=null && !path.isEmpty();
+		file = new File(path);
+		String name = file.getName().toLowerCase();
+		boolean isCompressed = name.endsWith(SUFFIX_GZIP);
+		if(isCompressed){
+			name = name.substring(0, name.length()-SUFFIX_GZIP.length());
+		}
+		format = name.endsWith(SUFFIX_CSV)? Format.CSV: Format.JSONL;
+		OutputStream stream = Files.newOutputStream(file.toPath());
+		if(isCompressed){
+			stream = new GZIPOutputStream(stream, BUFFER_SIZE);
+		}
+		out = new BufferedWriter(new OutputStreamWriter(stream, UTF8), BUFFER_SIZE);
+		writeHeader();
+	}
+
+	/**
+	 * Creates an exporter that writes to the given writer.
+	 * @param out The writer to write records to. Cannot be null.
+	 * @param format The format to write records in. Cannot be null.
+	 * @throws IOException If an error occurs while writing the header.
+	 */
+	public IssueExporter(Writer out, Format format) throws IOException{
+		assert out!=null && format!=null;
+		this.out = out;
+		this.format = format;
+		writeHeader();
+	}
+
+	/**
+	 * Writes the given issue as received from GitHub.
+	 * @param issue The JSON object of the issue. Cannot be null.
+	 * @throws IOException If an error occurs while writing.
+	 * @throws JSONException If the issue lacks a field.
+	 */
+	public void writeIssue(JSONObject issue) throws IOException, JSONException{
+		assert issue!=null;
+		int number = issue.getInt(Constants.KEY_ISSUENUMBER);
+		String user = getLogin(issue, Constants.KEY_USER);
+		String assignee = getLogin(issue, Constants.KEY_ASSIGNEE);
+		String milestone = issue.isNull(Constants.KEY_MILESTONE)? null:
+				issue.getJSONObject(Constants.KEY_MILESTONE).getString(Constants.KEY_MILESTONETITLE);
+		JSONArray labels = new JSONArray();
+		JSONArray labelObjects = issue.optJSONArray(Constants.KEY_LABELS);
+		for(int i=0; labelObjects!=null && i<labelObjects.length(); i++){
+			labels.put(labelObjects.getJSONObject(i).getString(Constants.KEY_LABELNAME));
+		}
+		String body = getContent(issue);
+		if(format==Format.JSONL){
+			JSONObject record = new JSONObject();
+			record.put(FIELD_TYPE, TYPE_ISSUE);
+			record.put(Constants.KEY_ISSUENUMBER, number);
+			record.put(Constants.KEY_STATUS, issue.getString(Constants.KEY_STATUS));
+			record.put(Constants.KEY_ISSUETITLE, issue.getString(Constants.KEY_ISSUETITLE));
+			record.put(Constants.KEY_USER, (user==null)? JSONObject.NULL: user);
+			record.put(Constants.KEY_ASSIGNEE, (assignee==null)? JSONObject.NULL: assignee);
+			record.put(Constants.KEY_MILESTONE, (milestone==null)? JSONObject.NULL: milestone);
+			record.put(Constants.KEY_LABELS, labels);
+			record.put(Constants.KEY_CONTENT, body);
+			record.put(Constants.KEY_COMMENTS, issue.optInt(Constants.KEY_COMMENTS));
+			record.write(out);
+			out.write(LINE_DELIM);
+		} else{
+			StringBuilder labelNames = new StringBuilder();
+			for(int i=0; i<labels.length(); i++){
+				if(i>0){
+					labelNames.append(LABEL_DELIM);
+				}
+				labelNames.append(labels.getString(i));
+			}
+			writeRow(TYPE_ISSUE, Integer.toString(number), null, issue.getString(Constants.KEY_STATUS),
+					issue.getString(Constants.KEY_ISSUETITLE), user, assignee, milestone, labelNames.toString(), body);
+		}
+		numIssues++;
+	}
+
+	/**
+	 * Writes the given comment of the issue with the given number as received from GitHub.
+	 * @param issueNumber The GitHub number of the issue the comment belongs to.
+	 * @param comment The JSON object of the comment. Cannot be null.
+	 * @throws IOException If an error occurs while writing.
+	 * @throws JSONException If the comment lacks a field.
+	 */
+	public void writeComment(int issueNumber, JSONObject comment) throws IOException, JSONException{
+		assert comment!=null;
+		long id = comment.getLong(Constants.KEY_ID);
+		String user = getLogin(comment, Constants.KEY_USER);
+		String body = getContent(comment);
+		if(format==Format.JSONL){
+			JSONObject record = new JSONObject();
+			record.put(FIELD_TYPE, TYPE_COMMENT);
+			record.put(FIELD_ISSUE, issueNumber);
+			record.put(Constants.KEY_ID, id);
+			record.put(Constants.KEY_USER, (user==null)? JSONObject.NULL: user);
+			record.put(Constants.KEY_CONTENT, body);
+			record.write(out);
+			out.write(LINE_DELIM);
+		} else{
+			writeRow(TYPE_COMMENT, Integer.toString(issueNumber), Long.toString(id), null, null, user, null, null, null, body);
+		}
+		numComments++;
+	}
+
+	/**
+	 * Gets the format that records are written in.
+	 * @return The format of this exporter.
+	 */
+	public Format getFormat(){
+		return format;
+	}
+
+	/**
+	 * Gets the number of issues written so far.
+	 * @return The number of issues written.
+	 */
+	public int getNumIssues(){
+		return numIssues;
+	}
+
+	/**
+	 * Gets the number of comments written so far.
+	 * @return The number of comments written.
+	 */
+	public int getNumComments(){
+		return numComments;
+	}
+
+	/**
+	 * Writes all buffered records and closes the output.
+	 * @throws IOException If an error occurs while writing.
+	 */
+	@Override
+	public void close() throws IOException{
+		out.close();
+	}
+
+	/**
+	 * Closes the output and deletes the file being exported to, such as when the export fails.
+	 */
+	public void delete(){
+		try{
+			out.close();
+		} catch(IOException e){
+			//The file is deleted anyway.
+		}
+		if(file!=null){
+			file.delete();
+		}
+	}
+
+	private void writeHeader() throws IOException{
+		if(format==Format.CSV){
+			out.write(CSV_HEADER);
+			out.write(LINE_DELIM);
+		}
+	}
+
+	private void writeRow(String... values) throws IOException{
+		for(int i=0; i<values.length; i++){
+			if(i>0){
+				out.write(CSV_DELIM);
+			}
+			writeCSVValue(values[i]);
+		}
+		out.write(LINE_DELIM);
+	}
+
+	/**
+	 * Writes the given value, quoted if it contains a delimiter, quote or line break. Null is written as empty.
+	 */
+	private void writeCSVValue(String value) throws IOException{
+		if(value==null){
+			return;
+		}
+		boolean isQuoted = false;
+		for(int i=0; i<value.length() && !isQuoted; i++){
+			char c = value.charAt(i);
+			isQuoted = c==CSV_DELIM || c==CSV_QUOTE || c=='\n' || c=='\r';
+		}
+		if(!isQuoted){
+			out.write(value);
+			return;
+		}
+		out.write(CSV_QUOTE);
+		for(int i=0; i<value.length(); i++){
+			char c = value.charAt(i);
+			if(c==CSV_QUOTE){
+				out.write(CSV_QUOTE);
+			}
+			out.write(c);
+		}
+		out.write(CSV_QUOTE);
+	}
+
+	private static String getLogin(JSONObject obj, String key) throws JSONException{
+		return obj.isNull(key)? null: obj.getJSONObject(key).getString(Constants.KEY_USERLOGIN);
+	}
+
+	private static String getContent(JSONObject obj) throws JSONException{
+		return obj.isNull(Constants.KEY_CONTENT)? "": obj.getString(Constants.KEY_CONTENT);
+	}
+}
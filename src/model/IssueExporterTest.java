@@ -0,0 +1,59 @@
+package model;
+
+import static org.junit.Assert.*;
+
+import java.io.StringWriter;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+/**
+ * Defines the unit test for IssueExporter class.
+ * @author ZiXian92
+ */
+public class IssueExporterTest {
+	private static final String ISSUE = "{\"number\":7,\"title\":\"Crash, then \\\"hang\\\"\",\"state\":\"open\","+
+			"\"user\":{\"login\":\"alice\"},\"assignee\":null,\"milestone\":{\"number\":1,\"title\":\"v1\"},"+
+			"\"labels\":[{\"name\":\"bug\"},{\"name\":\"ui\"}],\"body\":\"line 1\\nline 2\",\"comments\":1}";
+	private static final String COMMENT = "{\"id\":42,\"user\":{\"login\":\"bob\"},\"body\":null}";
+
+	@Test
+	public void testJSONL() throws Exception{
+		StringWriter out = new StringWriter();
+		IssueExporter exporter = new IssueExporter(out, IssueExporter.Format.JSONL);
+		exporter.writeIssue(new JSONObject(ISSUE));
+		exporter.writeComment(7, new JSONObject(COMMENT));
+		exporter.close();
+		String[] lines = out.toString().split("\n");
+		assertEquals(2, lines.length);
+
+		JSONObject issue = new JSONObject(lines[0]);
+		assertEquals("issue", issue.getString("type"));
+		assertEquals(7, issue.getInt("number"));
+		assertEquals("Crash, then \"hang\"", issue.getString("title"));
+		assertTrue(issue.isNull("assignee"));
+		assertEquals("v1", issue.getString("milestone"));
+		assertEquals("ui", issue.getJSONArray("labels").getString(1));
+		assertEquals("line 1\nline 2", issue.getString("body"));
+
+		JSONObject comment = new JSONObject(lines[1]);
+		assertEquals("comment", comment.getString("type"));
+		assertEquals(7, comment.getInt("issue"));
+		assertEquals(42, comment.getLong("id"));
+		assertEquals("", comment.getString("body"));
+		assertEquals(1, exporter.getNumIssues());
+		assertEquals(1, exporter.getNumComments());
+	}
+
+	@Test
+	public void testCSV() throws Exception{
+		StringWriter out = new StringWriter();
+		IssueExporter exporter = new IssueExporter(out, IssueExporter.Format.CSV);
+		exporter.writeIssue(new JSONObject(ISSUE));
+		exporter.writeComment(7, new JSONObject(COMMENT));
+		exporter.close();
+		assertEquals("type,number,id,state,title,user,assignee,milestone,labels,body\n"+
+				"issue,7,,open,\"Crash, then \"\"hang\"\"\",alice,,v1,bug;ui,\"line 1\nline 2\"\n"+
+				"comment,7,42,,,bob,,,,\n", out.toString());
+	}
+}
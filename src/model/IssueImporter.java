@@ -0,0 +1,342 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import misc.Constants;
+import misc.RateLimiter;
+import misc.TaskScope;
+import structure.Issue;
+import structure.Repository;
+
+/**
+ * Defines the import of issues into a repository from a JSON Lines file, with 1 issue per line in the form given
+ * by Issue.toJSONObject(). Files written by IssueExporter can also be imported, in which case their comments
+ * are skipped. Files ending in .gz are read as gzip-compressed.
+ * The file is read 1 line at a time, and up to a fixed number of issues are created at once through
+ * Model.postIssue(), each waiting on RateLimiter first. Issues that are closed in the file are closed once created.
+ * Each task adds its issue to the repository only once it is created and closed, and does not look up other issues
+ * or notify observers, as those are not safe while other tasks add issues.
+ * The line number of each created issue is recorded in a checkpoint file next to the imported file, so that an
+ * import that fails or is cancelled can be run again without creating the same issues twice.
+ * The checkpoint file is removed once every issue in the file has been created.
+ * The number of issues created at once is set with the system property mygithubissuetracker.importconcurrency.
+ * @author ZiXian92
+ */
+public class IssueImporter {
+	public static final String PROPERTY_CONCURRENCY = "mygithubissuetracker.importconcurrency";
+	public static final int DEFAULT_CONCURRENCY = 4;	//GitHub discourages creating content in many requests at once.
+	public static final String SUFFIX_CHECKPOINT = ".checkpoint";
+	private static final String SUFFIX_GZIP = ".gz";
+	private static final long POLL_INTERVAL = 100;	//Milliseconds between checks for cancellation while waiting.
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	//For logging
+	private static final Logger logger = Logger.getLogger("com.MyGitHubIssueTracker.model.IssueImporter");
+
+	//Data members
+	private Model model;
+	private File file, checkpointFile;
+	private Repository repo;
+	private int concurrency;
+	private Writer checkpoint;	//Null once closed.
+	private int numSkipped = 0, numIgnored = 0;
+	private AtomicInteger numCreated = new AtomicInteger(), numFailed = new AtomicInteger();
+	private boolean isCancelled = false;
+
+	/**
+	 * Creates an import of the file at the given path into the given repository, with the number of issues created
+	 * at once given by the system property, or the default if it is not set.
+	 * @param path The path of the file to import. Cannot be null or empty.
+	 * @param repo The loaded repository to import into. Cannot be null.
+	 */
+	public IssueImporter(String path, Repository repo){
+		this(path, repo, Integer.getInteger(PROPERTY_CONCURRENCY, DEFAULT_CONCURRENCY));
+	}
+
+	/**
+	 * Creates an import of the file at the given path into the given repository.
+	 * @param path The path of the file to import. Cannot be null or empty.
+	 * @param repo The loaded repository to import into. Cannot be null.
+	 * @param concurrency The number of issues to create at once. Must be positive.
+	 */
+	public IssueImporter(String path, Repository repo, int concurrency){
+		assert path!=null && !path.isEmpty() && repo!=null && concurrency>0;
+		model = Model.getInstance();
+		file = new File(path);
+		checkpointFile = new File(path+SUFFIX_CHECKPOINT);
+		this.repo = repo;
+		this.concurrency = concurrency;
+		logger.setUseParentHandlers(true);
+	}
+
+	/**
+	 * Creates the issues in the file that have not been created by an earlier run, and waits for them to finish.
+	 * Stops early if the current scope is cancelled.
+	 * @throws IOException If the file or checkpoint file cannot be read, or the checkpoint file cannot be written.
+	 */
+	public void run() throws IOException{
+		BitSet created = readCheckpoint();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(
+				file.getName().endsWith(SUFFIX_GZIP)? new GZIPInputStream(Files.newInputStream(file.toPath())):
+				Files.newInputStream(file.toPath()), UTF8));
+		try{
+			checkpoint = Files.newBufferedWriter(checkpointFile.toPath(), UTF8,
+					StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+		} catch(IOException e){
+			reader.close();
+			throw e;
+		}
+		final Semaphore permits = new Semaphore(concurrency);
+		TaskScope scope = TaskScope.open();	//Ends with the command, which may be cancelled.
+		try{
+			String line;
+			JSONObject request;
+			for(int lineNumber=1; (line = reader.readLine())!=null; lineNumber++){
+				if(line.trim().isEmpty()){
+					continue;
+				} else if(created.get(lineNumber)){
+					numSkipped++;
+					continue;
+				}
+				try{
+					request = toRequest(new JSONObject(line));
+				} catch(JSONException e){
+					logger.log(Level.WARNING, "Line {0} is not a valid issue: {1}", new Object[] {lineNumber, e.getMessage()});
+					numFailed.incrementAndGet();
+					continue;
+				}
+				if(request==null){	//A comment exported with the issues.
+					numIgnored++;
+					continue;
+				}
+				if(!acquire(permits, 1, scope)){
+					break;
+				}
+				scope.fork(createTask(request, lineNumber, permits));
+			}
+			if(acquire(permits, concurrency, scope)){	//Waits for the last issues to be created.
+				scope.join();
+			}
+		} catch(CancellationException | ExecutionException | TimeoutException e){
+			//Only cancellation is possible, as tasks handle their own failures and the scope has no deadline.
+		} catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+			scope.cancel();
+		} finally{
+			isCancelled = scope.isCancelled();
+			scope.close();
+			reader.close();
+			closeCheckpoint();
+			model.updateCachedSize(repo);	//Counts the created issues.
+		}
+		if(isComplete()){
+			checkpointFile.delete();
+		}
+	}
+
+	/**
+	 * Gets the number of issues created by this run.
+	 * @return The number of issues created.
+	 */
+	public int getNumCreated(){
+		return numCreated.get();
+	}
+
+	/**
+	 * Gets the number of issues skipped as they were created by an earlier run.
+	 * @return The number of issues skipped.
+	 */
+	public int getNumSkipped(){
+		return numSkipped;
+	}
+
+	/**
+	 * Gets the number of issues that could not be read or created.
+	 * @return The number of failed issues.
+	 */
+	public int getNumFailed(){
+		return numFailed.get();
+	}
+
+	/**
+	 * Gets the number of lines ignored as they hold comments rather than issues.
+	 * @return The number of lines ignored.
+	 */
+	public int getNumIgnored(){
+		return numIgnored;
+	}
+
+	/**
+	 * Checks if every issue in the file has been created, by this run or an earlier one.
+	 * @return true if the import is complete and false if it failed in part or was cancelled.
+	 */
+	public boolean isComplete(){
+		return !isCancelled && numFailed.get()==0;
+	}
+
+	/**
+	 * Converts the given line of the file into a request to create the issue.
+	 * @param obj The JSON object on the line. Cannot be null.
+	 * @return The request, or null if the line holds a comment.
+	 * @throws JSONException If the line lacks a title.
+	 */
+	static JSONObject toRequest(JSONObject obj) throws JSONException{
+		assert obj!=null;
+		if(IssueExporter.TYPE_COMMENT.equals(obj.optString(IssueExporter.FIELD_TYPE))){
+			return null;
+		}
+		JSONObject request = new JSONObject();
+		request.put(Constants.KEY_ISSUETITLE, obj.getString(Constants.KEY_ISSUETITLE));
+		request.put(Constants.KEY_CONTENT, obj.isNull(Constants.KEY_CONTENT)? "": obj.getString(Constants.KEY_CONTENT));
+		request.put(Constants.KEY_ASSIGNEE, obj.isNull(Constants.KEY_ASSIGNEE)? JSONObject.NULL:
+				obj.getString(Constants.KEY_ASSIGNEE));
+		if(!obj.isNull(Constants.KEY_MILESTONE)){	//Converted to the milestone's number by Model.addIssue().
+			request.put(Constants.KEY_MILESTONE, obj.getString(Constants.KEY_MILESTONE));
+		}
+		JSONArray labels = obj.optJSONArray(Constants.KEY_LABELS);
+		request.put(Constants.KEY_LABELS, (labels==null)? new JSONArray(): labels);
+		request.put(Constants.KEY_STATUS, obj.optString(Constants.KEY_STATUS, Constants.ISSUE_STATUSOPEN));
+		return request;
+	}
+
+	/**
+	 * Creates the task that creates the issue of the given request, records it in the checkpoint file, closes it
+	 * if needed, then adds it to the repository. The task never throws, so that a failed issue does not cancel
+	 * the others.
+	 */
+	private Callable<Void> createTask(final JSONObject request, final int lineNumber, final Semaphore permits){
+		return new Callable<Void>(){
+			@Override
+			public Void call(){
+				try{
+					boolean isClosed = Constants.ISSUE_STATUSCLOSED.equals(request.remove(Constants.KEY_STATUS));
+					RateLimiter.getInstance().acquire();
+					Issue issue = model.postIssue(request, repo);
+					writeCheckpoint(lineNumber);
+					numCreated.incrementAndGet();
+					if(isClosed){
+						issue = close(issue, lineNumber);
+					}
+					synchronized(repo){
+						repo.addIssue(issue);
+						issue.setIsInitialized(true);
+					}
+				} catch(InterruptedException e){
+					//Cancelled with the import.
+				} catch(Exception e){
+					if(!TaskScope.current().isCancelled()){
+						logger.log(Level.WARNING, "Failed to import the issue on line {0}: {1}", new Object[] {lineNumber, e});
+						numFailed.incrementAndGet();
+					}
+				} finally{
+					permits.release();
+				}
+				return null;
+			}
+		};
+	}
+
+	/**
+	 * Closes the given issue, which has just been created from the given line.
+	 * Failures are only counted, as the issue is already recorded as created.
+	 * @return The closed issue, or the given issue if it could not be closed.
+	 */
+	private Issue close(Issue issue, int lineNumber) throws InterruptedException{
+		try{
+			JSONObject changes = new JSONObject();
+			changes.put(Constants.KEY_STATUS, Constants.ISSUE_STATUSCLOSED);
+			RateLimiter.getInstance().acquire();
+			return model.patchIssue(changes, repo, issue.getNumber());
+		} catch(InterruptedException e){
+			throw e;
+		} catch(Exception e){
+			if(TaskScope.current().isCancelled()){
+				return issue;
+			}
+		}
+		logger.log(Level.WARNING, "Created issue #{0} from line {1} but failed to close it.",
+				new Object[] {issue.getNumber(), lineNumber});
+		numFailed.incrementAndGet();
+		return issue;
+	}
+
+	/**
+	 * Acquires the given number of permits, checking for cancellation of the given scope while waiting.
+	 * @return true if the permits are acquired and false if the scope has been cancelled.
+	 */
+	private static boolean acquire(Semaphore permits, int numPermits, TaskScope scope) throws InterruptedException{
+		while(!permits.tryAcquire(numPermits, POLL_INTERVAL, TimeUnit.MILLISECONDS)){
+			if(scope.isCancelled()){	//Tasks cancelled before they started never release their permits.
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Reads the line numbers of issues created by earlier runs.
+	 */
+	private BitSet readCheckpoint() throws IOException{
+		BitSet created = new BitSet();
+		if(!checkpointFile.isFile()){
+			return created;
+		}
+		BufferedReader reader = Files.newBufferedReader(checkpointFile.toPath(), UTF8);
+		try{
+			String line;
+			while((line = reader.readLine())!=null){
+				try{
+					created.set(Integer.parseInt(line.trim()));
+				} catch(NumberFormatException e){
+					//A line cut short when an earlier run was stopped.
+				}
+			}
+		} finally{
+			reader.close();
+		}
+		logger.log(Level.INFO, "Resuming import of {0}. {1} issues were created before.",
+				new Object[] {file.getName(), created.cardinality()});
+		return created;
+	}
+
+	/**
+	 * Records that the issue on the given line has been created. Flushed at once, so that the record survives
+	 * the program being stopped.
+	 */
+	private synchronized void writeCheckpoint(int lineNumber) throws IOException{
+		if(checkpoint!=null){
+			checkpoint.write(Integer.toString(lineNumber));
+			checkpoint.write('\n');
+			checkpoint.flush();
+		}
+	}
+
+	private synchronized void closeCheckpoint() throws IOException{
+		if(checkpoint!=null){
+			checkpoint.close();
+			checkpoint = null;
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package model;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import structure.Issue;
+import structure.Repository;
+
+/**
+ * Defines the unit test for IssueImporter class.
+ * @author ZiXian92
+ */
+public class IssueImporterTest {
+	@Test
+	//Tests that issues saved with Issue.toJSONObject() can be imported
+	public void testToRequestFromIssue() throws Exception{
+		Repository repo = new Repository("repo", "owner");
+		ArrayList<String> labels = new ArrayList<String>();
+		labels.add("bug");
+		repo.setLabels(labels);
+		Issue issue = new Issue("Crash on start", 3, repo);
+		issue.setContent("Stack trace");
+		issue.setAssignee("alice");
+		issue.addLabel("bug");
+		issue.setStatus("closed");
+
+		JSONObject request = IssueImporter.toRequest(issue.toJSONObject());
+		assertEquals("Crash on start", request.getString("title"));
+		assertEquals("Stack trace", request.getString("body"));
+		assertEquals("alice", request.getString("assignee"));
+		assertEquals("bug", request.getJSONArray("labels").getString(0));
+		assertEquals("closed", request.getString("state"));
+		assertFalse(request.has("milestone"));
+	}
+
+	@Test
+	//Tests that files written by IssueExporter can be imported, without their comments
+	public void testToRequestFromExport() throws Exception{
+		JSONObject request = IssueImporter.toRequest(new JSONObject("{\"type\":\"issue\",\"number\":7,"+
+				"\"title\":\"Hang\",\"state\":\"open\",\"user\":\"bob\",\"assignee\":null,\"milestone\":\"v1\","+
+				"\"labels\":[],\"body\":\"\",\"comments\":1}"));
+		assertEquals("Hang", request.getString("title"));
+		assertTrue(request.isNull("assignee"));
+		assertEquals("v1", request.getString("milestone"));
+		assertFalse(request.has("number"));
+		assertFalse(request.has("user"));
+
+		assertNull(IssueImporter.toRequest(new JSONObject("{\"type\":\"comment\",\"issue\":7,\"id\":42,"+
+				"\"user\":\"bob\",\"body\":\"Me too\"}")));
+	}
+}
@@ -2,23 +2,25 @@ package model;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.concurrent.Callable;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.apache.http.HttpEntity;
-import org.apache.http.client.methods.CloseableHttpResponse;
 import org.json.JSONArray;
 import org.json.JSONException;
 
 import misc.Constants;
-import misc.Util;
+import misc.FailedRequestException;
+import misc.MissingMessageException;
+import misc.ResponseCache;
 import structure.Repository;
 
 /**
  * Defines a thread to fetch the given repository's contributors.
+ * As a Callable, it only returns the contributors, leaving the caller to add them to the repository.
  * @author ZiXian92
  */
-public class LoadContributorsThread implements Runnable {
+public class LoadContributorsThread implements Runnable, Callable<ArrayList<String>> {
 	//For logging purpose
 	private static Logger logger = Logger.getLogger("com.MyGitHubIssueTracker.model.LoadContributorsThread");
 	
@@ -37,34 +39,42 @@ public class LoadContributorsThread implements Runnable {
 
 	@Override
 	public void run() {
-		String url = Constants.API_URL+String.format(Constants.EXT_CONTRIBUTORS, repo.getOwner(), repo.getName());
 		try{
-			CloseableHttpResponse response = Util.sendGetRequest(url, null);
-			if(!response.getStatusLine().toString().equals(Constants.RESPONSE_OK)){
-				logger.log(Level.WARNING, "Request to get contributors failed.\nResponse: {0}",
-						response.getStatusLine().toString());
-				response.close();
-				return;
-			}
-			HttpEntity messageBody = response.getEntity();
-			if(messageBody==null){
-				logger.log(Level.WARNING, "Missing message from response.");
-				response.close();
-				return;
+			ArrayList<String> contributors = call();
+			if(contributors!=null){
+				repo.setAssignees(contributors);
 			}
-			JSONArray arr = new JSONArray(Util.getJSONString(messageBody.getContent()));
-			response.close();
+		} catch (IOException e) {
+			//Happens if url is invalid or something unexpected happens.
+			logger.log(Level.WARNING, "Error executing request for contibutors.");
+		}
+	}
+	
+	/**
+	 * Fetches the repository's contributors without adding them to the repository.
+	 * @return The logins of the contributors or null if GitHub did not return them.
+	 * @throws IOException If an error occurred during the request, including it being aborted.
+	 */
+	@Override
+	public ArrayList<String> call() throws IOException {
+		String url = Constants.API_URL+String.format(Constants.EXT_CONTRIBUTORS, repo.getOwner(), repo.getName());
+		try{
+			JSONArray arr = ResponseCache.getInstance().getJSONArray(url, null);
 			int numContributors = arr.length();
 			ArrayList<String> contributors = new ArrayList<String>();
 			for(int i=0; i<numContributors; i++){	//Either add all or none of the contributors.
 				contributors.add(arr.getJSONObject(i).getString(Constants.KEY_USERLOGIN));
 			}
-			repo.setAssignees(contributors);
+			return contributors;
 		} catch(JSONException e){	//Will not happen unless JSON format of GitHub API changes.
 			logger.log(Level.WARNING, "Error parsing JSON data.");
-		} catch (IOException e) {
-			//Happens if url is invalid or something unexpected happens.
-			logger.log(Level.WARNING, "Error executing request for contibutors.");
+			return null;
+		} catch(FailedRequestException e){
+			logger.log(Level.WARNING, "Request to get contributors failed.");
+			return null;
+		} catch(MissingMessageException e){
+			logger.log(Level.WARNING, "Missing message from response.");
+			return null;
 		}
 	}
 	
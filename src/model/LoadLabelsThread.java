@@ -2,23 +2,25 @@ package model;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.concurrent.Callable;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.apache.http.HttpEntity;
-import org.apache.http.client.methods.CloseableHttpResponse;
 import org.json.JSONArray;
 import org.json.JSONException;
 
 import misc.Constants;
-import misc.Util;
+import misc.FailedRequestException;
+import misc.MissingMessageException;
+import misc.ResponseCache;
 import structure.Repository;
 
 /**
  * Defines the Runnable object that executes the given request to load labels to the given repository.
+ * As a Callable, it only returns the labels, leaving the caller to add them to the repository.
  * @author ZiXian92
  */
-public class LoadLabelsThread implements Runnable {
+public class LoadLabelsThread implements Runnable, Callable<ArrayList<String>> {
 	//For logging purpose
 	private static Logger logger = Logger.getLogger("com.MyGitHubIssueTracker.model.LoadLabelsThread");
 	
@@ -37,33 +39,41 @@ public class LoadLabelsThread implements Runnable {
 
 	@Override
 	public void run() {
-		String url = Constants.API_URL+String.format(Constants.EXT_REPOLABELS, repo.getOwner(), repo.getName());
 		try{
-			CloseableHttpResponse res = Util.sendGetRequest(url, null);
-			if(!res.getStatusLine().toString().equals(Constants.RESPONSE_OK)){
-				logger.log(Level.WARNING, "Request to fetch labels failed.\nResponse: {0}",
-						res.getStatusLine().toString());
-				res.close();
-				return;
-			}
-			HttpEntity messageBody = res.getEntity();
-			if(messageBody==null){
-				logger.log(Level.WARNING, "Missing message in response.");
-				res.close();
-				return;
+			ArrayList<String> labels = call();
+			if(labels!=null){
+				repo.setLabels(labels);
 			}
-			JSONArray labelsArr = new JSONArray(Util.getJSONString(messageBody.getContent()));
-			res.close();
+		} catch(IOException e){	//Happens if url is invalid or something unexpected happens.
+			logger.log(Level.WARNING, "Error executing request to fetch labels.");
+		}
+	}
+	
+	/**
+	 * Fetches the repository's labels without adding them to the repository.
+	 * @return The names of the labels or null if GitHub did not return them.
+	 * @throws IOException If an error occurred during the request, including it being aborted.
+	 */
+	@Override
+	public ArrayList<String> call() throws IOException {
+		String url = Constants.API_URL+String.format(Constants.EXT_REPOLABELS, repo.getOwner(), repo.getName());
+		try{
+			JSONArray labelsArr = ResponseCache.getInstance().getJSONArray(url, null);
 			int numLabels = labelsArr.length();
 			ArrayList<String> labels = new ArrayList<String>();
 			for(int i=0; i<numLabels; i++){	//Either add all or none of the labels.
 				labels.add(labelsArr.getJSONObject(i).getString(Constants.KEY_LABELNAME));
 			}
-			repo.setLabels(labels);
+			return labels;
 		} catch(JSONException e){	//Will not appen unless JSON format for GitHub API changes.
 			logger.log(Level.WARNING, "Error parsing JSON.");
-		} catch(IOException e){	//Happens if url is invalid or something unexpected happens.
-			logger.log(Level.WARNING, "Error executing request to fetch labels.");
+			return null;
+		} catch(FailedRequestException e){
+			logger.log(Level.WARNING, "Request to fetch labels failed.");
+			return null;
+		} catch(MissingMessageException e){
+			logger.log(Level.WARNING, "Missing message in response.");
+			return null;
 		}
 	}
 
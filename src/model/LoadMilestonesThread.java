@@ -1,24 +1,28 @@
 package model;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.apache.http.HttpEntity;
-import org.apache.http.client.methods.CloseableHttpResponse;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
 import misc.Constants;
-import misc.Util;
+import misc.FailedRequestException;
+import misc.MissingMessageException;
+import misc.ResponseCache;
 import structure.Repository;
 
 /**
- * Defines the Runnable class that fetches and adds milestones for the given repository until an error occurs.
+ * Defines the Runnable class that fetches and adds milestones for the given repository.
+ * As a Callable, it only returns the milestones, leaving the caller to add them to the repository.
  * @author ZiXian92
  */
-public class LoadMilestonesThread implements Runnable {
+public class LoadMilestonesThread implements Runnable, Callable<LinkedHashMap<Integer, String>> {
 	//For logging purpose
 	private static Logger logger = Logger.getLogger("com.MyGitHubIssueTracker.model.LoadMilestonesThread");
 	
@@ -33,30 +37,45 @@ public class LoadMilestonesThread implements Runnable {
 	
 	@Override
 	public void run(){
-		String url = Constants.API_URL+String.format(Constants.EXT_MILESTONES, repo.getOwner(), repo.getName());
 		try{
-			CloseableHttpResponse response = Util.sendGetRequest(url, null);
-			if(!response.getStatusLine().toString().equals(Constants.RESPONSE_OK)){
-				logger.log(Level.WARNING, "Failed to get milestones.\nResponse: {0}", response.getStatusLine().toString());
-				response.close();
-				return;
-			}
-			HttpEntity messageBody = response.getEntity();
-			if(messageBody==null){
-				logger.log(Level.WARNING, "Missing message in response.");
-				response.close();
+			LinkedHashMap<Integer, String> milestones = call();
+			if(milestones!=null){
+				for(Map.Entry<Integer, String> milestone: milestones.entrySet()){
+					repo.addMilestone(milestone.getKey(), milestone.getValue());
+				}
 			}
-			JSONArray milestones = new JSONArray(Util.getJSONString(messageBody.getContent()));
+		} catch(IOException e){
+			logger.log(Level.WARNING, "Error sending request for milestones.");
+		}
+	}
+	
+	/**
+	 * Fetches the repository's milestones without adding them to the repository.
+	 * @return The titles of the milestones by their numbers or null if GitHub did not return them.
+	 * @throws IOException If an error occurred during the request, including it being aborted.
+	 */
+	@Override
+	public LinkedHashMap<Integer, String> call() throws IOException{
+		String url = Constants.API_URL+String.format(Constants.EXT_MILESTONES, repo.getOwner(), repo.getName());
+		try{
+			JSONArray milestonesArr = ResponseCache.getInstance().getJSONArray(url, null);
 			JSONObject milestone;
-			int numMilestones = milestones.length();
-			for(int i=0; i<numMilestones; i++){
-				milestone = milestones.getJSONObject(i);
-				repo.addMilestone(milestone.getInt(Constants.KEY_MILESTONENUMBER), milestone.getString(Constants.KEY_MILESTONETITLE));
+			int numMilestones = milestonesArr.length();
+			LinkedHashMap<Integer, String> milestones = new LinkedHashMap<Integer, String>();
+			for(int i=0; i<numMilestones; i++){	//Either add all or none of the milestones.
+				milestone = milestonesArr.getJSONObject(i);
+				milestones.put(milestone.getInt(Constants.KEY_MILESTONENUMBER), milestone.getString(Constants.KEY_MILESTONETITLE));
 			}
+			return milestones;
 		} catch(JSONException e){
-			logger.log(Level.WARNING, "Error parsing JSON. Some milestones may not have been added to repository.");
-		} catch(IOException e){
-			logger.log(Level.WARNING, "Error sending request for milestones.");
+			logger.log(Level.WARNING, "Error parsing JSON. No milestones are added to repository.");
+			return null;
+		} catch(FailedRequestException e){
+			logger.log(Level.WARNING, "Failed to get milestones.");
+			return null;
+		} catch(MissingMessageException e){
+			logger.log(Level.WARNING, "Missing message in response.");
+			return null;
 		}
 	}
 }
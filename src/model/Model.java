@@ -4,26 +4,38 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.apache.commons.codec.binary.Base64;
 import org.apache.http.HttpEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpGet;
 import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.HttpClients;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
 import misc.Constants;
+import misc.Events;
 import misc.FailedRequestException;
+import misc.Metrics;
 import misc.MissingMessageException;
 import misc.RequestException;
+import misc.ResponseCache;
+import misc.StringPool;
+import misc.TaskScope;
+import misc.Tracer;
 import misc.Util;
 import controller.Observer;
 import structure.Issue;
+import structure.IssueListBuilder;
 import structure.Repository;
 
 /**
@@ -37,6 +49,21 @@ public class Model {
 	
 	//For logging
 	private static final Logger logger = Logger.getLogger("com.MyGitHubIssueTracker.model");
+	
+	//Span names and details for tracing
+	private static final String SPAN_GETREPO = "Model.getRepository";
+	private static final String SPAN_UPDATEREPO = "Model.updateRepo";
+	private static final String SPAN_UPDATEISSUE = "Model.updateIssue";
+	private static final String SPAN_EXPORT = "Model.exportIssues";
+	private static final String SPAN_LOADCONTRIBUTORS = "LoadContributorsThread";
+	private static final String SPAN_LOADLABELS = "LoadLabelsThread";
+	private static final String SPAN_LOADMILESTONES = "LoadMilestonesThread";
+	private static final String ARG_REPO = "repository";
+	private static final String ARG_ISSUE = "issue";
+	
+	//Sources of decode events
+	private static final String EVENT_ISSUES = "issues";
+	private static final String EVENT_COMMENTS = "comments";
 
 	//Data members
 	private String authCode;
@@ -44,11 +71,19 @@ public class Model {
 	private ArrayList<Observer> observerList;
 	private int numRepos;
 	
+	//Shares repeated values such as logins, milestones and statuses across all decoded issues and comments.
+	private StringPool stringPool;
+	
 	//Stores the indices of the repositories in repoList, starting from 1.
 	private HashMap<String, Integer> indexList;
+	
+	//Unloads the least recently used repositories when loaded ones take up too much memory.
+	private RepositoryCache repoCache;
 
 	private Model(){
 		observerList = new ArrayList<Observer>();
+		stringPool = new StringPool();
+		repoCache = new RepositoryCache();
 		logger.setUseParentHandlers(true);
 	}
 
@@ -117,15 +152,13 @@ public class Model {
 		//Clears all data members
 		repoList = new ArrayList<Repository>();
 		indexList = new HashMap<String, Integer>();
+		repoCache = new RepositoryCache();
 		numRepos = 0;
 		
 		//Send request to get list of repositories.
 		String url = Constants.API_URL+Constants.EXT_REPOS;
-		HttpGet request = new HttpGet(url);
-		request.addHeader(Constants.HEADER_ACCEPT, Constants.VAL_PREVIEWACCEPT);
-		request.addHeader(Constants.HEADER_AUTH, String.format(Constants.VAL_AUTH, authCode));
 		try{
-			CloseableHttpResponse response = HttpClients.createDefault().execute(request);
+			CloseableHttpResponse response = Util.sendGetRequest(url, authCode, Constants.VAL_PREVIEWACCEPT);
 			if(!response.getStatusLine().toString().equals(Constants.RESPONSE_OK)){
 				logger.log(Level.SEVERE, "Initialization failed.\n Response: {0}", response.getStatusLine().toString());
 				response.close();
@@ -141,7 +174,7 @@ public class Model {
 			}
 
 			//Parse the JSON string into Repository instances.
-			JSONArray arr = new JSONArray(Util.getJSONString(messageBody.getContent()));
+			JSONArray arr = Util.parseJSONArray(messageBody.getContent());
 			response.close();
 			int size = arr.length();
 			Repository temp;
@@ -179,80 +212,104 @@ public class Model {
 	
 	/**
 	 * Fetches issues under the specified repository and stores them in
-	 * a Repository instance.
+	 * a Repository instance. The repository is left unchanged if any part of it cannot be loaded in time.
 	 * @param repo The repository to update from GitHub.
 	 * @throws FailedRequestException If the request fails.
 	 * @throws MissingMessageException If the message is missing in the response.
 	 * @throws JSONException If an error occurs when parsing the response object.
-	 * @throws RequestException If an error occurs when sending the request.
+	 * @throws RequestException If an error occurs when sending the requests, or they are cancelled
+	 * 							or do not complete within Constants.LOAD_TIMEOUT.
 	 */
 	public void updateRepo(Repository repo) throws FailedRequestException, MissingMessageException, JSONException, RequestException{
 		assert repo!=null;
 		
 		String repoName = repo.getName();
 		String owner = repo.getOwner();
+		Tracer.Span span = Tracer.start(SPAN_UPDATEREPO).setArg(ARG_REPO, repo.getFullName());
 		
-		//Gets the list of contributors concurrently.
-		Thread loadContribThread = new Thread(new LoadContributorsThread(repo));
-		loadContribThread.run();
-		
-		//Gets the list of labels used in this repository.
-		Thread loadLabelsThread = new Thread(new LoadLabelsThread(repo));
-		loadLabelsThread.run();
-		
-		//Gets list of milestones
-		Thread loadMilestonesThread = new Thread(new LoadMilestonesThread(repo));
-		loadMilestonesThread.run();
+		//Gets the lists of contributors, labels and milestones concurrently with the issues, all within the deadline.
+		//Nothing is added to repo until everything is received, so that a failed load leaves repo as it was.
+		TaskScope scope = TaskScope.open(Constants.LOAD_TIMEOUT);
+		Callable<ArrayList<String>> loadContributors = new LoadContributorsThread(repo);
+		Callable<ArrayList<String>> loadLabels = new LoadLabelsThread(repo);
+		Callable<LinkedHashMap<Integer, String>> loadMilestones = new LoadMilestonesThread(repo);
+		Future<ArrayList<String>> loadContribTask = scope.fork(Tracer.wrap(loadContributors, SPAN_LOADCONTRIBUTORS));
+		Future<ArrayList<String>> loadLabelsTask = scope.fork(Tracer.wrap(loadLabels, SPAN_LOADLABELS));
+		Future<LinkedHashMap<Integer, String>> loadMilestonesTask = scope.fork(Tracer.wrap(loadMilestones, SPAN_LOADMILESTONES));
 		
 		String url = Constants.API_URL+String.format(Constants.EXT_REPOISSUES, owner, repoName);
 		
 		try{
-			CloseableHttpResponse response = Util.sendGetRequest(url, authCode);
-			if(!response.getStatusLine().toString().equals(Constants.RESPONSE_OK)){
-				logger.log(Level.WARNING, "Failed to get issues for repository {0}.\nResponse: {1}",
-						new Object[] {repoName, response.getStatusLine().toString()});
-				response.close();
-				throw new FailedRequestException();
-			}
-			
-			//Loads issues from GitHub repository into this repository instance.
-			HttpEntity messageBody = response.getEntity();
-			if(messageBody==null){
-				logger.log(Level.WARNING, "Request successful. Response message missing.");
-				response.close();
-				throw new MissingMessageException();
-			}
-			JSONObject temp;
-			JSONArray arr = new JSONArray(Util.getJSONString(messageBody.getContent()));
-			response.close();
+			//Loads issues from GitHub repository 1 page at a time, so that large repositories are stored
+			//in columnar form as they arrive.
+			final IssueListBuilder tempIssueList = new IssueListBuilder(repo);
+			final Repository target = repo;
+			forEachCachedPage(url, new PageHandler(){
+				@Override
+				public void handle(JSONArray page) throws JSONException{
+					Object decodeEvent = Events.beginDecode();
+					int size = page.length();
+					for(int i=0; i<size; i++){	//If JSON exception occurs here, no issue is added to repo.
+						tempIssueList.add(Issue.makeInstance(page.getJSONObject(i), target, stringPool));
+					}
+					Events.commitDecode(decodeEvent, EVENT_ISSUES, size);
+				}
+			});
+			scope.join();
 			
-			int size = arr.length();
-			ArrayList<Issue> tempIssueList = new ArrayList<Issue>();
-			for(int i=0; i<size; i++){	//If JSON exception occurs here, no issue is added to repo.
-				temp = arr.getJSONObject(i);
-				tempIssueList.add(Issue.makeInstance(temp, repo));
+			ArrayList<String> contributors = loadContribTask.get();
+			ArrayList<String> labels = loadLabelsTask.get();
+			LinkedHashMap<Integer, String> milestones = loadMilestonesTask.get();
+			synchronized(repo){
+				if(contributors!=null){
+					repo.setAssignees(contributors);
+				}
+				if(labels!=null){
+					repo.setLabels(labels);
+				}
+				if(milestones!=null){
+					for(Map.Entry<Integer, String> milestone: milestones.entrySet()){
+						repo.addMilestone(milestone.getKey(), milestone.getValue());
+					}
+				}
+				repo.setIssues(tempIssueList);	//Involves setting of applicable labels to issues
+				repo.setIsInitialized(true);
 			}
-			loadLabelsThread.join();	//Wait for labels to be loaded.
-			repo.setIssues(tempIssueList);	//Involves setting of applicable labels to issues
-			repo.setIsInitialized(true);
-			loadContribThread.join();
-			loadMilestonesThread.join();
-		} catch (InterruptedException e) {
+		} catch(TimeoutException e){
+			logger.log(Level.SEVERE, "Timed out loading {0} after {1,number,#}ms.", new Object[] {repoName, Constants.LOAD_TIMEOUT});
+			throw new RequestException();
+		} catch(CancellationException e){	//The command loading repo was cancelled.
+			logger.log(Level.INFO, "Cancelled loading {0}.", repoName);
+			throw new RequestException();
+		} catch(ExecutionException e){	//A loader's request failed, so the others were cancelled.
+			logger.log(Level.SEVERE, "Failed to load {0}: {1}", new Object[] {repoName, e.getCause()});
+			throw new RequestException();
+		} catch(InterruptedException e){
 			Thread.currentThread().interrupt();
+			throw new RequestException();
 		} catch(JSONException e){	//repo has no issue here.
 			logger.log(Level.SEVERE, "Failed to parse JSON object(s)");
 			throw e;
 		} catch(IOException e){	//repo has no issue here.
-			logger.log(Level.SEVERE, "Failed to execute request for issues of {0}.", repoName);
+			if(scope.isTimedOut()){
+				logger.log(Level.SEVERE, "Timed out loading {0} after {1,number,#}ms.", new Object[] {repoName, Constants.LOAD_TIMEOUT});
+			} else if(scope.isCancelled()){
+				logger.log(Level.INFO, "Cancelled loading {0}.", repoName);
+			} else{
+				logger.log(Level.SEVERE, "Failed to execute request for issues of {0}.", repoName);
+			}
 			throw new RequestException();
+		} finally{
+			scope.close();	//Cancels the loaders if the issues could not be loaded.
+			span.end();
 		}
 	}
 	
 	/**
-	 * Completes the update of the given issue.
+	 * Completes the update of the given issue with every page of its comments.
 	 * @param issue The issue to fetch comments for.
 	 * @throws FailedRequestException If the request fails.
-	 * @throws RequestException If an error occurred when sending the request.
+	 * @throws RequestException If an error occurred when sending the request, or the load is cancelled.
 	 * @throws MissingMessageException If the JSON contents are missing from the response.
 	 * @throws JSONException If an error occurred when parsing the response JSON object.
 	 */
@@ -260,21 +317,25 @@ public class Model {
 		assert issue!=null;
 		Repository repo = issue.getRepository();
 		String url = Constants.API_URL+String.format(Constants.EXT_COMMENTS, repo.getOwner(), repo.getName(), issue.getNumber());
+		Tracer.Span span = Tracer.start(SPAN_UPDATEISSUE).setArg(ARG_REPO, repo.getFullName()).setArg(ARG_ISSUE, issue.getNumber());
+		TaskScope scope = TaskScope.open(Constants.LOAD_TIMEOUT);
 		try{
-			CloseableHttpResponse response = Util.sendGetRequest(url, authCode);
-			if(!response.getStatusLine().toString().equals(Constants.RESPONSE_OK)){
-				logger.log(Level.WARNING, "Failed to get comments.");
-				response.close();
-				throw new FailedRequestException();
-			}
-			HttpEntity messageBody = response.getEntity();
-			if(messageBody==null){
-				logger.log(Level.WARNING, "Request successful. Response message missing.");
-				response.close();
-				throw new MissingMessageException();
+			//Gets every page, so that the number of comments set below matches the number GitHub reports.
+			final JSONArray commentArray = new JSONArray();
+			forEachCachedPage(url, new PageHandler(){
+				@Override
+				public void handle(JSONArray page) throws JSONException{
+					for(int i=0; i<page.length(); i++){
+						commentArray.put(page.get(i));
+					}
+				}
+			});
+			if(scope.isCancelled()){	//Stopped between pages, so the comments are incomplete.
+				throw new RequestException();
 			}
-			JSONArray commentArray = new JSONArray(Util.getJSONString(messageBody.getContent()));
-			issue.setComments(commentArray);
+			Object decodeEvent = Events.beginDecode();
+			issue.setComments(commentArray, stringPool);
+			Events.commitDecode(decodeEvent, EVENT_COMMENTS, commentArray.length());
 			issue.setIsInitialized(true);
 		} catch(JSONException e){
 			logger.log(Level.SEVERE, "Failed to parse JSON object(s)");
@@ -282,9 +343,215 @@ public class Model {
 		} catch(IOException e){
 			logger.log(Level.SEVERE, "Failed to execute request for comments.");
 			throw new RequestException();
+		} finally{
+			scope.close();
+			span.end();
 		}
 	}
 	
+	/**
+	 * Gets the open issues across all repositories that match the given filter, such as those assigned to the user,
+	 * from GitHub's /issues endpoint 1 page at a time, grouped by repository. Repositories in the user's list are
+	 * not loaded, and the issues are not added to them, so the view stays separate from the selected repository.
+	 * @param filter assigned, created or all, as GitHub defines them. Cannot be null.
+	 * @return The issues grouped by repository, in the order that GitHub lists them.
+	 * @throws FailedRequestException If a request fails.
+	 * @throws MissingMessageException If the message is missing in a response.
+	 * @throws JSONException If an error occurs when parsing a response.
+	 * @throws RequestException If an error occurs when sending a request or the command is cancelled.
+	 */
+	public LinkedHashMap<Repository, ArrayList<Issue>> getMyIssues(String filter) throws FailedRequestException,
+			MissingMessageException, JSONException, RequestException{
+		assert filter!=null;
+		final LinkedHashMap<Repository, ArrayList<Issue>> groups = new LinkedHashMap<Repository, ArrayList<Issue>>();
+		final HashMap<String, Repository> otherRepos = new HashMap<String, Repository>();	//Not in the user's list.
+		String url = Constants.API_URL+Constants.EXT_MYISSUES+String.format(Constants.QUERY_MYISSUES, filter);
+		TaskScope scope = TaskScope.open();	//Ends with the command, which may be cancelled.
+		try{
+			forEachPage(url, new PageHandler(){
+				@Override
+				public void handle(JSONArray page) throws JSONException{
+					Object decodeEvent = Events.beginDecode();
+					JSONObject obj, repoObj;
+					for(int i=0; i<page.length(); i++){
+						obj = page.getJSONObject(i);
+						repoObj = obj.getJSONObject(Constants.KEY_REPOSITORY);
+						String fullName = repoObj.getString(Constants.KEY_FULLNAME);
+						Repository repo;
+						if(indexList.containsKey(fullName)){
+							repo = repoList.get(indexList.get(fullName)-1);
+						} else if((repo = otherRepos.get(fullName))==null){
+							otherRepos.put(fullName, repo = Repository.makeInstance(repoObj));
+						}
+						ArrayList<Issue> issues = groups.get(repo);
+						if(issues==null){
+							groups.put(repo, issues = new ArrayList<Issue>());
+						}
+						issues.add(Issue.makeInstance(obj, repo, stringPool));
+					}
+					Events.commitDecode(decodeEvent, EVENT_ISSUES, page.length());
+				}
+			});
+		} catch(JSONException e){
+			logger.log(Level.SEVERE, "Failed to parse JSON object(s)");
+			throw e;
+		} catch(IOException e){
+			if(scope.isCancelled()){
+				logger.log(Level.INFO, "Cancelled getting issues for filter {0}.", filter);
+			} else{
+				logger.log(Level.SEVERE, "Failed to execute request for issues for filter {0}.", filter);
+			}
+			throw new RequestException();
+		} finally{
+			scope.close();
+		}
+		if(scope.isCancelled()){	//Cancelled between requests.
+			throw new RequestException();
+		}
+		return groups;
+	}
+	
+	/**
+	 * Writes all issues of the given repository and their comments to the given exporter as they are received,
+	 * 1 page at a time, so that memory use does not grow with the size of the repository.
+	 * The repository is not loaded, and none of the issues or comments are kept.
+	 * @param repoName The full name of the repository to export. Cannot be null or empty.
+	 * @param exporter The exporter to write the issues and comments to. Cannot be null.
+	 * @throws FailedRequestException If a request fails.
+	 * @throws MissingMessageException If the message is missing in a response.
+	 * @throws JSONException If an error occurs when parsing a response.
+	 * @throws RequestException If an error occurs when sending a request or the export is cancelled.
+	 * @throws IOException If an error occurs while writing to the exporter.
+	 */
+	public void exportIssues(String repoName, final IssueExporter exporter) throws FailedRequestException,
+			MissingMessageException, JSONException, RequestException, IOException{
+		assert repoName!=null && !repoName.isEmpty() && exporter!=null;
+		if(!indexList.containsKey(repoName)){
+			logger.log(Level.SEVERE, "Repository {0} not found.", repoName);
+			throw new RequestException();
+		}
+		final Repository repo = repoList.get(indexList.get(repoName)-1);
+		Tracer.Span span = Tracer.start(SPAN_EXPORT).setArg(ARG_REPO, repoName);
+		TaskScope scope = TaskScope.open();	//Ends with the command, which may be cancelled.
+		String url = Constants.API_URL+String.format(Constants.EXT_REPOISSUES, repo.getOwner(), repo.getName())+
+				Constants.QUERY_ALLISSUES;
+		try{
+			forEachPage(url, new PageHandler(){
+				@Override
+				public void handle(JSONArray page) throws FailedRequestException, MissingMessageException,
+						JSONException, IOException{
+					JSONObject issue;
+					for(int i=0; i<page.length(); i++){
+						issue = page.getJSONObject(i);
+						exporter.writeIssue(issue);
+						if(issue.optInt(Constants.KEY_COMMENTS)>0){
+							final int number = issue.getInt(Constants.KEY_ISSUENUMBER);
+							String commentsURL = Constants.API_URL+String.format(Constants.EXT_COMMENTS,
+									repo.getOwner(), repo.getName(), number)+Constants.QUERY_MAXPAGESIZE;
+							forEachPage(commentsURL, new PageHandler(){
+								@Override
+								public void handle(JSONArray comments) throws JSONException, IOException{
+									for(int j=0; j<comments.length(); j++){
+										exporter.writeComment(number, comments.getJSONObject(j));
+									}
+								}
+							});
+						}
+					}
+				}
+			});
+		} catch(JSONException e){
+			logger.log(Level.SEVERE, "Failed to parse JSON object(s)");
+			throw e;
+		} catch(IOException e){	//Either a request or a write failed.
+			if(scope.isCancelled()){	//The request in progress was aborted.
+				logger.log(Level.INFO, "Cancelled exporting {0}.", repoName);
+				throw new RequestException();
+			}
+			logger.log(Level.SEVERE, "Failed to export {0}: {1}", new Object[] {repoName, e});
+			throw e;
+		} finally{
+			scope.close();
+			span.end();
+		}
+		if(scope.isCancelled()){	//Cancelled between requests.
+			logger.log(Level.INFO, "Cancelled exporting {0}.", repoName);
+			throw new RequestException();
+		}
+	}
+
+	/**
+	 * Defines the callback that receives each page of a paginated list.
+	 */
+	interface PageHandler {
+		/**
+		 * Handles a page of the list.
+		 * @param page The JSON array of the page's items.
+		 */
+		void handle(JSONArray page) throws FailedRequestException, MissingMessageException, JSONException, IOException;
+	}
+
+	/**
+	 * Gets the paginated list at the given URL 1 page at a time through ResponseCache, and passes each page to the
+	 * given handler before getting the next. Pages are requested by number with the largest page size until one is
+	 * not full, as cached responses do not keep the Link header. Stops early if the current scope is cancelled.
+	 * @param url The URL of the list, without a query. Cannot be null.
+	 * @param handler The handler of each page. Cannot be null.
+	 * @throws FailedRequestException If a request fails.
+	 * @throws MissingMessageException If the message is missing in a response.
+	 * @throws JSONException If a page is not a JSON array or the handler fails to parse it.
+	 * @throws IOException If an error occurs during a request or in the handler.
+	 */
+	void forEachCachedPage(String url, PageHandler handler) throws FailedRequestException, MissingMessageException,
+			JSONException, IOException{
+		assert url!=null && handler!=null;
+		TaskScope scope = TaskScope.current();
+		JSONArray page;
+		int pageNumber = 1;
+		do{
+			page = ResponseCache.getInstance().getJSONArray(url+String.format(Constants.QUERY_PAGE, pageNumber++), authCode);
+			handler.handle(page);
+		} while(page.length()==Constants.MAX_PAGESIZE && (scope==null || !scope.isCancelled()));
+	}
+
+	/**
+	 * Gets the paginated list starting at the given URL 1 page at a time, following the Link header of each page,
+	 * and passes each page to the given handler before getting the next. Responses are not cached, as the list is
+	 * only read once. Stops early if the current scope is cancelled.
+	 * @param url The URL of the first page. Cannot be null.
+	 * @param handler The handler of each page. Cannot be null.
+	 * @throws FailedRequestException If a request fails.
+	 * @throws MissingMessageException If the message is missing in a response.
+	 * @throws JSONException If a page is not a JSON array or the handler fails to parse it.
+	 * @throws IOException If an error occurs during a request or in the handler.
+	 */
+	void forEachPage(String url, PageHandler handler) throws FailedRequestException, MissingMessageException,
+			JSONException, IOException{
+		assert url!=null && handler!=null;
+		TaskScope scope = TaskScope.current();
+		while(url!=null && (scope==null || !scope.isCancelled())){
+			JSONArray page;
+			CloseableHttpResponse response = Util.sendGetRequest(url, authCode);
+			try{
+				if(!response.getStatusLine().toString().equals(Constants.RESPONSE_OK)){
+					logger.log(Level.WARNING, "Request to {0} failed.\nResponse: {1}",
+							new Object[] {Util.getEndpoint("GET", url), response.getStatusLine().toString()});
+					throw new FailedRequestException();
+				}
+				HttpEntity messageBody = response.getEntity();
+				if(messageBody==null){
+					logger.log(Level.WARNING, "Request successful. Response message missing.");
+					throw new MissingMessageException();
+				}
+				page = Util.parseJSONArray(messageBody.getContent());
+				url = Util.getNextPageURL(response);
+			} finally{
+				response.close();
+			}
+			handler.handle(page);
+		}
+	}
+
 	/**
 	 * Notifies observers on the application's status.
 	 */
@@ -307,7 +574,8 @@ public class Model {
 	}
 	
 	/**
-	 * Gets the repository based on its index in the list. Updates with information from GitHub on first access.
+	 * Gets the repository based on its index in the list. Updates with information from GitHub on first access,
+	 * and again after it has been unloaded to keep loaded repositories within the memory budget.
 	 * @param index An integer between 1 and the number of repositories in the list.
 	 * @return The index-th Repository instance in the list or null if index is invalid.
 	 * @throws Exception If an error occurred while updating the repository.
@@ -318,11 +586,19 @@ public class Model {
 			return null;
 		}
 		Repository repo = repoList.get(index-1);
-		if(!repo.isInitialized()){
+		if(repo.isInitialized()){
+			Metrics.getInstance().increment(Metrics.COUNTER_REPOHIT);
+			repoCache.touch(repo);
+		} else{
+			Metrics.getInstance().increment(Metrics.COUNTER_REPOMISS);
+			Tracer.Span span = Tracer.start(SPAN_GETREPO).setArg(ARG_REPO, repo.getFullName());
 			try{
 				updateRepo(repo);
+				repoCache.update(repo);	//May unload other repositories.
 			} catch(Exception e){
 				throw new Exception(Constants.ERROR_UPDATEREPO);
+			} finally{
+				span.end();
 			}
 		}
 		notifyObservers(repo.getFullName(), null);
@@ -346,8 +622,8 @@ public class Model {
 	
 	/**
 	 * Gets the specified issue from the given repository.
-	 * @param issueName The name of the issue to be selected or the index of the issue in the repository,
-	 * 					starting from 1.
+	 * @param issueName The name of the issue to be selected, the index of the issue in the repository,
+	 * 					starting from 1, or the issue's GitHub number prefixed with #.
 	 * @param repoName The full name of the repository that contains the issue to be selected. Cannot be null or empty.
 	 * @return The issue with the given issue name from the given repository or null
 	 * 			if the repository and/or issue cannot be found. 
@@ -370,14 +646,22 @@ public class Model {
 		
 		Issue issue;
 		try{
-			issue = repo.getIssue(Integer.parseInt(issueName));
+			if(issueName.startsWith(Constants.ISSUE_NUMBERPREFIX)){	//Looks up by GitHub issue number, e.g. #12.
+				issue = repo.getIssueByNumber(Integer.parseInt(issueName.substring(Constants.ISSUE_NUMBERPREFIX.length())));
+			} else{
+				issue = repo.getIssue(Integer.parseInt(issueName));
+			}
 		} catch(NumberFormatException e){
 			issue = repo.getIssue(issueName);
 		}
 		if(issue!=null){
-			if(!issue.isInitialized()){
+			if(issue.isInitialized()){
+				Metrics.getInstance().increment(Metrics.COUNTER_ISSUEHIT);
+			} else{
+				Metrics.getInstance().increment(Metrics.COUNTER_ISSUEMISS);
 				try{
 					updateIssue(issue);	//Load required information from GitHub.
+					repoCache.update(repo);	//Counts the loaded comments.
 				} catch(Exception e){
 					throw new Exception(Constants.ERROR_UPDATEISSUE);
 				}
@@ -425,7 +709,29 @@ public class Model {
 			logger.log(Level.SEVERE, e.getMessage());
 			return null;
 		}
-		
+		Issue issue = postIssue(jsonIssue, repo);
+		synchronized(repo){
+			repo.addIssue(issue);
+			issue.setIsInitialized(true);
+		}
+		repoCache.update(repo);	//Counts the added issue.
+		notifyObservers(repoName, issue.getTitle());
+		return issue;
+	}
+	
+	/**
+	 * Creates the given issue on GitHub without adding it to the given repository or notifying observers,
+	 * so that it can be called from several threads at once.
+	 * @param jsonIssue The JSON representation of the issue to be created. Cannot be null.
+	 * @param repo The repository to create the issue in. Cannot be null.
+	 * @return The created issue.
+	 * @throws JSONException If an error occurs when parsing the JSON representation of the new issue.
+	 * @throws FailedRequestException If the request fails.
+	 * @throws MissingMessageException If the message is missing from the response.
+	 * @throws RequestException If an error occurred while sending the request.
+	 */
+	Issue postIssue(JSONObject jsonIssue, Repository repo) throws JSONException, FailedRequestException, MissingMessageException, RequestException {
+		assert jsonIssue!=null && repo!=null;
 		if(!jsonIssue.isNull(Constants.KEY_MILESTONE)){	//Sets the milestone field with milestone number.
 			int milestoneNumber = repo.getMilestoneNumber(jsonIssue.getString(Constants.KEY_MILESTONE));
 			if(milestoneNumber==-1){
@@ -451,13 +757,9 @@ public class Model {
 			}
 			
 			//Process the response.
-			JSONObject obj = new JSONObject(Util.getJSONString(messageBody.getContent()));
+			JSONObject obj = Util.parseJSONObject(messageBody.getContent());
 			response.close();
-			Issue issue = Issue.makeInstance(obj, repo);
-			repo.addIssue(issue);
-			issue.setIsInitialized(true);
-			notifyObservers(repoName, issue.getTitle());
-			return issue;
+			return Issue.makeInstance(obj, repo, stringPool);
 		} catch (JSONException e) {
 			logger.log(Level.WARNING, "Failed to parse created issue.");
 			throw e;
@@ -472,7 +774,8 @@ public class Model {
 	 * @param changes The JSON object representing the changes to be made.
 	 * @param repoName The name of the repository containing the issue to be edited.
 	 * @param issueName The name of the issue to be edited.
-	 * @return The edited issue. Returns the original issue if the request fails or the response message does not exist.
+	 * @return The edited issue. Returns the original issue if the request fails or the response message does not exist,
+	 * 			or if the edited issue has the same content hash as the original, in which case observers are not notified.
 	 * 			Returns null if the given issue and/or repository cannot be found.
 	 * @throws JSONException If an error occurs while parsing the JSON object in the response.
 	 * @throws RequestException If an error occurs while sending the request.
@@ -495,7 +798,42 @@ public class Model {
 			logger.log(Level.SEVERE, e.getMessage());
 			return null;
 		}
-		
+		Issue editedIssue = patchIssue(changes, repo, issue.getNumber());
+		if(editedIssue.getContentHash()==issue.getContentHash()){	//Nothing to replace or show again.
+			logger.log(Level.FINE, "Issue {0} is unchanged by the edit.", issue.getNumber());
+			return issue;
+		}
+		editedIssue.setIsInitialized(true);
+		repo.replaceIssue(issue.getTitle(), editedIssue);
+		repoCache.update(repo);	//Counts the edited issue.
+		notifyObservers(repoName, editedIssue.getTitle());
+		return editedIssue;
+	}
+	
+	/**
+	 * Measures the given repository again after it has grown without going through this class, such as by an import,
+	 * and unloads other repositories if the budget is exceeded.
+	 * @param repo The loaded repository that has grown. Cannot be null.
+	 */
+	void updateCachedSize(Repository repo){
+		assert repo!=null;
+		repoCache.update(repo);
+	}
+	
+	/**
+	 * Edits the issue with the given number on GitHub without updating the given repository or notifying observers,
+	 * so that it can be called from several threads at once.
+	 * @param changes The JSON object representing the changes to be made. Cannot be null.
+	 * @param repo The repository holding the issue. Cannot be null.
+	 * @param number The GitHub number of the issue to edit.
+	 * @return The edited issue.
+	 * @throws JSONException If an error occurs while parsing the JSON object in the response.
+	 * @throws RequestException If an error occurs while sending the request.
+	 * @throws FailedRequestException If the request fails
+	 * @throws MissingMessageException If the message containing the edited issue is missing from the response.
+	 */
+	Issue patchIssue(JSONObject changes, Repository repo, int number) throws JSONException, RequestException, FailedRequestException, MissingMessageException {
+		assert changes!=null && repo!=null;
 		if(!changes.isNull(Constants.KEY_MILESTONE)){	//Set the milestone field with the milestone number.
 			int milestoneNumber = repo.getMilestoneNumber(changes.getString(Constants.KEY_MILESTONE));
 			if(milestoneNumber==-1){
@@ -504,7 +842,7 @@ public class Model {
 			changes.put(Constants.KEY_MILESTONE, milestoneNumber);
 		}
 		
-		String url = Constants.API_URL+String.format(Constants.EXT_EDITISSUE, repo.getOwner(), repo.getName(), issue.getNumber());
+		String url = Constants.API_URL+String.format(Constants.EXT_EDITISSUE, repo.getOwner(), repo.getName(), number);
 		try {	//Sends the request
 			CloseableHttpResponse response = Util.sendPatchRequest(url, authCode, new StringEntity(changes.toString()));
 			if(!response.getStatusLine().toString().equals(Constants.RESPONSE_OK) || response.getEntity()==null){
@@ -520,13 +858,9 @@ public class Model {
 			}
 			
 			//Process the response.
-			JSONObject obj = new JSONObject(Util.getJSONString(messageBody.getContent()));
+			JSONObject obj = Util.parseJSONObject(messageBody.getContent());
 			response.close();
-			Issue editedIssue = Issue.makeInstance(obj, repo);
-			editedIssue.setIsInitialized(true);
-			repo.replaceIssue(issue.getTitle(), editedIssue);
-			notifyObservers(repoName, editedIssue.getTitle());
-			return editedIssue;
+			return Issue.makeInstance(obj, repo, stringPool);
 		} catch(JSONException e){
 			logger.log(Level.WARNING, "Failed to parse edited issue from JSON in response message. Check GitHub to confirm changes.");
 			throw e;
@@ -580,8 +914,9 @@ public class Model {
 			}
 			
 			//Process the response.
-			comment = new JSONObject(Util.getJSONString(messageBody.getContent()));
-			issue.addComment(comment);
+			comment = Util.parseJSONObject(messageBody.getContent());
+			issue.addComment(comment, stringPool);
+			repoCache.update(repo);	//Counts the added comment.
 			return issue;
 		}  catch (JSONException e) {
 			logger.log(Level.WARNING, "Failed to parse comment from JSON in response message. Check GitHub to confirm changes.");
@@ -0,0 +1,110 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import misc.Metrics;
+import misc.ResponseCache;
+import structure.Issue;
+import structure.Repository;
+
+/**
+ * Defines the record of loaded repositories and their estimated sizes, in order of last access.
+ * When their total size exceeds the budget, the least recently used repositories are unloaded, and they are loaded
+ * again from GitHub on their next access. Sizes are measured when a repository or its issue's comments are loaded,
+ * and again whenever issues or comments are added or edited.
+ * GitHub responses kept in ResponseCache's memory tier and the CommentStore's handles count against the same budget.
+ * The budget in bytes is set with the system property mygithubissuetracker.cachebudget and defaults to a quarter
+ * of the maximum heap size.
+ * @author ZiXian92
+ */
+public class RepositoryCache {
+	public static final String PROPERTY_BUDGET = "mygithubissuetracker.cachebudget";
+	public static final long DEFAULT_BUDGET = Runtime.getRuntime().maxMemory()/4;
+
+	//For logging
+	private static final Logger logger = Logger.getLogger("com.MyGitHubIssueTracker.model.RepositoryCache");
+
+	//Data members
+	private long budget, totalSize;
+	private LinkedHashMap<Repository, Long> sizes;	//Iterates from the least recently used repository.
+
+	/**
+	 * Creates a cache record with the budget given by the system property, or the default budget if it is not set.
+	 */
+	public RepositoryCache(){
+		this(Long.getLong(PROPERTY_BUDGET, DEFAULT_BUDGET));
+	}
+
+	/**
+	 * Creates a cache record with the given budget.
+	 * @param budget The number of bytes that loaded repositories may take up altogether.
+	 */
+	public RepositoryCache(long budget){
+		assert budget>0;
+		this.budget = budget;
+		totalSize = 0;
+		sizes = new LinkedHashMap<Repository, Long>(16, 0.75f, true);
+		logger.setUseParentHandlers(true);
+	}
+
+	/**
+	 * Marks the given repository as the most recently used one.
+	 * @param repo The repository that is accessed. Cannot be null.
+	 */
+	public synchronized void touch(Repository repo){
+		assert repo!=null;
+		sizes.get(repo);
+	}
+
+	/**
+	 * Measures the given loaded repository, marks it as the most recently used one, then unloads the least
+	 * recently used repositories until the total size is within the budget. The given repository is never unloaded.
+	 * @param repo The repository that has been loaded or has grown. Cannot be null.
+	 * @return The repositories unloaded to make room.
+	 */
+	public synchronized ArrayList<Repository> update(Repository repo){
+		assert repo!=null;
+		long size = repo.getEstimatedSize();
+		Long oldSize = sizes.put(repo, size);
+		totalSize += size-((oldSize==null)? 0: oldSize);
+		ArrayList<Repository> evicted = new ArrayList<Repository>();
+		Iterator<Map.Entry<Repository, Long>> itr = sizes.entrySet().iterator();
+		Map.Entry<Repository, Long> entry;
+		long available = budget-ResponseCache.getInstance().getMemorySize()-Issue.getEstimatedCommentStoreSize();
+		while(totalSize>available && itr.hasNext()){
+			entry = itr.next();
+			if(entry.getKey()==repo){
+				break;	//Only the given repository is left.
+			}
+			itr.remove();
+			totalSize -= entry.getValue();
+			entry.getKey().unload();
+			evicted.add(entry.getKey());
+			Metrics.getInstance().increment(Metrics.COUNTER_REPOEVICT);
+			logger.log(Level.INFO, "Unloaded {0} to free about {1,number,#} bytes.",
+					new Object[] {entry.getKey().getFullName(), entry.getValue()});
+		}
+		return evicted;
+	}
+
+	/**
+	 * Gets the estimated total size of the loaded repositories.
+	 * @return The total size in bytes as of the last measurement of each repository.
+	 */
+	synchronized long getTotalSize(){
+		return totalSize;
+	}
+
+	/**
+	 * Gets the number of loaded repositories.
+	 * @return The number of repositories tracked by this cache.
+	 */
+	synchronized int getNumRepositories(){
+		return sizes.size();
+	}
+}
@@ -0,0 +1,65 @@
+package model;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import structure.Issue;
+import structure.Repository;
+
+/**
+ * Defines the unit test for RepositoryCache class.
+ * @author ZiXian92
+ */
+public class RepositoryCacheTest {
+	private static Repository makeRepository(String name, int numIssues){
+		Repository repo = new Repository(name, "owner");
+		ArrayList<Issue> issues = new ArrayList<Issue>();
+		Issue issue;
+		for(int i=1; i<=numIssues; i++){
+			issue = new Issue("issue"+i, i, repo);
+			issue.setContent("body of issue "+i);
+			issues.add(issue);
+		}
+		repo.setIssues(issues);
+		repo.setIsInitialized(true);
+		return repo;
+	}
+
+	@Test
+	//The least recently used repository is unloaded first.
+	public void testEvictLeastRecentlyUsed(){
+		Repository first = makeRepository("first", 100);
+		Repository second = makeRepository("second", 100);
+		Repository third = makeRepository("third", 100);
+		RepositoryCache cache = new RepositoryCache(first.getEstimatedSize()*5/2);
+		assertTrue(cache.update(first).isEmpty());
+		assertTrue(cache.update(second).isEmpty());
+		cache.touch(first);
+		ArrayList<Repository> evicted = cache.update(third);
+		assertEquals(1, evicted.size());
+		assertSame(second, evicted.get(0));
+		assertFalse(second.isInitialized());
+		assertEquals(0, second.getNumIssues());
+		assertTrue(first.isInitialized());
+		assertEquals(100, first.getNumIssues());
+		assertEquals(2, cache.getNumRepositories());
+		assertEquals(first.getEstimatedSize()+third.getEstimatedSize(), cache.getTotalSize());
+	}
+
+	@Test
+	//A repository larger than the budget is kept, as it is the one being accessed.
+	public void testKeepAccessedRepository(){
+		Repository small = makeRepository("small", 10);
+		Repository large = makeRepository("large", 1000);
+		RepositoryCache cache = new RepositoryCache(large.getEstimatedSize()/2);
+		cache.update(small);
+		ArrayList<Repository> evicted = cache.update(large);
+		assertEquals(1, evicted.size());
+		assertSame(small, evicted.get(0));
+		assertTrue(large.isInitialized());
+		assertEquals(1, cache.getNumRepositories());
+	}
+}
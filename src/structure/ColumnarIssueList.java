@@ -0,0 +1,377 @@
+package structure;
+
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import misc.Constants;
+
+/**
+ * Defines a compact, column-oriented list of issues for repositories with very many issues.
+ * Numbers, statuses, assignees, milestones and labels are kept in primitive arrays, while titles and bodies
+ * are kept as UTF-8 bytes. An Issue instance is only created when an issue is first accessed, after which
+ * that instance is kept so that comments and other changes made to it are not lost.
+ * @author ZiXian92
+ */
+class ColumnarIssueList extends AbstractList<Issue> {
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	private static final int INITIAL_CAPACITY = 16;
+	private static final byte STATUS_OPEN = 0;
+	private static final byte STATUS_CLOSED = 1;
+	private static final int NONE = -1;
+	private static final int SIZE_DICTIONARYENTRY = 56;	//Approximate bytes of a dictionary slot and its index entry.
+
+	//Data members
+	private Repository repository;
+	private int size;
+	private int[] numbers, assigneeIds, milestoneIds, commentCounts;
+	private byte[] statuses;
+	private int[] labelOffsets, labelIds;
+	private int numLabelIds;
+	private int[] titleOffsets, bodyOffsets;
+	private byte[] titles, bodies;
+	private Issue[] views;	//Issues that have been accessed or added as objects, indexed by position.
+
+	//Dictionary of logins, milestone titles and label names shared by all issues in this list.
+	private ArrayList<String> dictionary;
+	private HashMap<String, Integer> dictionaryIds;
+
+	//Open-addressing table from title hash to position + 1. 0 marks an empty slot.
+	private int[] titleHashes, titlePositions;
+	private int numTitleEntries;
+
+	/**
+	 * Creates a columnar list holding the given issues.
+	 * Issues that already carry comments or are initialized are kept as they are.
+	 * @param issues The issues to store. Cannot be null.
+	 * @param repository The repository these issues belong to. Cannot be null.
+	 */
+	public ColumnarIssueList(List<Issue> issues, Repository repository){
+		assert issues!=null && repository!=null;
+		this.repository = repository;
+		int capacity = Math.max(INITIAL_CAPACITY, issues.size());
+		numbers = new int[capacity];
+		assigneeIds = new int[capacity];
+		milestoneIds = new int[capacity];
+		commentCounts = new int[capacity];
+		statuses = new byte[capacity];
+		labelOffsets = new int[capacity+1];
+		labelIds = new int[capacity];
+		titleOffsets = new int[capacity+1];
+		bodyOffsets = new int[capacity+1];
+		titles = new byte[capacity*32];
+		bodies = new byte[capacity*64];
+		views = new Issue[capacity];
+		dictionary = new ArrayList<String>();
+		dictionaryIds = new HashMap<String, Integer>();
+		titleHashes = new int[Integer.highestOneBit(capacity)*4];
+		titlePositions = new int[titleHashes.length];
+		for(Issue issue: issues){
+			addRow(issue);
+		}
+		trimToSize();
+	}
+
+	@Override
+	public int size(){
+		return size;
+	}
+
+	@Override
+	public Issue get(int index){
+		checkIndex(index);
+		if(views[index]==null){
+			views[index] = materialize(index);
+		}
+		return views[index];
+	}
+
+	@Override
+	public Issue set(int index, Issue issue){
+		assert issue!=null;
+		Issue old = get(index);
+		views[index] = issue;
+		if(!issue.getTitle().equals(old.getTitle())){
+			putTitle(issue.getTitle(), index);
+		}
+		return old;
+	}
+
+	@Override
+	public boolean add(Issue issue){
+		assert issue!=null;
+		append(issue);
+		views[size-1] = issue;
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Appends the given issue's fields to the columns. The issue itself is only kept if it is initialized or
+	 * carries comments, as those are not held in the columns.
+	 * @param issue The issue to append. Cannot be null.
+	 */
+	void addRow(Issue issue){
+		assert issue!=null;
+		append(issue);
+		if(issue.isInitialized() || !issue.getComments().isEmpty()){
+			views[size-1] = issue;
+		}
+		modCount++;
+	}
+
+	/**
+	 * Releases the slack left in the title and body blobs by shrinking them to their used length.
+	 */
+	void trimToSize(){
+		titles = Arrays.copyOf(titles, titleOffsets[size]);
+		bodies = Arrays.copyOf(bodies, bodyOffsets[size]);
+	}
+
+	/**
+	 * Estimates the heap memory held by the columns and the issues created from them.
+	 * @return The estimated size of this list in bytes.
+	 */
+	long getEstimatedSize(){
+		long numBytes = 4L*(numbers.length+assigneeIds.length+milestoneIds.length+commentCounts.length+labelOffsets.length+labelIds.length
+				+titleOffsets.length+bodyOffsets.length+titleHashes.length+titlePositions.length)
+				+statuses.length+titles.length+bodies.length+(long)Issue.SIZE_REFERENCE*views.length;
+		for(String value: dictionary){
+			numBytes += SIZE_DICTIONARYENTRY+Issue.SIZE_STRING+2L*value.length();
+		}
+		for(int i=0; i<size; i++){
+			if(views[i]!=null){
+				numBytes += views[i].getEstimatedSize();
+			}
+		}
+		return numBytes;
+	}
+
+	/**
+	 * Gets the position of the issue with the given title without creating Issue instances.
+	 * @param title The title to look up. Cannot be null.
+	 * @return The 0-based position of the issue with the given title, or -1 if there is none.
+	 */
+	public int indexOfTitle(String title){
+		assert title!=null;
+		int hash = title.hashCode();
+		int mask = titleHashes.length-1;
+		for(int slot = mix(hash)&mask; titlePositions[slot]!=0; slot = (slot+1)&mask){
+			int index = titlePositions[slot]-1;
+			if(titleHashes[slot]==hash && getTitle(index).equals(title)){
+				return index;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Formats the summarized form of the issue at the given position without creating an Issue instance.
+	 * @param index The 0-based position of the issue.
+	 * @param formatter The formatter to format the issue with. Cannot be null.
+	 * @return formatter, holding the same row as the issue's getCondensedString().
+	 */
+	public CondensedRowFormatter formatCondensed(int index, CondensedRowFormatter formatter){
+		checkIndex(index);
+		Issue issue = views[index];
+		if(issue!=null){
+			return formatter.format(issue.getStatus(), issue.getTitle(), issue.getMilestone(), issue.getAssignee());
+		}
+		return formatter.format(statuses[index]==STATUS_CLOSED? Constants.ISSUE_STATUSCLOSED: Constants.ISSUE_STATUSOPEN,
+				decode(titles, titleOffsets, index), lookup(milestoneIds[index]), lookup(assigneeIds[index]));
+	}
+
+	/**
+	 * Gets the title of the issue at the given position.
+	 * @param index The 0-based position of the issue.
+	 * @return The title of the issue.
+	 */
+	private String getTitle(int index){
+		return (views[index]==null)? decode(titles, titleOffsets, index): views[index].getTitle();
+	}
+
+	/**
+	 * Creates the Issue instance for the issue at the given position from the stored columns.
+	 * @param index The 0-based position of the issue.
+	 * @return The Issue represented by the columns at index.
+	 */
+	private Issue materialize(int index){
+		Issue issue = new Issue(decode(titles, titleOffsets, index), numbers[index], repository);
+		issue.setRawContent(Arrays.copyOfRange(bodies, bodyOffsets[index], bodyOffsets[index+1]));
+		issue.setAssignee(lookup(assigneeIds[index]));
+		issue.setMilestone(lookup(milestoneIds[index]));
+		issue.setStatus(statuses[index]==STATUS_CLOSED? Constants.ISSUE_STATUSCLOSED: Constants.ISSUE_STATUSOPEN);
+		issue.setNumComments(commentCounts[index]);
+		for(int i=labelOffsets[index]; i<labelOffsets[index+1]; i++){
+			issue.addLabel(dictionary.get(labelIds[i]));
+		}
+		issue.setApplicableLabels(repository.getLabels());
+		return issue;
+	}
+
+	/**
+	 * Appends the given issue's fields to the columns.
+	 * @param issue The issue to append.
+	 */
+	private void append(Issue issue){
+		ensureCapacity(size+1);
+		numbers[size] = issue.getNumber();
+		statuses[size] = Constants.ISSUE_STATUSCLOSED.equals(issue.getStatus())? STATUS_CLOSED: STATUS_OPEN;
+		assigneeIds[size] = idOf(issue.getAssignee());
+		milestoneIds[size] = idOf(issue.getMilestone());
+		commentCounts[size] = issue.getNumComments();
+		ArrayList<String> labels = issue.getLabels();
+		int numLabels = labels.size();
+		if(labelIds.length<numLabelIds+numLabels){
+			labelIds = Arrays.copyOf(labelIds, Math.max(labelIds.length*2, numLabelIds+numLabels));
+		}
+		for(int i=0; i<numLabels; i++){
+			labelIds[numLabelIds++] = idOf(labels.get(i));
+		}
+		labelOffsets[size+1] = numLabelIds;
+		titles = append(issue.getTitle().getBytes(UTF8), titles, titleOffsets, size);
+		bodies = append(issue.getRawContent(), bodies, bodyOffsets, size);
+		putTitle(issue.getTitle(), size);
+		size++;
+	}
+
+	/**
+	 * Appends the given UTF-8 bytes to the given blob.
+	 * @param bytes The bytes to append.
+	 * @param blob The blob to append to.
+	 * @param offsets The offsets into blob, where the value at index ends at offsets[index+1].
+	 * @param index The position being written.
+	 * @return The blob, which may have been reallocated.
+	 */
+	private byte[] append(byte[] bytes, byte[] blob, int[] offsets, int index){
+		int start = offsets[index];
+		if(blob.length<start+bytes.length){
+			blob = Arrays.copyOf(blob, Math.max(blob.length*2, start+bytes.length));
+		}
+		System.arraycopy(bytes, 0, blob, start, bytes.length);
+		offsets[index+1] = start+bytes.length;
+		return blob;
+	}
+
+	/**
+	 * Decodes the value at the given position in the given blob.
+	 * @param blob The blob holding the value.
+	 * @param offsets The offsets into blob.
+	 * @param index The position of the value.
+	 * @return The decoded string.
+	 */
+	private String decode(byte[] blob, int[] offsets, int index){
+		return new String(blob, offsets[index], offsets[index+1]-offsets[index], UTF8);
+	}
+
+	/**
+	 * Gets the dictionary ID of the given value, adding it to the dictionary if needed.
+	 * @param value The value to look up. Can be null.
+	 * @return The dictionary ID of value or NONE if value is null.
+	 */
+	private int idOf(String value){
+		if(value==null){
+			return NONE;
+		}
+		Integer id = dictionaryIds.get(value);
+		if(id==null){
+			id = dictionary.size();
+			dictionary.add(value);
+			dictionaryIds.put(value, id);
+		}
+		return id;
+	}
+
+	/**
+	 * Gets the value with the given dictionary ID.
+	 * @param id The dictionary ID.
+	 * @return The value with the given ID or null if id is NONE.
+	 */
+	private String lookup(int id){
+		return (id==NONE)? null: dictionary.get(id);
+	}
+
+	/**
+	 * Records that the issue at the given position has the given title.
+	 * Stale entries are left behind and skipped during lookup because the title at their position differs.
+	 * @param title The title of the issue.
+	 * @param index The 0-based position of the issue.
+	 */
+	private void putTitle(String title, int index){
+		if((numTitleEntries+1)*2>titleHashes.length){
+			rehashTitles();
+		}
+		int hash = title.hashCode();
+		int mask = titleHashes.length-1;
+		int slot = mix(hash)&mask;
+		while(titlePositions[slot]!=0){
+			slot = (slot+1)&mask;
+		}
+		titleHashes[slot] = hash;
+		titlePositions[slot] = index+1;
+		numTitleEntries++;
+	}
+
+	/**
+	 * Doubles the title table, dropping stale entries.
+	 */
+	private void rehashTitles(){
+		int[] oldHashes = titleHashes, oldPositions = titlePositions;
+		titleHashes = new int[oldHashes.length*2];
+		titlePositions = new int[titleHashes.length];
+		numTitleEntries = 0;
+		int mask = titleHashes.length-1;
+		for(int i=0; i<oldHashes.length; i++){
+			int index = oldPositions[i]-1;
+			if(index<0 || getTitle(index).hashCode()!=oldHashes[i]){
+				continue;
+			}
+			int slot = mix(oldHashes[i])&mask;
+			while(titlePositions[slot]!=0){
+				slot = (slot+1)&mask;
+			}
+			titleHashes[slot] = oldHashes[i];
+			titlePositions[slot] = index+1;
+			numTitleEntries++;
+		}
+	}
+
+	/**
+	 * Spreads the bits of the given hash so that similar titles do not cluster in the table.
+	 * @param hash The hash code to spread.
+	 * @return The spread hash code.
+	 */
+	private static int mix(int hash){
+		hash *= 0x9E3779B9;
+		return hash^(hash>>>16);
+	}
+
+	/**
+	 * Grows the per-issue columns to hold at least the given number of issues.
+	 * @param capacity The number of issues to hold.
+	 */
+	private void ensureCapacity(int capacity){
+		if(numbers.length>=capacity){
+			return;
+		}
+		int newCapacity = Math.max(numbers.length*2, capacity);
+		numbers = Arrays.copyOf(numbers, newCapacity);
+		assigneeIds = Arrays.copyOf(assigneeIds, newCapacity);
+		milestoneIds = Arrays.copyOf(milestoneIds, newCapacity);
+		commentCounts = Arrays.copyOf(commentCounts, newCapacity);
+		statuses = Arrays.copyOf(statuses, newCapacity);
+		labelOffsets = Arrays.copyOf(labelOffsets, newCapacity+1);
+		titleOffsets = Arrays.copyOf(titleOffsets, newCapacity+1);
+		bodyOffsets = Arrays.copyOf(bodyOffsets, newCapacity+1);
+		views = Arrays.copyOf(views, newCapacity);
+	}
+
+	private void checkIndex(int index){
+		if(index<0 || index>=size){
+			throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package structure;
+
+import java.util.Arrays;
+
+/**
+ * Defines an open-addressing hash table from GitHub comment IDs to the comments' handles in the CommentStore.
+ * Keys and values are kept in primitive arrays so that no boxing takes place, as there is an entry for every
+ * comment loaded in the session.
+ * @author ZiXian92
+ */
+class CommentHandleIndex {
+	private static final int INITIAL_CAPACITY = 16;
+	private static final long EMPTY = -1;	//Handles are never negative, so -1 marks an unused slot.
+
+	//Data members
+	private int[] ids;
+	private long[] handles;
+	private int size;
+
+	/**
+	 * Creates an empty index.
+	 */
+	public CommentHandleIndex(){
+		ids = new int[INITIAL_CAPACITY];
+		handles = new long[INITIAL_CAPACITY];
+		Arrays.fill(handles, EMPTY);
+		size = 0;
+	}
+
+	/**
+	 * Gets the handle of the comment with the given ID.
+	 * @param id The GitHub comment ID to look up.
+	 * @return The handle of the comment's body or -1 if the ID is not indexed.
+	 */
+	public long get(int id){
+		int mask = ids.length-1;
+		for(int slot = mix(id)&mask; handles[slot]!=EMPTY; slot = (slot+1)&mask){
+			if(ids[slot]==id){
+				return handles[slot];
+			}
+		}
+		return EMPTY;
+	}
+
+	/**
+	 * Maps the given comment ID to the given handle, replacing any existing mapping for the ID.
+	 * @param id The GitHub comment ID.
+	 * @param handle The handle of the comment's body. Cannot be negative.
+	 */
+	public void put(int id, long handle){
+		assert handle>=0;
+		if((size+1)*2>ids.length){
+			resize(ids.length*2);
+		}
+		int mask = ids.length-1;
+		int slot = mix(id)&mask;
+		while(handles[slot]!=EMPTY){
+			if(ids[slot]==id){
+				handles[slot] = handle;
+				return;
+			}
+			slot = (slot+1)&mask;
+		}
+		ids[slot] = id;
+		handles[slot] = handle;
+		size++;
+	}
+
+	/**
+	 * Gets the number of indexed comments.
+	 * @return The number of comment IDs in this index.
+	 */
+	public int size(){
+		return size;
+	}
+
+	/**
+	 * Estimates the heap memory held by this index.
+	 * @return The size of this index's arrays in bytes.
+	 */
+	public long getEstimatedSize(){
+		return 2L*Issue.SIZE_ARRAY+4L*ids.length+8L*handles.length;
+	}
+
+	private void resize(int capacity){
+		int[] oldIds = ids;
+		long[] oldHandles = handles;
+		ids = new int[capacity];
+		handles = new long[capacity];
+		Arrays.fill(handles, EMPTY);
+		size = 0;
+		for(int i=0; i<oldIds.length; i++){
+			if(oldHandles[i]!=EMPTY){
+				put(oldIds[i], oldHandles[i]);
+			}
+		}
+	}
+
+	/**
+	 * Spreads the bits of the given comment ID, as IDs of the same issue are often close together.
+	 * @param id The comment ID.
+	 * @return The spread hash of id.
+	 */
+	private static int mix(int id){
+		int hash = id*0x9E3779B9;
+		return hash^(hash>>>16);
+	}
+}
@@ -0,0 +1,32 @@
+package structure;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * JUnit test for CommentHandleIndex.
+ * @author ZiXian92
+ */
+public class CommentHandleIndexTest {
+
+	@Test
+	public void testPutAndGet() {
+		CommentHandleIndex index = new CommentHandleIndex();
+		assertEquals(-1, index.get(1));
+		long emptySize = index.getEstimatedSize();
+		for(int i=1; i<=1000; i++){
+			index.put(i*7, ((long)i<<32)|i);
+		}
+		assertEquals(1000, index.size());
+		assertEquals((1L<<32)|1, index.get(7));
+		assertEquals((1000L<<32)|1000, index.get(7000));
+		assertEquals(-1, index.get(8));
+		assertTrue(index.getEstimatedSize()>emptySize);
+
+		//Replaces existing mapping, including with handle 0.
+		index.put(7, 0);
+		assertEquals(0, index.get(7));
+		assertEquals(1000, index.size());
+	}
+}
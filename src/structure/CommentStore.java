@@ -0,0 +1,172 @@
+package structure;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Defines the append-only, memory-mapped file that holds the bodies of all comments loaded in this session.
+ * Each comment only keeps a handle into this file on the heap, and its body is decoded on access.
+ * The latest handle of each comment ID is remembered, and a comment stored again with the same body, such as when
+ * an issue's comments are loaded again after its repository is unloaded, gets that handle back instead of being
+ * appended again. The file therefore grows with the distinct comment bodies seen in the session, not with the
+ * number of times they are loaded. Space held by bodies that have since been edited is not reclaimed.
+ * The handles are kept in a primitive table on the heap, whose size counts against the memory budget.
+ * There is only 1 instance of CommentStore for the entire session.
+ * @author ZiXian92
+ */
+class CommentStore {
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	private static final int SEGMENT_SIZE = 16*1024*1024;
+	private static final int LENGTH_SIZE = 4;
+	private static final String FILE_PREFIX = "MyGitHubIssueTracker-comments";
+	private static final String FILE_SUFFIX = ".dat";
+
+	//For logging
+	private static final Logger logger = Logger.getLogger("com.MyGitHubIssueTracker.structure.CommentStore");
+
+	//The single instance of this class. Stays null if the backing file cannot be created.
+	private static CommentStore instance = null;
+	private static boolean isUnavailable = false;
+
+	//Data members
+	private FileChannel channel;
+	private ArrayList<MappedByteBuffer> segments;
+	private long mappedSize;	//Total number of bytes of the file mapped so far.
+	private CommentHandleIndex handles;	//The latest handle of each comment ID.
+
+	private CommentStore() throws IOException{
+		File file = File.createTempFile(FILE_PREFIX, FILE_SUFFIX);
+		file.deleteOnExit();
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		channel = raf.getChannel();
+		segments = new ArrayList<MappedByteBuffer>();
+		mappedSize = 0;
+		handles = new CommentHandleIndex();
+		logger.setUseParentHandlers(true);
+	}
+
+	/**
+	 * Gets the only instance of CommentStore, creating its backing file on first call.
+	 * @return The only instance of this class or null if the backing file cannot be created.
+	 */
+	public static synchronized CommentStore getInstance(){
+		if(instance==null && !isUnavailable){
+			try{
+				instance = new CommentStore();
+			} catch(IOException e){
+				logger.log(Level.WARNING, "Failed to create comment store. Comments will be kept in memory.");
+				isUnavailable = true;
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * Stores the given text as the body of the comment with the given ID. If the comment's body was stored before
+	 * and is unchanged, its handle is returned without appending the text again.
+	 * @param id The ID of the comment.
+	 * @param text The text to store. Cannot be null.
+	 * @return The handle to retrieve the text with or -1 if the text cannot be written.
+	 */
+	public synchronized long append(int id, String text){
+		assert text!=null;
+		byte[] bytes = text.getBytes(UTF8);
+		long handle = handles.get(id);
+		if(handle!=-1 && matches(handle, bytes)){
+			return handle;
+		}
+		long newHandle = append(bytes);
+		if(newHandle!=-1){
+			handles.put(id, newHandle);
+		}
+		return newHandle;
+	}
+
+	/**
+	 * Appends the given bytes to this store.
+	 * @return The handle to retrieve the text with or -1 if the bytes cannot be written.
+	 */
+	private long append(byte[] bytes){
+		int required = LENGTH_SIZE+bytes.length;
+		try{
+			if(segments.isEmpty() || segments.get(segments.size()-1).remaining()<required){
+				mapSegment(Math.max(SEGMENT_SIZE, required));
+			}
+		} catch(IOException e){
+			logger.log(Level.WARNING, "Failed to grow comment store.");
+			return -1;
+		}
+		int segmentIndex = segments.size()-1;
+		MappedByteBuffer segment = segments.get(segmentIndex);
+		int position = segment.position();
+		segment.putInt(bytes.length);
+		segment.put(bytes);
+		return ((long)segmentIndex<<32)|position;
+	}
+
+	/**
+	 * Gets the text stored under the given handle.
+	 * @param handle A handle returned by append().
+	 * @return The stored text.
+	 */
+	public synchronized String get(long handle){
+		assert handle>=0;
+		ByteBuffer segment = segments.get((int)(handle>>>32)).duplicate();
+		segment.position((int)handle);
+		byte[] bytes = new byte[segment.getInt()];
+		segment.get(bytes);
+		return new String(bytes, UTF8);
+	}
+
+	/**
+	 * Estimates the heap memory held by the handles of the stored comments, without creating the store.
+	 * @return The estimated size in bytes, or 0 if no comment has been stored.
+	 */
+	public static long getEstimatedSize(){
+		CommentStore store;
+		synchronized(CommentStore.class){
+			store = instance;
+		}
+		if(store==null){
+			return 0;
+		}
+		synchronized(store){
+			return store.handles.getEstimatedSize();
+		}
+	}
+
+	/**
+	 * Checks if the text stored under the given handle is the given bytes.
+	 */
+	private boolean matches(long handle, byte[] bytes){
+		ByteBuffer segment = segments.get((int)(handle>>>32)).duplicate();
+		segment.position((int)handle);
+		if(segment.getInt()!=bytes.length){
+			return false;
+		}
+		for(byte b: bytes){
+			if(segment.get()!=b){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Maps the next region of the backing file as a new segment.
+	 * @param size The size of the region to map.
+	 * @throws IOException If the region cannot be mapped.
+	 */
+	private void mapSegment(int size) throws IOException{
+		segments.add(channel.map(FileChannel.MapMode.READ_WRITE, mappedSize, size));
+		mappedSize += size;
+	}
+}
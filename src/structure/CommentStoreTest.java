@@ -0,0 +1,32 @@
+package structure;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * JUnit test for CommentStore.
+ * @author ZiXian92
+ */
+public class CommentStoreTest {
+
+	@Test
+	public void testReuseUnchangedComments(){
+		CommentStore store = CommentStore.getInstance();
+		if(store==null){	//The backing file cannot be created here.
+			return;
+		}
+		long handle = store.append(101, "First comment.");
+		assertEquals("First comment.", store.get(handle));
+		assertEquals(handle, store.append(101, "First comment."));
+		
+		long edited = store.append(101, "Edited comment.");
+		assertTrue(edited!=handle);
+		assertEquals("Edited comment.", store.get(edited));
+		assertEquals("First comment.", store.get(handle));
+		assertEquals(edited, store.append(101, "Edited comment."));
+		
+		long other = store.append(102, "Edited comment.");
+		assertEquals("Edited comment.", store.get(other));
+	}
+}
@@ -0,0 +1,116 @@
+package structure;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Defines the formatter that lays out the summarized form of issues into a reusable character buffer.
+ * Produces the same output as formatting with "%1$-6.6s\t%2$-30.30s\t%3$-12.12s\t%4$s", with long titles and
+ * milestones shortened with "...", but without parsing a format string or creating intermediate strings.
+ * Instances are not thread-safe.
+ * @author ZiXian92
+ */
+class CondensedRowFormatter {
+	private static final int STATUSLENGTH = 6;
+	private static final int TITLELENGTH = 30;
+	private static final int MILESTONELENGTH = 12;
+	private static final String ELLIPSIS = "...";
+	private static final char SEPARATOR = '\t';
+	private static final char PADDING = ' ';
+
+	//Data members
+	private char[] buffer;
+	private int length;
+
+	/**
+	 * Creates a new formatter.
+	 */
+	public CondensedRowFormatter(){
+		buffer = new char[64];
+		length = 0;
+	}
+
+	/**
+	 * Formats the summarized form of an issue with the given fields into this formatter's buffer.
+	 * @param status The status of the issue. Cannot be null.
+	 * @param title The title of the issue. Cannot be null.
+	 * @param milestone The milestone of the issue. Can be null.
+	 * @param assignee The assignee of the issue. Can be null.
+	 * @return This formatter.
+	 */
+	public CondensedRowFormatter format(String status, String title, String milestone, String assignee){
+		assert status!=null && title!=null;
+		if(milestone==null){
+			milestone = Issue.VAL_NOMILESTONE;
+		}
+		if(assignee==null){
+			assignee = Issue.VAL_NOASSIGNEE;
+		}
+		ensureCapacity(STATUSLENGTH+TITLELENGTH+MILESTONELENGTH+3+assignee.length());
+		length = 0;
+		putFixed(status, STATUSLENGTH, false);
+		buffer[length++] = SEPARATOR;
+		putFixed(title, TITLELENGTH, true);
+		buffer[length++] = SEPARATOR;
+		putFixed(milestone, MILESTONELENGTH, true);
+		buffer[length++] = SEPARATOR;
+		assignee.getChars(0, assignee.length(), buffer, length);
+		length += assignee.length();
+		return this;
+	}
+
+	/**
+	 * Writes the last formatted row to the given writer.
+	 * @param out The writer to write to. Cannot be null.
+	 * @throws IOException If an error occurs while writing.
+	 */
+	public void writeTo(Writer out) throws IOException{
+		out.write(buffer, 0, length);
+	}
+
+	/**
+	 * Appends the last formatted row to the given StringBuilder.
+	 * @param strBuilder The StringBuilder to append to. Cannot be null.
+	 * @return strBuilder.
+	 */
+	public StringBuilder appendTo(StringBuilder strBuilder){
+		return strBuilder.append(buffer, 0, length);
+	}
+
+	@Override
+	public String toString(){
+		return new String(buffer, 0, length);
+	}
+
+	/**
+	 * Puts the given value into the buffer, left-justified in a field of the given width.
+	 * Values longer than the field are cut to fit, ending with "..." if shorten is true.
+	 * @param value The value to put.
+	 * @param width The width of the field.
+	 * @param shorten Whether cut values should end with "...".
+	 */
+	private void putFixed(String value, int width, boolean shorten){
+		int numChars = value.length();
+		if(numChars>width){
+			if(shorten){
+				value.getChars(0, width-ELLIPSIS.length(), buffer, length);
+				ELLIPSIS.getChars(0, ELLIPSIS.length(), buffer, length+width-ELLIPSIS.length());
+			} else{
+				value.getChars(0, width, buffer, length);
+			}
+			length += width;
+			return;
+		}
+		value.getChars(0, numChars, buffer, length);
+		length += numChars;
+		for(int i=numChars; i<width; i++){
+			buffer[length++] = PADDING;
+		}
+	}
+
+	private void ensureCapacity(int capacity){
+		if(buffer.length<capacity){
+			buffer = new char[Math.max(buffer.length*2, capacity)];
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package structure;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+/**
+ * JUnit test for CondensedRowFormatter.
+ * @author ZiXian92
+ */
+public class CondensedRowFormatterTest {
+	private static final String FORMAT = "%1$-6.6s\t%2$-30.30s\t%3$-12.12s\t%4$s";
+
+	//Formats the row the way Issue used to, with String.format.
+	private String expected(String status, String title, String milestone, String assignee){
+		if(title.length()>30){
+			title = title.substring(0, 27)+"...";
+		}
+		milestone = (milestone==null)? "No milestone": milestone;
+		if(milestone.length()>12){
+			milestone = milestone.substring(0, 9)+"...";
+		}
+		return String.format(FORMAT, status, title, milestone, (assignee==null)? "No assignee": assignee);
+	}
+
+	@Test
+	//Tests boundary lengths around the title and milestone widths.
+	public void testMatchesStringFormat() {
+		CondensedRowFormatter formatter = new CondensedRowFormatter();
+		String[] titles = {"a", "exactly twenty-nine characters", "exactly thirty characters long",
+				"thirty-one characters long, yes", "a much longer title that goes well past the column width"};
+		String[] milestones = {null, "", "V0.9", "twelve chars", "thirteen char", "a very long milestone name"};
+		String[] assignees = {null, "ZiXian92", "someone-with-a-rather-long-login-name-that-is-longer-than-the-buffer"};
+		String[] statuses = {"open", "closed", "reopened"};
+		for(String status: statuses){
+			for(String title: titles){
+				for(String milestone: milestones){
+					for(String assignee: assignees){
+						assertEquals(expected(status, title, milestone, assignee),
+								formatter.format(status, title, milestone, assignee).toString());
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testWriteTo() throws IOException {
+		CondensedRowFormatter formatter = new CondensedRowFormatter();
+		StringWriter writer = new StringWriter();
+		formatter.format("open", "title", null, null).writeTo(writer);
+		assertEquals(expected("open", "title", null, null), writer.toString());
+		assertEquals(expected("open", "title", null, null), formatter.appendTo(new StringBuilder()).toString());
+	}
+}
@@ -1,5 +1,9 @@
 package structure;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 
 import org.json.JSONArray;
@@ -7,6 +11,7 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import misc.Constants;
+import misc.StringPool;
 import misc.Util;
 
 /**
@@ -27,21 +32,44 @@ public class Issue {
 	private static final String FIELD_COMMENTS = "Comments: ";
 	
 	//Represents absence of value.
-	private static final String VAL_NOASSIGNEE = "No assignee";
-	private static final String VAL_NOMILESTONE = "No milestone";
+	static final String VAL_NOASSIGNEE = "No assignee";
+	static final String VAL_NOMILESTONE = "No milestone";
 	
-	//Condensed string formatting
-	private static final String CONDENSEDFORM = "%1$-6.6s\t%2$-30.30s\t%3$-12.12s\t%4$s";
-	private static final int CONDENSEDTITLELENGTH = 30;
-	private static final int CONDENSEDMILESTONELENGTH = 12;
+	//Condensed string formatting, one reusable formatter per thread.
+	private static final ThreadLocal<CondensedRowFormatter> condensedFormatter = new ThreadLocal<CondensedRowFormatter>(){
+		@Override
+		protected CondensedRowFormatter initialValue(){
+			return new CondensedRowFormatter();
+		}
+	};
+	
+	//Bodies longer than this are kept as UTF-8 bytes and only decoded when needed.
+	private static final int LAZYCONTENTLENGTH = 256;
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	
+	//Approximate heap sizes in bytes, used to estimate the memory held by issues.
+	static final int SIZE_REFERENCE = 8;
+	static final int SIZE_ARRAY = 16;
+	static final int SIZE_STRING = 40;
+	private static final int SIZE_ISSUE = 120;	//The issue with its label and comment lists.
+	private static final int SIZE_COMMENT = 48;
+	
+	//FNV-1a parameters for content hashes.
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
 
 	//Data members
 	private String title, status, content, assignee, milestone;
+	private byte[] rawContent;	//Set instead of content for long bodies.
 	private int number;
 	private ArrayList<String> labels, applicableLabels;
 	private ArrayList<Comment> comments;
+	private int numComments;	//As reported by GitHub until the comments are loaded.
 	private boolean isInitialized;
 	private Repository repository;
+	private int version;	//Incremented on every change to what toString() shows.
+	private long contentHash;
+	private int hashedVersion = -1;	//The version that contentHash was computed at.
 	
 	/**
 	 * Defines each Issue's comment.
@@ -50,7 +78,8 @@ public class Issue {
 	class Comment{
 		//Data members
 		private int id;
-		private String author, message;
+		private String author, message;	//message is only set if the comment store is unavailable.
+		private long handle;	//Handle of the message in the comment store.
 		
 		/**
 		 * Creates a new comment instance for this issue.
@@ -61,8 +90,8 @@ public class Issue {
 		public Comment(String author, String message, int id){
 			assert author!=null && !author.isEmpty() && message!=null;
 			this.author = author;
-			this.message = message;
-			this.id = id;
+			this.id = id;	//Set first, as the comment store looks up earlier copies of the message by ID.
+			setContent(message);
 		}
 		
 		/**
@@ -78,7 +107,7 @@ public class Issue {
 		 * @return The contents of this comment.
 		 */
 		public String getContent(){
-			return message;
+			return (message==null)? CommentStore.getInstance().get(handle): message;
 		}
 		
 		/**
@@ -96,6 +125,7 @@ public class Issue {
 		public void setAuthor(String author){
 			assert author!=null && !author.isEmpty();
 			this.author = author;
+			version++;
 		}
 		
 		/**
@@ -104,7 +134,10 @@ public class Issue {
 		 */
 		public void setContent(String content){
 			assert content!=null;
-			this.message = content;
+			CommentStore store = CommentStore.getInstance();
+			handle = (store==null)? -1: store.append(id, content);
+			message = (handle==-1)? content: null;
+			version++;
 		}
 		
 		/**
@@ -118,7 +151,7 @@ public class Issue {
 		@Override
 		public String toString(){
 			StringBuilder strBuilder = new StringBuilder(author).append(LINE_DELIM);
-			strBuilder.append(message);
+			strBuilder.append(getContent());
 			return strBuilder.toString();
 		}
 	}
@@ -150,12 +183,14 @@ public class Issue {
 		this.title = issue.getTitle();
 		this.number = issue.getNumber();
 		this.status = issue.getStatus();
-		this.content = issue.getContent();
+		this.content = issue.content;
+		this.rawContent = issue.rawContent;
 		this.assignee = issue.getAssignee();
 		this.labels = new ArrayList<String>();
 		this.applicableLabels = new ArrayList<String>();
 		this.repository = issue.getRepository();
 		this.milestone = issue.getMilestone();
+		this.numComments = issue.getNumComments();
 		this.labels = issue.getLabels();
 		this.applicableLabels = issue.getApplicableLabels();
 	}
@@ -168,28 +203,51 @@ public class Issue {
 	 * @throws JSONException If an error occurs when parsing JSON data.
 	 */
 	public static Issue makeInstance(JSONObject obj, Repository repo) throws JSONException{
+		return makeInstance(obj, repo, null);
+	}
+	
+	/**
+	 * Creates an Issue instance from the given JSON object, sharing repeated values through the given pool.
+	 * @param obj The JSON object to be converted to an issue.
+	 * @param repo The repository this issue belongs to.
+	 * @param pool The pool to intern status, assignee, milestone and label names with. Null disables interning.
+	 * @return The issue represented by the given JSON object.
+	 * @throws JSONException If an error occurs when parsing JSON data.
+	 */
+	public static Issue makeInstance(JSONObject obj, Repository repo, StringPool pool) throws JSONException{
 		assert obj!=null && repo!=null;
 		Issue issue = new Issue(obj.getString(Constants.KEY_ISSUETITLE), obj.getInt(Constants.KEY_ISSUENUMBER), repo);
 		issue.setContent(obj.getString(Constants.KEY_CONTENT));
 		if(obj.isNull(Constants.KEY_ASSIGNEE)){
 			issue.setAssignee(null);
 		} else{
-			issue.setAssignee(obj.getJSONObject(Constants.KEY_ASSIGNEE).getString(Constants.KEY_USERLOGIN));
+			issue.setAssignee(intern(pool, obj.getJSONObject(Constants.KEY_ASSIGNEE).getString(Constants.KEY_USERLOGIN)));
 		}
 		JSONArray labelArray = obj.getJSONArray(Constants.KEY_LABELS);
 		int numLabels = labelArray.length();
 		String label;
 		for(int i=0; i<numLabels; i++){
 			label = labelArray.getJSONObject(i).getString(Constants.KEY_LABELNAME);
-			issue.addLabel(label);
+			issue.addLabel(intern(pool, label));
 		}
-		issue.setStatus(obj.getString(Constants.KEY_STATUS));
+		issue.setStatus(intern(pool, obj.getString(Constants.KEY_STATUS)));
 		if(!obj.isNull(Constants.KEY_MILESTONE)){
-			issue.setMilestone(obj.getJSONObject(Constants.KEY_MILESTONE).getString(Constants.KEY_MILESTONETITLE));
+			issue.setMilestone(intern(pool, obj.getJSONObject(Constants.KEY_MILESTONE).getString(Constants.KEY_MILESTONETITLE)));
 		}
+		issue.numComments = obj.optInt(Constants.KEY_COMMENTS);
 		return issue;
 	}
 	
+	/**
+	 * Gets the pooled instance of the given string.
+	 * @param pool The pool to look up. Null means no interning.
+	 * @param str The string to intern.
+	 * @return The pooled instance of str, or str itself if pool is null.
+	 */
+	private static String intern(StringPool pool, String str){
+		return (pool==null)? str: pool.intern(str);
+	}
+	
 	/**
 	 * Gets the title of this issue.
 	 * @return The title of this issue.
@@ -211,7 +269,99 @@ public class Issue {
 	 * @return The body content of this issue.
 	 */
 	public String getContent(){
-		return content;
+		return (rawContent==null)? content: new String(rawContent, UTF8);
+	}
+	
+	/**
+	 * Gets the UTF-8 encoding of the body content of this issue without decoding it if it is held as bytes.
+	 * @return The UTF-8 bytes of this issue's body content, which is empty if there is no content. Must not be modified.
+	 */
+	byte[] getRawContent(){
+		if(rawContent!=null){
+			return rawContent;
+		}
+		return (content==null)? new byte[0]: content.getBytes(UTF8);
+	}
+	
+	/**
+	 * Gets a hash of the fields of this issue that GitHub reports for the issue itself, which are its number, title,
+	 * status, body, assignee, milestone and labels. Comments and their count are loaded separately and left out.
+	 * An issue received again with the same hash is taken to be unchanged. The hash is computed on first use after
+	 * each change.
+	 * @return The content hash of this issue.
+	 */
+	public long getContentHash(){
+		if(hashedVersion!=version){
+			long hash = hash(FNV_OFFSET, number);
+			hash = hash(hash, title);
+			hash = hash(hash, status);
+			hash = hash(hash, getRawContent());	//Bodies may be held as a string or as UTF-8 bytes.
+			hash = hash(hash, assignee);
+			hash = hash(hash, milestone);
+			hash = hash(hash, labels.size());
+			for(String label: labels){
+				hash = hash(hash, label);
+			}
+			contentHash = hash;
+			hashedVersion = version;
+		}
+		return contentHash;
+	}
+	
+	private static long hash(long hash, int value){
+		for(int i=0; i<32; i+=8){
+			hash = (hash^((value>>>i)&0xff))*FNV_PRIME;
+		}
+		return hash;
+	}
+	
+	private static long hash(long hash, String str){
+		if(str==null){	//Hashed as length -1, so that it differs from an empty string.
+			return hash(hash, -1);
+		}
+		int length = str.length();
+		hash = hash(hash, length);
+		for(int i=0; i<length; i++){
+			hash = (hash^str.charAt(i))*FNV_PRIME;
+		}
+		return hash;
+	}
+	
+	private static long hash(long hash, byte[] bytes){
+		hash = hash(hash, bytes.length);
+		for(byte b: bytes){
+			hash = (hash^(b&0xff))*FNV_PRIME;
+		}
+		return hash;
+	}
+	
+	/**
+	 * Estimates the heap memory shared by all issues to find their comment messages in the CommentStore.
+	 * It is not part of any issue's or repository's estimated size.
+	 * @return The estimated size in bytes, or 0 if no comment message has been stored.
+	 */
+	public static long getEstimatedCommentStoreSize(){
+		return CommentStore.getEstimatedSize();
+	}
+	
+	/**
+	 * Estimates the heap memory held by this issue and its comments. Strings shared through a StringPool,
+	 * such as statuses and assignees, and comment messages kept in the CommentStore are not counted.
+	 * @return The estimated size of this issue in bytes.
+	 */
+	long getEstimatedSize(){
+		long size = SIZE_ISSUE+SIZE_STRING+2L*title.length()+SIZE_REFERENCE*labels.size();
+		if(rawContent!=null){
+			size += SIZE_ARRAY+rawContent.length;
+		} else if(content!=null){
+			size += SIZE_STRING+2L*content.length();
+		}
+		if(comments!=null){
+			for(Comment comment: comments){
+				size += SIZE_COMMENT+((comment.message==null)? 0: SIZE_STRING+2L*comment.message.length());
+			}
+		}
+		return size;
 	}
 	
 	/**
@@ -262,6 +412,33 @@ public class Issue {
 		return comments;
 	}
 	
+	/**
+	 * Gets the number of comments on this issue.
+	 * @return The number of comments loaded, or the number reported by GitHub if they have not been loaded.
+	 */
+	public int getNumComments(){
+		return numComments;
+	}
+	
+	/**
+	 * Sets the number of comments reported by GitHub, without counting it in the repository's statistics.
+	 * @param numComments The number of comments on this issue.
+	 */
+	void setNumComments(int numComments){
+		this.numComments = numComments;
+	}
+	
+	/**
+	 * Sets the number of comments and counts the change in the statistics of the repository holding this issue.
+	 */
+	private void updateNumComments(int numComments){
+		int delta = numComments-this.numComments;
+		this.numComments = numComments;
+		if(delta!=0 && repository!=null){
+			repository.updateNumComments(this, delta);
+		}
+	}
+	
 	/**
 	 * Gets the comment indexed at the given 1-based index.
 	 * @param index The 1-based index of the comment in this issue's comment list.
@@ -282,6 +459,14 @@ public class Issue {
 		return repository;
 	}
 	
+	/**
+	 * Gets the version of this issue, which changes whenever a field shown by toString() or render() changes.
+	 * @return The version of this issue.
+	 */
+	public int getVersion(){
+		return version;
+	}
+	
 	/**
 	 * Gets the milestone for this issue.
 	 * @return The name of the milestone for this issue.
@@ -297,6 +482,7 @@ public class Issue {
 	public void setTitle(String title){
 		assert title!=null && !title.isEmpty();
 		this.title = title;
+		version++;
 	}
 	
 	/**
@@ -307,7 +493,25 @@ public class Issue {
 		if(content==null){
 			content = "";
 		}
-		this.content = content;
+		if(content.length()>LAZYCONTENTLENGTH){
+			this.rawContent = content.getBytes(UTF8);
+			this.content = null;
+		} else{
+			this.rawContent = null;
+			this.content = content;
+		}
+		version++;
+	}
+	
+	/**
+	 * Sets the content of this issue from its UTF-8 encoding, without decoding it.
+	 * @param rawContent The UTF-8 bytes of the content of this issue. Cannot be null. Must not be modified afterwards.
+	 */
+	void setRawContent(byte[] rawContent){
+		assert rawContent!=null;
+		this.rawContent = rawContent;
+		this.content = null;
+		version++;
 	}
 	
 	/**
@@ -321,6 +525,7 @@ public class Issue {
 			assert !assignee.isEmpty();
 		}
 		this.assignee = assignee;
+		version++;
 	}
 	
 	/**
@@ -339,6 +544,7 @@ public class Issue {
 	public void addLabel(String label){
 		assert label!=null && !label.isEmpty();
 		labels.add(label);
+		version++;
 	}
 	
 	/**
@@ -348,6 +554,8 @@ public class Issue {
 	public void addComment(Comment comment){
 		assert comment!=null;
 		comments.add(comment);
+		updateNumComments(numComments+1);
+		version++;
 	}
 	
 	/**
@@ -356,11 +564,23 @@ public class Issue {
 	 * @throws JSONException If jsonComment does not contain required keys or values.
 	 */
 	public void addComment(JSONObject jsonComment) throws JSONException{
+		addComment(jsonComment, null);
+	}
+	
+	/**
+	 * Adds the given comment, sharing the author's login name through the given pool.
+	 * @param jsonComment The JSON representation of the comment as provided by GitHub API.
+	 * @param pool The pool to intern the author's login name with. Null disables interning.
+	 * @throws JSONException If jsonComment does not contain required keys or values.
+	 */
+	public void addComment(JSONObject jsonComment, StringPool pool) throws JSONException{
 		assert jsonComment!=null;
-		String author = jsonComment.getJSONObject(Constants.KEY_USER).getString(Constants.KEY_USERLOGIN);
+		String author = intern(pool, jsonComment.getJSONObject(Constants.KEY_USER).getString(Constants.KEY_USERLOGIN));
 		String message = jsonComment.getString(Constants.KEY_CONTENT);
 		int id = jsonComment.getInt(Constants.KEY_ID);
 		comments.add(new Comment(author, message, id));
+		updateNumComments(numComments+1);
+		version++;
 	}
 	
 	/**
@@ -369,6 +589,16 @@ public class Issue {
 	 * @throws JSONException If an error occurs while parsing jsonComments.
 	 */
 	public void setComments(JSONArray jsonComments) throws JSONException{
+		setComments(jsonComments, null);
+	}
+	
+	/**
+	 * Sets the comments for this issue, sharing the authors' login names through the given pool.
+	 * @param jsonComments The JSON array representation of the comments for this issue as provided by GitHub API.
+	 * @param pool The pool to intern the authors' login names with. Null disables interning.
+	 * @throws JSONException If an error occurs while parsing jsonComments.
+	 */
+	public void setComments(JSONArray jsonComments, StringPool pool) throws JSONException{
 		assert jsonComments!=null;
 		int numComments = jsonComments.length();
 		ArrayList<Comment> temp = new ArrayList<Comment>();
@@ -377,21 +607,25 @@ public class Issue {
 		JSONObject obj;
 		for(int i=0; i<numComments; i++){
 			obj = jsonComments.getJSONObject(i);
-			author = obj.getJSONObject(Constants.KEY_USER).getString(Constants.KEY_USERLOGIN);
+			author = intern(pool, obj.getJSONObject(Constants.KEY_USER).getString(Constants.KEY_USERLOGIN));
 			message = obj.getString(Constants.KEY_CONTENT);
 			id = obj.getInt(Constants.KEY_ID);
 			temp.add(new Comment(author, message, id));
 		}
 		comments = temp;
+		updateNumComments(temp.size());
+		version++;
 	}
 	
 	/**
-	 * Sets the comments for this issue.
+	 * Sets the comments for this issue, such as those carried over from an older copy of it.
+	 * The number of comments reported by GitHub is kept, as comments may have been added since the copy was loaded.
 	 * @param comments The comments for this issue. Cannot be null.
 	 */
 	public void setComments(ArrayList<Comment> comments){
 		assert comments!=null;
 		this.comments = comments;
+		version++;
 	}
 	
 	/**
@@ -401,6 +635,7 @@ public class Issue {
 	public void setStatus(String status){
 		assert status!=null && (status.equals(Constants.ISSUE_STATUSOPEN) || status.equals(Constants.ISSUE_STATUSCLOSED));
 		this.status = status;
+		version++;
 	}
 	
 	/**
@@ -428,24 +663,62 @@ public class Issue {
 			assert !milestone.isEmpty();
 		}
 		this.milestone = milestone;
+		version++;
 	}
 	
 	@Override
 	public String toString(){
-		StringBuilder strBuilder =  new StringBuilder(FIELD_TITLE);
-		strBuilder = strBuilder.append(title).append(LINE_DELIM);
-		strBuilder = strBuilder.append(FIELD_NUMBER).append(number).append(LINE_DELIM);
-		strBuilder = strBuilder.append(FIELD_MILESTONE).append(milestone==null? VAL_NOMILESTONE: milestone).append(LINE_DELIM);
-		strBuilder = strBuilder.append(FIELD_STATUS).append(status).append(SEPARATOR);
-		strBuilder = strBuilder.append(FIELD_ASSIGNEE).append(assignee==null? VAL_NOASSIGNEE: assignee).append(LINE_DELIM);
-		strBuilder = strBuilder.append(FIELD_LABELS).append(Util.convertToString(labels)).append(LINE_DELIM);
-		strBuilder = strBuilder.append(FIELD_CONTENT).append(content).append(LINE_DELIM);
-		strBuilder = strBuilder.append(FIELD_COMMENTS).append(LINE_DELIM);
+		StringWriter writer = new StringWriter();
+		try{
+			render(writer);
+		} catch(IOException e){
+			//Will not happen as StringWriter does not throw IOException.
+		}
+		return writer.toString();
+	}
+	
+	/**
+	 * Writes this issue and its comments to the given writer, in the same format as toString().
+	 * @param out The writer to write to. Cannot be null.
+	 * @throws IOException If an error occurs while writing.
+	 */
+	public void render(Writer out) throws IOException{
+		assert out!=null;
+		out.write(FIELD_TITLE);
+		out.write(title);
+		out.write(LINE_DELIM);
+		out.write(FIELD_NUMBER);
+		out.write(Integer.toString(number));
+		out.write(LINE_DELIM);
+		out.write(FIELD_MILESTONE);
+		out.write(milestone==null? VAL_NOMILESTONE: milestone);
+		out.write(LINE_DELIM);
+		out.write(FIELD_STATUS);
+		out.write(status);
+		out.write(SEPARATOR);
+		out.write(FIELD_ASSIGNEE);
+		out.write(assignee==null? VAL_NOASSIGNEE: assignee);
+		out.write(LINE_DELIM);
+		out.write(FIELD_LABELS);
+		out.write(Util.convertToString(labels));
+		out.write(LINE_DELIM);
+		out.write(FIELD_CONTENT);
+		out.write(String.valueOf(getContent()));
+		out.write(LINE_DELIM);
+		out.write(FIELD_COMMENTS);
+		out.write(LINE_DELIM);
 		int numComments = comments.size();
+		Comment comment;
 		for(int i=0; i<numComments; i++){
-			strBuilder = strBuilder.append(LINE_DELIM).append(i+1).append(". ").append(comments.get(i)).append(LINE_DELIM);
+			comment = comments.get(i);
+			out.write(LINE_DELIM);
+			out.write(Integer.toString(i+1));
+			out.write(". ");
+			out.write(comment.getAuthor());
+			out.write(LINE_DELIM);
+			out.write(comment.getContent());
+			out.write(LINE_DELIM);
 		}
-		return strBuilder.toString();
 	}
 	
 	/**
@@ -453,16 +726,7 @@ public class Issue {
 	 * @return A String summarizing this issue.
 	 */
 	public String getCondensedString(){
-		String title = this.title;
-		if(title.length()>CONDENSEDTITLELENGTH){
-			title = title.substring(0, CONDENSEDTITLELENGTH-3)+"...";
-		}
-		String milestone = this.milestone==null? VAL_NOMILESTONE: this.milestone;
-		if(milestone.length()>CONDENSEDMILESTONELENGTH){
-			milestone = milestone.substring(0, CONDENSEDMILESTONELENGTH-3)+"...";
-		}
-		String assignee = this.assignee==null? VAL_NOASSIGNEE: this.assignee;
-		return String.format(CONDENSEDFORM, status, title, milestone, assignee);
+		return condensedFormatter.get().format(status, title, milestone, assignee).toString();
 	}
 	
 	/**
@@ -473,7 +737,7 @@ public class Issue {
 	public JSONObject toJSONObject() throws JSONException {
 		JSONObject obj = new JSONObject();
 		obj.put(Constants.KEY_ISSUETITLE, title);
-		obj.put(Constants.KEY_CONTENT, content);
+		obj.put(Constants.KEY_CONTENT, getContent());
 		obj.put(Constants.KEY_STATUS, status);
 		if(assignee==null){
 			obj.put(Constants.KEY_ASSIGNEE, JSONObject.NULL);
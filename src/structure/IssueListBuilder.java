@@ -0,0 +1,86 @@
+package structure;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Defines the list of a repository's issues as they are loaded, 1 page at a time, before they replace the
+ * repository's issues through Repository.setIssues(IssueListBuilder).
+ * Issues are kept as objects until there are Repository.COLUMNAR_THRESHOLD of them. Those and every issue added
+ * after them are then only kept as rows of a ColumnarIssueList, so that a large repository never holds all of its
+ * issues as objects while it loads. The number index and statistics are built along the way, so that the rows do
+ * not have to be read back as objects either.
+ * @author ZiXian92
+ */
+public class IssueListBuilder {
+	//Data members
+	private Repository repository;
+	private ArrayList<Issue> issues;	//Null once the issues are kept as rows.
+	private ColumnarIssueList rows;
+	private IssueNumberIndex numberIndex;
+	private RepositoryStats stats;
+	private int size;
+
+	/**
+	 * Creates an empty list of issues for the given repository.
+	 * @param repository The repository the issues belong to. Cannot be null.
+	 */
+	public IssueListBuilder(Repository repository){
+		assert repository!=null;
+		this.repository = repository;
+		issues = new ArrayList<Issue>();
+		numberIndex = new IssueNumberIndex();
+		stats = new RepositoryStats();
+		size = 0;
+	}
+
+	/**
+	 * Adds the given issue to the end of the list.
+	 * @param issue The issue to add. Cannot be null.
+	 */
+	public void add(Issue issue){
+		assert issue!=null;
+		numberIndex.put(issue.getNumber(), ++size);
+		stats.add(issue);
+		if(rows!=null){
+			rows.addRow(issue);
+			return;
+		}
+		issues.add(issue);
+		if(size>=Repository.COLUMNAR_THRESHOLD){
+			rows = new ColumnarIssueList(issues, repository);
+			issues = null;
+		}
+	}
+
+	/**
+	 * Gets the number of issues added.
+	 * @return The number of issues in the list.
+	 */
+	public int size(){
+		return size;
+	}
+
+	Repository getRepository(){
+		return repository;
+	}
+
+	/**
+	 * Gets the issues added, as a ColumnarIssueList if there are at least Repository.COLUMNAR_THRESHOLD of them.
+	 */
+	List<Issue> getList(){
+		if(rows==null){
+			return issues;
+		}
+		rows.trimToSize();
+		return rows;
+	}
+
+	IssueNumberIndex getNumberIndex(){
+		return numberIndex;
+	}
+
+	RepositoryStats getStats(){
+		return stats;
+	}
+}
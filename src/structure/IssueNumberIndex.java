@@ -0,0 +1,130 @@
+package structure;
+
+import java.util.Arrays;
+
+/**
+ * Defines an open-addressing hash table from GitHub issue numbers to the issues' 1-based positions in a
+ * repository's issue list. Keys and values are kept in primitive arrays so that no boxing takes place.
+ * @author ZiXian92
+ */
+class IssueNumberIndex {
+	private static final int INITIAL_CAPACITY = 16;
+	private static final int EMPTY = 0;	//Positions start from 1, so 0 marks an unused slot.
+
+	//Data members
+	private int[] numbers, positions;
+	private int size;
+
+	/**
+	 * Creates an empty index.
+	 */
+	public IssueNumberIndex(){
+		numbers = new int[INITIAL_CAPACITY];
+		positions = new int[INITIAL_CAPACITY];
+		size = 0;
+	}
+
+	/**
+	 * Gets the position of the issue with the given number.
+	 * @param number The GitHub issue number to look up.
+	 * @return The 1-based position of the issue or -1 if the number is not indexed.
+	 */
+	public int get(int number){
+		int mask = numbers.length-1;
+		for(int slot = mix(number)&mask; positions[slot]!=EMPTY; slot = (slot+1)&mask){
+			if(numbers[slot]==number){
+				return positions[slot];
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Maps the given issue number to the given position, replacing any existing mapping for the number.
+	 * @param number The GitHub issue number.
+	 * @param position The 1-based position of the issue. Must be positive.
+	 */
+	public void put(int number, int position){
+		assert position>0;
+		if((size+1)*2>numbers.length){
+			resize(numbers.length*2);
+		}
+		int mask = numbers.length-1;
+		int slot = mix(number)&mask;
+		while(positions[slot]!=EMPTY){
+			if(numbers[slot]==number){
+				positions[slot] = position;
+				return;
+			}
+			slot = (slot+1)&mask;
+		}
+		numbers[slot] = number;
+		positions[slot] = position;
+		size++;
+	}
+
+	/**
+	 * Removes the mapping for the given issue number. Does nothing if the number is not indexed.
+	 * @param number The GitHub issue number to remove.
+	 */
+	public void remove(int number){
+		int mask = numbers.length-1;
+		int slot = mix(number)&mask;
+		while(positions[slot]!=EMPTY && numbers[slot]!=number){
+			slot = (slot+1)&mask;
+		}
+		if(positions[slot]==EMPTY){
+			return;
+		}
+		//Shifts later entries of the same probe run back so that lookups do not stop at the hole.
+		int hole = slot;
+		for(slot = (slot+1)&mask; positions[slot]!=EMPTY; slot = (slot+1)&mask){
+			int home = mix(numbers[slot])&mask;
+			if(((slot-home)&mask)>=((slot-hole)&mask)){
+				numbers[hole] = numbers[slot];
+				positions[hole] = positions[slot];
+				hole = slot;
+			}
+		}
+		positions[hole] = EMPTY;
+		size--;
+	}
+
+	/**
+	 * Removes all mappings.
+	 */
+	public void clear(){
+		Arrays.fill(positions, EMPTY);
+		size = 0;
+	}
+
+	/**
+	 * Gets the number of indexed issues.
+	 * @return The number of issue numbers in this index.
+	 */
+	public int size(){
+		return size;
+	}
+
+	private void resize(int capacity){
+		int[] oldNumbers = numbers, oldPositions = positions;
+		numbers = new int[capacity];
+		positions = new int[capacity];
+		size = 0;
+		for(int i=0; i<oldNumbers.length; i++){
+			if(oldPositions[i]!=EMPTY){
+				put(oldNumbers[i], oldPositions[i]);
+			}
+		}
+	}
+
+	/**
+	 * Spreads the bits of the given issue number, as consecutive numbers would otherwise fill consecutive slots.
+	 * @param number The issue number.
+	 * @return The spread hash of number.
+	 */
+	private static int mix(int number){
+		int hash = number*0x9E3779B9;
+		return hash^(hash>>>16);
+	}
+}
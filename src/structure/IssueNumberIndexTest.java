@@ -0,0 +1,50 @@
+package structure;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * JUnit test for IssueNumberIndex.
+ * @author ZiXian92
+ */
+public class IssueNumberIndexTest {
+
+	@Test
+	public void testPutAndGet() {
+		IssueNumberIndex index = new IssueNumberIndex();
+		assertEquals(-1, index.get(1));
+		for(int i=1; i<=1000; i++){
+			index.put(i*7, i);
+		}
+		assertEquals(1000, index.size());
+		assertEquals(1, index.get(7));
+		assertEquals(1000, index.get(7000));
+		assertEquals(-1, index.get(8));
+		
+		//Replaces existing mapping
+		index.put(7, 42);
+		assertEquals(42, index.get(7));
+		assertEquals(1000, index.size());
+	}
+
+	@Test
+	//Removing from the middle of a probe run should not hide the entries after it.
+	public void testRemove() {
+		IssueNumberIndex index = new IssueNumberIndex();
+		for(int i=1; i<=100; i++){
+			index.put(i, i);
+		}
+		for(int i=1; i<=100; i+=2){
+			index.remove(i);
+		}
+		index.remove(1000);
+		assertEquals(50, index.size());
+		for(int i=1; i<=100; i++){
+			assertEquals((i%2==0)? i: -1, index.get(i));
+		}
+		index.clear();
+		assertEquals(0, index.size());
+		assertEquals(-1, index.get(2));
+	}
+}
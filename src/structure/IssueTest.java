@@ -9,6 +9,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 
 import misc.Constants;
+import misc.StringPool;
 import misc.Util;
 
 import org.json.JSONArray;
@@ -64,4 +65,96 @@ public class IssueTest {
 		assertEquals("author1", comments.get(0).getAuthor());
 		assertEquals("New comment.", comments.get(0).getContent());
 	}
+	
+	@Test
+	public void testMakeInstanceWithPool() throws IOException, JSONException{
+		Repository repo = new Repository("testRepo", "noOwner");
+		File file = new File("testFiles/issue7");
+		String json = Util.getJSONString(new BufferedInputStream(new FileInputStream(file)));
+		StringPool pool = new StringPool();
+		Issue first = Issue.makeInstance(new JSONObject(json), repo, pool);
+		Issue second = Issue.makeInstance(new JSONObject(json), repo, pool);
+		assertTrue(first.getAssignee()==second.getAssignee());
+		assertTrue(first.getMilestone()==second.getMilestone());
+		assertTrue(first.getStatus()==second.getStatus());
+		assertTrue(first.getLabels().get(0)==second.getLabels().get(0));
+		assertEquals("ZiXian92", second.getAssignee());
+	}
+	
+	@Test
+	//Comment bodies are kept in the comment store and decoded on access.
+	public void testCommentContent() throws JSONException{
+		Repository repo = new Repository("testRepo", "noOwner");
+		Issue issue = new Issue("new issue", 7, repo);
+		JSONArray arr = new JSONArray();
+		arr.put(new JSONObject("{\"id\": 1, \"user\":{\"login\": \"author1\"}, \"body\": \"First \u00e9\u4e2d\"}"));
+		arr.put(new JSONObject("{\"id\": 2, \"user\":{\"login\": \"author2\"}, \"body\": \"\"}"));
+		issue.setComments(arr);
+		assertEquals("First \u00e9\u4e2d", issue.getComment(1).getContent());
+		assertEquals("", issue.getComment(2).getContent());
+		issue.getComment(2).setContent("Edited");
+		assertEquals("Edited", issue.getComment(2).getContent());
+		assertEquals("author2\nEdited", issue.getComment(2).toString());
+	}
+	
+	@Test
+	//Long bodies are kept encoded and should read back unchanged.
+	public void testLongContent() throws JSONException{
+		Repository repo = new Repository("testRepo", "noOwner");
+		Issue issue = new Issue("new issue", 7, repo);
+		StringBuilder strBuilder = new StringBuilder();
+		for(int i=0; i<100; i++){
+			strBuilder.append("line \u00e9 ").append(i).append("\n");
+		}
+		String content = strBuilder.toString();
+		issue.setContent(content);
+		assertEquals(content, issue.getContent());
+		assertEquals(content, new Issue(issue).getContent());
+		assertEquals(content, issue.toJSONObject().getString(Constants.KEY_CONTENT));
+		assertTrue(issue.toString().contains(content));
+	}
+	
+	@Test
+	public void testVersion() throws JSONException{
+		Repository repo = new Repository("testRepo", "noOwner");
+		Issue issue = new Issue("new issue", 7, repo);
+		int version = issue.getVersion();
+		issue.setStatus(Constants.ISSUE_STATUSCLOSED);
+		assertTrue(issue.getVersion()!=version);
+		version = issue.getVersion();
+		issue.addComment(new JSONObject("{\"id\": 3, \"user\":{\"login\": \"author1\"}, \"body\": \"New comment.\"}"));
+		assertTrue(issue.getVersion()!=version);
+		version = issue.getVersion();
+		issue.getComment(1).setContent("Edited comment.");
+		assertTrue(issue.getVersion()!=version);
+		version = issue.getVersion();
+		issue.toString();
+		issue.setIsInitialized(true);
+		assertEquals(version, issue.getVersion());
+	}
+	
+	@Test
+	public void testContentHash() throws IOException, JSONException{
+		Repository repo = new Repository("testRepo", "noOwner");
+		File file = new File("testFiles/issue7");
+		JSONObject issueObj = new JSONObject(Util.getJSONString(new BufferedInputStream(new FileInputStream(file))));
+		Issue issue = Issue.makeInstance(issueObj, repo);
+		long hash = issue.getContentHash();
+		assertEquals(hash, Issue.makeInstance(issueObj, repo, new StringPool()).getContentHash());
+		assertEquals(hash, new Issue(issue).getContentHash());
+		
+		Issue raw = Issue.makeInstance(issueObj, repo);	//Same body held as UTF-8 bytes.
+		raw.setRawContent(issue.getRawContent());
+		assertEquals(hash, raw.getContentHash());
+		
+		raw.setStatus(Constants.ISSUE_STATUSCLOSED);
+		assertTrue(raw.getContentHash()!=hash);
+		raw.setStatus(Constants.ISSUE_STATUSOPEN);
+		assertEquals(hash, raw.getContentHash());
+		raw.setAssignee(null);
+		assertTrue(raw.getContentHash()!=hash);
+		
+		issue.addComment(new JSONObject("{\"id\": 3, \"user\":{\"login\": \"author1\"}, \"body\": \"New comment.\"}"));
+		assertEquals(hash, issue.getContentHash());	//Comments are loaded separately from the issue.
+	}
 }
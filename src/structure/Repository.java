@@ -1,7 +1,11 @@
 package structure;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -12,6 +16,9 @@ import misc.Util;
 /**
  * Defines the data structure that represents a repository in GitHub.
  * It is up to the programmer to ensure that the information is consistent with that on GitHub.
+ * Changes and lookups of issues are synchronized, as a repository's details are loaded and its issues imported
+ * from several threads at once.
+ * A loaded repository can be unloaded to free its memory, after which it is loaded again like a new one.
  * @author ZiXian92
  */
 public class Repository {
@@ -25,13 +32,23 @@ public class Repository {
 	private static final String FIELD_LABELS = "Labels: ";
 	private static final String FIELD_MILESTONES = "Milestones: ";
 	
+	//Repositories with at least this many issues keep them in a ColumnarIssueList.
+	static final int COLUMNAR_THRESHOLD = 2000;
+	
+	//Approximate heap sizes in bytes, used to estimate the memory held by a repository.
+	private static final int SIZE_REPOSITORY = 200;	//The repository with its empty lists and indices.
+	private static final int SIZE_INDEXENTRY = 48;	//An entry of a HashMap, with its key and value.
+	
 	//Data members
 	private String name, owner, fullName;	//To be extracted by Model to update GitHub.
-	private ArrayList<Issue> issueList;
+	private List<Issue> issueList;
 	private ArrayList<String> assignees, labels, milestones;
 	private HashMap<String, Integer> indexList, milestonesTable;	//Used for lookup on milestone's number
+	private IssueNumberIndex numberIndex;	//Maps GitHub issue numbers to indices in issueList.
+	private RepositoryStats stats;	//Updated with every change to the issues.
 	private int numIssues;
 	private boolean isInitialized;
+	private int version;	//Incremented on every change to what toString() shows.
 	
 	/**
 	 * Creates a new repository instance.
@@ -46,6 +63,8 @@ public class Repository {
 		issueList = new ArrayList<Issue>();
 		assignees = new ArrayList<String>();
 		indexList = new HashMap<String, Integer>();
+		numberIndex = new IssueNumberIndex();
+		stats = new RepositoryStats();
 		milestonesTable = new HashMap<String, Integer>();
 		milestones = new ArrayList<String>();
 		labels = new ArrayList<String>();
@@ -104,6 +123,15 @@ public class Repository {
 		return arr;
 	}
 	
+	/**
+	 * Gets the version of this repository, which changes whenever its details or issue list change.
+	 * Changes made directly to a listed Issue do not count, so edited issues should be put back with replaceIssue().
+	 * @return The version of this repository.
+	 */
+	public int getVersion(){
+		return version;
+	}
+	
 	/**
 	 * Gets the list of labels in this repository.
 	 * @return An ArrayList of labels that are applicable to issues under it.
@@ -126,25 +154,57 @@ public class Repository {
 	 * @param index The index of the issue on this repository.
 	 * @return The index-th issue in this repository's issue list or null if the index is invalid.
 	 */
-	public Issue getIssue(int index){
+	public synchronized Issue getIssue(int index){
 		if(index<1 || index>numIssues){
 			return null;
 		}
 		return issueList.get(index-1);
 	}
 	
+	/**
+	 * Gets the number of issues in this repository.
+	 * @return The number of issues in this repository's issue list.
+	 */
+	public synchronized int getNumIssues(){
+		return numIssues;
+	}
+	
 	/**
 	 * Gets the issue with the given name in this repository.
 	 * @param issueName The name of the issue to get. Cannot be null or empty.
 	 * @return The issue with the given name in this repository. Returns null if the issue cannot be found or
 	 * 			if issueName is invalid.
 	 */
-	public Issue getIssue(String issueName){
-		if(issueName==null || issueName.isEmpty() || !indexList.containsKey(issueName)){
+	public synchronized Issue getIssue(String issueName){
+		if(issueName==null || issueName.isEmpty()){
 			return null;
 		}
-		int index = indexList.get(issueName);
-		return getIssue(index);
+		int index = indexOf(issueName);
+		return (index==-1)? null: getIssue(index);
+	}
+	
+	/**
+	 * Gets the issue with the given GitHub issue number in this repository.
+	 * @param number The issue's number on GitHub.
+	 * @return The issue with the given number or null if there is no such issue in this repository.
+	 */
+	public synchronized Issue getIssueByNumber(int number){
+		int index = numberIndex.get(number);
+		return (index==-1)? null: getIssue(index);
+	}
+	
+	/**
+	 * Gets the 1-based index of the issue with the given name.
+	 * @param issueName The name of the issue to look up. Cannot be null.
+	 * @return The index of the issue in this repository's issue list or -1 if the issue cannot be found.
+	 */
+	private int indexOf(String issueName){
+		if(issueList instanceof ColumnarIssueList){
+			int position = ((ColumnarIssueList)issueList).indexOfTitle(issueName);
+			return (position==-1)? -1: position+1;
+		}
+		Integer index = indexList.get(issueName);
+		return (index==null)? -1: index;
 	}
 	
 	/**
@@ -152,7 +212,7 @@ public class Repository {
 	 * @param milestone The milestone title to look up on. Cannot be null or empty string.
 	 * @return The milestone number for the given milestone or -1 if the milestone cannot be found.
 	 */
-	public int getMilestoneNumber(String milestone){
+	public synchronized int getMilestoneNumber(String milestone){
 		assert milestone!=null && !milestone.isEmpty();
 		if(milestonesTable.containsKey(milestone)){
 			return milestonesTable.get(milestone);
@@ -164,47 +224,57 @@ public class Repository {
 	 * Adds the given issue to this repository's issue list.
 	 * @param issue the issue to be added.
 	 */
-	public void addIssue(Issue issue){
+	public synchronized void addIssue(Issue issue){
 		assert issue!=null;
 		issueList.add(issue);
-		indexList.put(issue.getTitle(), ++numIssues);
+		numIssues++;
+		numberIndex.put(issue.getNumber(), numIssues);
+		if(!(issueList instanceof ColumnarIssueList)){
+			indexList.put(issue.getTitle(), numIssues);
+		}
 		issue.setApplicableLabels(labels);
+		stats.add(issue);
+		version++;
 	}
 	
 	/**
 	 * Adds the given assignee to the list of allowed assignees.
 	 * @param assignee The assignee to add. Cannot be null or empty string.
 	 */
-	public void addAssignee(String assignee){
+	public synchronized void addAssignee(String assignee){
 		assert assignee!=null && !assignee.isEmpty();
 		assignees.add(assignee);
+		version++;
 	}
 	
 	/**
 	 * Sets the assignees for this Repository.
 	 * @param assignees The list of assignees for this Repository.
 	 */
-	public void setAssignees(ArrayList<String> assignees){
+	public synchronized void setAssignees(ArrayList<String> assignees){
 		assert assignees!=null;
 		this.assignees = assignees;
+		version++;
 	}
 	
 	/**
 	 * Adds a new label to this repository.
 	 * @param label The new label to be added.
 	 */
-	public void addLabel(String label){
+	public synchronized void addLabel(String label){
 		assert label!=null && !label.isEmpty();
 		labels.add(label);
+		version++;
 	}
 	
 	/**
 	 * Sets the labels for this Repository.
 	 * @param labels The labels for this Repository.
 	 */
-	public void setLabels(ArrayList<String> labels){
+	public synchronized void setLabels(ArrayList<String> labels){
 		assert labels!=null;
 		this.labels = labels;
+		version++;
 	}
 	
 	/**
@@ -214,17 +284,25 @@ public class Repository {
 	 * @param issueName The name of the issue to be replaced. Cannot be null or empty string.
 	 * @param editedIssue The new issue to replace the target issue. Cannot be null.
 	 */
-	public void replaceIssue(String issueName, Issue editedIssue){
+	public synchronized void replaceIssue(String issueName, Issue editedIssue){
 		assert issueName!=null && !issueName.isEmpty() && editedIssue!=null;
-		if(indexList.containsKey(issueName)){
-			int index = indexList.get(issueName);
+		int index = indexOf(issueName);
+		if(index!=-1){
 			Issue issue = issueList.get(index-1);
 			editedIssue.setComments(issue.getComments());
 			issueList.set(index-1, editedIssue);
-			indexList.remove(issueName);
-			indexList.put(editedIssue.getTitle(), index);
+			stats.remove(issue);
+			stats.add(editedIssue);
+			if(editedIssue.getNumber()!=issue.getNumber()){
+				numberIndex.remove(issue.getNumber());
+				numberIndex.put(editedIssue.getNumber(), index);
+			}
+			if(!(issueList instanceof ColumnarIssueList)){
+				indexList.remove(issueName);
+				indexList.put(editedIssue.getTitle(), index);
+			}
 			editedIssue.setApplicableLabels(labels);
-			
+			version++;
 		}
 	}
 	
@@ -232,23 +310,44 @@ public class Repository {
 	 * Sets the owner of this repository. Does nothing if owner is null or an empty string.
 	 * @param owner The name of the owner of this repository.
 	 */
-	public void setOwner(String owner){
+	public synchronized void setOwner(String owner){
 		assert owner!=null && !owner.isEmpty();
 		this.owner = owner;
+		version++;
 	}
 	
 	/**
 	 * Sets the issues for this repository.
+	 * Large lists are stored in columnar form, in which case Issue instances are only created on access.
 	 * @param list The list of issues to replace this repository's issues.
 	 */
-	public void setIssues(ArrayList<Issue> list){
+	public synchronized void setIssues(ArrayList<Issue> list){
 		assert list!=null;
-		this.issueList = list;
-		numIssues = 0;
-		int size = list.size();
-		for(int i=0; i<size; i++){
-			indexList.put(list.get(i).getTitle(), ++numIssues);
-			list.get(i).setApplicableLabels(labels);
+		IssueListBuilder builder = new IssueListBuilder(this);
+		for(Issue issue: list){
+			builder.add(issue);
+		}
+		setIssues(builder);
+	}
+	
+	/**
+	 * Sets the issues for this repository to those loaded into the given list.
+	 * @param builder The issues loaded for this repository. Cannot be null.
+	 */
+	public synchronized void setIssues(IssueListBuilder builder){
+		assert builder!=null && builder.getRepository()==this;
+		indexList = new HashMap<String, Integer>();
+		numberIndex = builder.getNumberIndex();
+		numIssues = builder.size();
+		stats = builder.getStats();
+		issueList = builder.getList();
+		version++;
+		if(issueList instanceof ColumnarIssueList){	//Titles are indexed by the list itself.
+			return;
+		}
+		for(int i=0; i<numIssues; i++){
+			indexList.put(issueList.get(i).getTitle(), i+1);
+			issueList.get(i).setApplicableLabels(labels);
 		}
 	}
 	
@@ -265,37 +364,147 @@ public class Repository {
 	 * @param number The milestone's number.
 	 * @param milestone The name of the milestone. Cannot be null or empty string.
 	 */
-	public void addMilestone(int number, String milestone){
+	public synchronized void addMilestone(int number, String milestone){
 		assert milestone!=null && !milestone.isEmpty();
 		if(!milestonesTable.containsKey(milestone)){
 			milestonesTable.put(milestone, number);
 			milestones.add(milestone);
+			version++;
 		}
 	}
 	
+	/**
+	 * Gets the counts of this repository's issues per label, milestone and assignee, and of their comments.
+	 * @return A copy of the counts as of now, which does not change with this repository.
+	 */
+	public synchronized RepositoryStats getStats(){
+		return new RepositoryStats(stats);
+	}
+	
+	/**
+	 * Counts a change in the number of comments of the given issue, if it is one of this repository's issues.
+	 * @param issue The issue whose comments have been loaded or added. Cannot be null.
+	 * @param delta The change in the number of comments.
+	 */
+	synchronized void updateNumComments(Issue issue, int delta){
+		assert issue!=null;
+		if(getIssueByNumber(issue.getNumber())==issue){
+			stats.addComments(delta);
+		}
+	}
+	
+	/**
+	 * Estimates the heap memory held by this repository's issues, comments, labels, milestones and contributors.
+	 * @return The estimated size of this repository in bytes.
+	 */
+	public synchronized long getEstimatedSize(){
+		long size = SIZE_REPOSITORY;
+		if(issueList instanceof ColumnarIssueList){
+			size += ((ColumnarIssueList)issueList).getEstimatedSize();
+		} else{
+			for(Issue issue: issueList){
+				size += issue.getEstimatedSize()+Issue.SIZE_REFERENCE;
+			}
+		}
+		size += (long)SIZE_INDEXENTRY*(indexList.size()+numIssues+milestonesTable.size());
+		size += getEstimatedSize(assignees)+getEstimatedSize(labels)+getEstimatedSize(milestones);
+		return size;
+	}
+	
+	private static long getEstimatedSize(ArrayList<String> list){
+		long size = Issue.SIZE_ARRAY;
+		for(String str: list){
+			size += Issue.SIZE_REFERENCE+Issue.SIZE_STRING+2L*str.length();
+		}
+		return size;
+	}
+	
+	/**
+	 * Discards the issues, comments, labels, milestones and contributors of this repository, and marks it as
+	 * uninitialized so that they are loaded again on its next access.
+	 */
+	public synchronized void unload(){
+		issueList = new ArrayList<Issue>();
+		indexList = new HashMap<String, Integer>();
+		numberIndex.clear();
+		numIssues = 0;
+		stats = new RepositoryStats();
+		assignees = new ArrayList<String>();
+		labels = new ArrayList<String>();
+		milestones = new ArrayList<String>();
+		milestonesTable = new HashMap<String, Integer>();
+		isInitialized = false;
+		version++;
+	}
+	
 	@Override
-	public String toString(){
-		StringBuilder strBuilder = new StringBuilder(FIELD_NAME);
-		strBuilder = strBuilder.append(name).append(LINE_DELIM);
-		strBuilder = strBuilder.append(FIELD_OWNER).append(owner).append(LINE_DELIM);
-		strBuilder = strBuilder.append(FIELD_CONTRIBUTORS).append(LINE_DELIM);
+	public synchronized String toString(){
+		StringWriter writer = new StringWriter();
+		try{
+			render(writer, 0, issueList.size());
+		} catch(IOException e){
+			//Will not happen as StringWriter does not throw IOException.
+		}
+		return writer.toString();
+	}
+	
+	/**
+	 * Writes this repository's details and the given range of its issues to the given writer,
+	 * in the same format as toString(). Issues outside the range are not formatted at all.
+	 * @param out The writer to write to. Cannot be null.
+	 * @param start The 0-based position of the first issue to write.
+	 * @param count The maximum number of issues to write.
+	 * @throws IOException If an error occurs while writing.
+	 */
+	public synchronized void render(Writer out, int start, int count) throws IOException{
+		assert out!=null && start>=0 && count>=0;
+		out.write(FIELD_NAME);
+		out.write(name);
+		out.write(LINE_DELIM);
+		out.write(FIELD_OWNER);
+		out.write(owner);
+		out.write(LINE_DELIM);
+		out.write(FIELD_CONTRIBUTORS);
+		out.write(LINE_DELIM);
 		int numContributors = assignees.size();
 		for(int i=0; i<numContributors; i++){
-			strBuilder = strBuilder.append(assignees.get(i));
+			out.write(assignees.get(i));
 			if(i!=numContributors-1){
-				strBuilder = strBuilder.append(CONTRIBUTOR_SEPARATOR);
+				out.write(CONTRIBUTOR_SEPARATOR);
 			}
 		}
-		strBuilder = strBuilder.append(LINE_DELIM);
-		strBuilder = strBuilder.append(FIELD_MILESTONES).append(LINE_DELIM);
-		strBuilder = strBuilder.append(Util.convertToString(milestones)).append(LINE_DELIM);
-		strBuilder = strBuilder.append(FIELD_LABELS).append(LINE_DELIM);
-		strBuilder = strBuilder.append(Util.convertToString(labels)).append(LINE_DELIM);
-		strBuilder = strBuilder.append(FIELD_ISSUES).append(LINE_DELIM);
-		int numIssues = issueList.size();
-		for(int i=0; i<numIssues; i++){
-			strBuilder = strBuilder.append(i+1).append(". ").append(issueList.get(i).getCondensedString()).append(LINE_DELIM);
+		out.write(LINE_DELIM);
+		out.write(FIELD_MILESTONES);
+		out.write(LINE_DELIM);
+		out.write(Util.convertToString(milestones));
+		out.write(LINE_DELIM);
+		out.write(FIELD_LABELS);
+		out.write(LINE_DELIM);
+		out.write(Util.convertToString(labels));
+		out.write(LINE_DELIM);
+		out.write(FIELD_ISSUES);
+		out.write(LINE_DELIM);
+		int end = (int)Math.min((long)start+count, issueList.size());
+		CondensedRowFormatter formatter = new CondensedRowFormatter();
+		for(int i=start; i<end; i++){
+			out.write(Integer.toString(i+1));
+			out.write(". ");
+			formatCondensed(i, formatter).writeTo(out);
+			out.write(LINE_DELIM);
+		}
+	}
+	
+	/**
+	 * Formats the summarized form of the issue at the given position without creating it if it is stored in columns.
+	 * @param position The 0-based position of the issue in the issue list.
+	 * @param formatter The formatter to format the issue with.
+	 * @return formatter, holding the summarized form of the issue.
+	 */
+	private CondensedRowFormatter formatCondensed(int position, CondensedRowFormatter formatter){
+		if(issueList instanceof ColumnarIssueList){
+			return ((ColumnarIssueList)issueList).formatCondensed(position, formatter);
 		}
-		return strBuilder.toString();
+		Issue issue = issueList.get(position);
+		return formatter.format(issue.getStatus(), issue.getTitle(), issue.getMilestone(), issue.getAssignee());
 	}
 }
@@ -0,0 +1,196 @@
+package structure;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import misc.Constants;
+
+/**
+ * Defines the counts of a repository's open and closed issues per label, milestone and assignee, along with
+ * the total number of comments. The counts are kept up to date by Repository as issues are set, added and
+ * replaced and as comments are loaded or added, so reading them never scans the issues.
+ * @author ZiXian92
+ */
+public class RepositoryStats {
+	//For use in output formatting
+	private static final String LINE_DELIM = "\n";
+	private static final String FORMAT_TOTAL = "Issues: %1$d open, %2$d closed. Comments: %3$d";
+	private static final String FORMAT_ROW = "  %1$-32s %2$6d open %3$6d closed";
+	private static final String FIELD_LABELS = "By label:";
+	private static final String FIELD_MILESTONES = "By milestone:";
+	private static final String FIELD_ASSIGNEES = "By assignee:";
+
+	private static final int OPEN = 0, CLOSED = 1;
+
+	//Data members
+	private int numOpen, numClosed;
+	private long numComments;
+	private TreeMap<String, int[]> byLabel, byMilestone, byAssignee;	//Open and closed counts per value.
+
+	/**
+	 * Creates statistics with no issues.
+	 */
+	public RepositoryStats(){
+		byLabel = new TreeMap<String, int[]>();
+		byMilestone = new TreeMap<String, int[]>();
+		byAssignee = new TreeMap<String, int[]>();
+	}
+
+	/**
+	 * Creates a copy of the given statistics.
+	 * @param stats The statistics to copy. Cannot be null.
+	 */
+	public RepositoryStats(RepositoryStats stats){
+		assert stats!=null;
+		numOpen = stats.numOpen;
+		numClosed = stats.numClosed;
+		numComments = stats.numComments;
+		byLabel = copy(stats.byLabel);
+		byMilestone = copy(stats.byMilestone);
+		byAssignee = copy(stats.byAssignee);
+	}
+
+	/**
+	 * Counts the given issue and its comments.
+	 * @param issue The issue added to the repository. Cannot be null.
+	 */
+	void add(Issue issue){
+		update(issue, 1);
+	}
+
+	/**
+	 * Stops counting the given issue and its comments.
+	 * @param issue The issue removed from the repository. Cannot be null.
+	 */
+	void remove(Issue issue){
+		update(issue, -1);
+	}
+
+	/**
+	 * Adds the given number to the count of comments.
+	 * @param delta The change in the number of comments of an issue.
+	 */
+	void addComments(int delta){
+		numComments += delta;
+	}
+
+	/**
+	 * Gets the number of open issues.
+	 * @return The number of open issues.
+	 */
+	public int getNumOpen(){
+		return numOpen;
+	}
+
+	/**
+	 * Gets the number of closed issues.
+	 * @return The number of closed issues.
+	 */
+	public int getNumClosed(){
+		return numClosed;
+	}
+
+	/**
+	 * Gets the number of comments on all issues.
+	 * @return The number of comments as reported by GitHub, or as loaded for issues whose comments are loaded.
+	 */
+	public long getNumComments(){
+		return numComments;
+	}
+
+	/**
+	 * Gets the number of open or closed issues with the given label.
+	 * @param label The label to look up. Cannot be null.
+	 * @param isOpen true to count open issues and false to count closed issues.
+	 * @return The number of issues with the label and status.
+	 */
+	public int getLabelCount(String label, boolean isOpen){
+		return getCount(byLabel, label, isOpen);
+	}
+
+	/**
+	 * Gets the number of open or closed issues with the given milestone.
+	 * @param milestone The milestone to look up, or null for issues without a milestone.
+	 * @param isOpen true to count open issues and false to count closed issues.
+	 * @return The number of issues with the milestone and status.
+	 */
+	public int getMilestoneCount(String milestone, boolean isOpen){
+		return getCount(byMilestone, (milestone==null)? Issue.VAL_NOMILESTONE: milestone, isOpen);
+	}
+
+	/**
+	 * Gets the number of open or closed issues assigned to the given user.
+	 * @param assignee The assignee to look up, or null for unassigned issues.
+	 * @param isOpen true to count open issues and false to count closed issues.
+	 * @return The number of issues with the assignee and status.
+	 */
+	public int getAssigneeCount(String assignee, boolean isOpen){
+		return getCount(byAssignee, (assignee==null)? Issue.VAL_NOASSIGNEE: assignee, isOpen);
+	}
+
+	@Override
+	public String toString(){
+		StringBuilder strBuilder = new StringBuilder(String.format(FORMAT_TOTAL, numOpen, numClosed, numComments));
+		appendGroup(strBuilder, FIELD_LABELS, byLabel);
+		appendGroup(strBuilder, FIELD_MILESTONES, byMilestone);
+		appendGroup(strBuilder, FIELD_ASSIGNEES, byAssignee);
+		return strBuilder.toString();
+	}
+
+	private void update(Issue issue, int delta){
+		assert issue!=null;
+		int status = Constants.ISSUE_STATUSCLOSED.equals(issue.getStatus())? CLOSED: OPEN;
+		if(status==OPEN){
+			numOpen += delta;
+		} else{
+			numClosed += delta;
+		}
+		numComments += (long)delta*issue.getNumComments();
+		for(String label: issue.getLabels()){
+			increment(byLabel, label, status, delta);
+		}
+		String milestone = issue.getMilestone();
+		increment(byMilestone, (milestone==null)? Issue.VAL_NOMILESTONE: milestone, status, delta);
+		String assignee = issue.getAssignee();
+		increment(byAssignee, (assignee==null)? Issue.VAL_NOASSIGNEE: assignee, status, delta);
+	}
+
+	/**
+	 * Adds delta to the count of the given key and status, dropping the key once it has no issues.
+	 */
+	private static void increment(TreeMap<String, int[]> counts, String key, int status, int delta){
+		int[] count = counts.get(key);
+		if(count==null){
+			counts.put(key, count = new int[2]);
+		}
+		count[status] += delta;
+		if(count[OPEN]==0 && count[CLOSED]==0){
+			counts.remove(key);
+		}
+	}
+
+	private static int getCount(TreeMap<String, int[]> counts, String key, boolean isOpen){
+		assert key!=null;
+		int[] count = counts.get(key);
+		return (count==null)? 0: count[isOpen? OPEN: CLOSED];
+	}
+
+	private static void appendGroup(StringBuilder strBuilder, String field, TreeMap<String, int[]> counts){
+		if(counts.isEmpty()){
+			return;
+		}
+		strBuilder.append(LINE_DELIM).append(field);
+		for(Map.Entry<String, int[]> entry: counts.entrySet()){
+			strBuilder.append(LINE_DELIM).append(String.format(FORMAT_ROW, entry.getKey(),
+					entry.getValue()[OPEN], entry.getValue()[CLOSED]));
+		}
+	}
+
+	private static TreeMap<String, int[]> copy(TreeMap<String, int[]> counts){
+		TreeMap<String, int[]> copy = new TreeMap<String, int[]>();
+		for(Map.Entry<String, int[]> entry: counts.entrySet()){
+			copy.put(entry.getKey(), entry.getValue().clone());
+		}
+		return copy;
+	}
+}
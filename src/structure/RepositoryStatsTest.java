@@ -0,0 +1,96 @@
+package structure;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+/**
+ * JUnit test for RepositoryStats, as maintained by Repository.
+ * @author ZiXian92
+ */
+public class RepositoryStatsTest {
+	private static final String ISSUE = "{\"number\":%1$d,\"title\":\"issue%1$d\",\"body\":\"\",\"state\":\"%2$s\","+
+			"\"assignee\":%3$s,\"milestone\":%4$s,\"labels\":[{\"name\":\"bug\"}],\"comments\":%5$d}";
+	private static final String COMMENT = "{\"id\":%1$d,\"user\":{\"login\":\"bob\"},\"body\":\"comment\"}";
+
+	private static Issue makeIssue(Repository repo, int number, String state, String assignee, int numComments)
+			throws JSONException{
+		String jsonAssignee = (assignee==null)? "null": "{\"login\":\""+assignee+"\"}";
+		return Issue.makeInstance(new JSONObject(String.format(ISSUE, number, state, jsonAssignee,
+				"{\"title\":\"v1\"}", numComments)), repo);
+	}
+
+	@Test
+	public void testSetAndAddIssues() throws JSONException{
+		Repository repo = new Repository("repo", "owner");
+		ArrayList<Issue> issues = new ArrayList<Issue>();
+		issues.add(makeIssue(repo, 1, "open", "alice", 2));
+		issues.add(makeIssue(repo, 2, "closed", null, 3));
+		repo.setIssues(issues);
+		repo.addIssue(makeIssue(repo, 3, "open", "alice", 0));
+
+		RepositoryStats stats = repo.getStats();
+		assertEquals(2, stats.getNumOpen());
+		assertEquals(1, stats.getNumClosed());
+		assertEquals(5, stats.getNumComments());
+		assertEquals(2, stats.getLabelCount("bug", true));
+		assertEquals(1, stats.getLabelCount("bug", false));
+		assertEquals(2, stats.getAssigneeCount("alice", true));
+		assertEquals(1, stats.getAssigneeCount(null, false));
+		assertEquals(3, stats.getMilestoneCount("v1", true)+stats.getMilestoneCount("v1", false));
+		assertEquals(0, stats.getMilestoneCount(null, true));
+
+		repo.setIssues(new ArrayList<Issue>());
+		assertEquals(0, repo.getStats().getNumOpen());
+		assertEquals(0, repo.getStats().getNumComments());
+		assertEquals(0, repo.getStats().getLabelCount("bug", true));
+	}
+
+	@Test
+	public void testReplaceIssue() throws JSONException{
+		Repository repo = new Repository("repo", "owner");
+		repo.addIssue(makeIssue(repo, 1, "open", "alice", 1));
+		repo.replaceIssue("issue1", makeIssue(repo, 1, "closed", "bob", 1));
+
+		RepositoryStats stats = repo.getStats();
+		assertEquals(0, stats.getNumOpen());
+		assertEquals(1, stats.getNumClosed());
+		assertEquals(1, stats.getNumComments());
+		assertEquals(0, stats.getAssigneeCount("alice", true));
+		assertEquals(1, stats.getAssigneeCount("bob", false));
+		assertFalse(stats.toString().contains("alice"));
+	}
+
+	@Test
+	public void testComments() throws JSONException{
+		Repository repo = new Repository("repo", "owner");
+		repo.addIssue(makeIssue(repo, 1, "open", null, 1));
+		Issue issue = repo.getIssueByNumber(1);
+		JSONArray comments = new JSONArray();
+		comments.put(new JSONObject(String.format(COMMENT, 1)));
+		comments.put(new JSONObject(String.format(COMMENT, 2)));
+		issue.setComments(comments);	//A comment was added since the issue was loaded.
+		assertEquals(2, repo.getStats().getNumComments());
+		issue.addComment(new JSONObject(String.format(COMMENT, 3)));
+		assertEquals(3, repo.getStats().getNumComments());
+
+		Issue detached = makeIssue(repo, 1, "open", null, 0);	//Not in the repository, so not counted.
+		detached.addComment(new JSONObject(String.format(COMMENT, 4)));
+		assertEquals(3, repo.getStats().getNumComments());
+	}
+
+	@Test
+	public void testCopy() throws JSONException{
+		Repository repo = new Repository("repo", "owner");
+		repo.addIssue(makeIssue(repo, 1, "open", null, 0));
+		RepositoryStats stats = repo.getStats();
+		repo.addIssue(makeIssue(repo, 2, "open", null, 0));
+		assertEquals(1, stats.getNumOpen());
+		assertEquals(2, repo.getStats().getNumOpen());
+	}
+}
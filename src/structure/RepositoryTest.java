@@ -6,6 +6,9 @@ import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
 
 import misc.Util;
 
@@ -40,4 +43,141 @@ public class RepositoryTest {
 		repo.replaceIssue("issue3", new Issue("edited issue", 3, repo));
 		assertEquals("edited issue", repo.getIssue(3).getTitle());
 	}
+	
+	@Test
+	public void testUnload(){
+		Repository repo = new Repository("repo", "owner");
+		long emptySize = repo.getEstimatedSize();
+		ArrayList<String> labels = new ArrayList<String>();
+		labels.add("bug");
+		repo.setLabels(labels);
+		repo.addMilestone(1, "v1");
+		for(int i=1; i<6; i++){
+			repo.addIssue(new Issue("issue"+i, i, repo));
+		}
+		repo.setIsInitialized(true);
+		assertTrue(repo.getEstimatedSize()>emptySize);
+		int version = repo.getVersion();
+		repo.unload();
+		assertFalse(repo.isInitialized());
+		assertEquals(0, repo.getNumIssues());
+		assertNull(repo.getIssueByNumber(3));
+		assertTrue(repo.getLabels().isEmpty());
+		assertEquals(-1, repo.getMilestoneNumber("v1"));
+		assertTrue(repo.getVersion()!=version);
+		assertEquals(emptySize, repo.getEstimatedSize());
+	}
+	
+	@Test
+	//Large repositories keep their issues in columns. Behaviour should be the same as with a plain list.
+	public void testColumnarIssues(){
+		Repository repo = new Repository("repo", "owner");
+		ArrayList<Issue> issues = new ArrayList<Issue>();
+		Issue issue;
+		for(int i=1; i<=2500; i++){
+			issue = new Issue("issue"+i, i, repo);
+			issue.setContent("body of issue "+i);
+			issue.setAssignee((i%2==0)? "even": null);
+			issue.addLabel("label"+(i%3));
+			issues.add(issue);
+		}
+		String expectedRow = issues.get(41).getCondensedString();
+		repo.setIssues(issues);
+		assertTrue(repo.toString().contains("42. "+expectedRow+"\n"));
+		
+		issue = repo.getIssue(42);
+		assertEquals("issue42", issue.getTitle());
+		assertEquals(42, issue.getNumber());
+		assertEquals("body of issue 42", issue.getContent());
+		assertEquals("even", issue.getAssignee());
+		assertEquals("label0", issue.getLabels().get(0));
+		assertTrue(repo.getIssue(42)==issue);
+		assertTrue(repo.getIssue("issue42")==issue);
+		
+		repo.replaceIssue("issue2000", new Issue("edited issue", 2000, repo));
+		assertEquals("edited issue", repo.getIssue(2000).getTitle());
+		assertTrue(repo.getIssue("issue2000")==null);
+		assertEquals(2000, repo.getIssue("edited issue").getNumber());
+		
+		repo.addIssue(new Issue("new issue", 2501, repo));
+		assertEquals("new issue", repo.getIssue(2501).getTitle());
+		assertEquals(2501, repo.getIssue("new issue").getNumber());
+	}
+	
+	@Test
+	public void testGetIssueByNumber(){
+		Repository repo = new Repository("repo", "owner");
+		for(int i=1; i<6; i++){
+			repo.addIssue(new Issue("issue"+i, i*10, repo));
+		}
+		assertEquals("issue3", repo.getIssueByNumber(30).getTitle());
+		assertTrue(repo.getIssueByNumber(3)==null);
+		repo.replaceIssue("issue3", new Issue("edited issue", 30, repo));
+		assertEquals("edited issue", repo.getIssueByNumber(30).getTitle());
+		
+		ArrayList<Issue> issues = new ArrayList<Issue>();
+		issues.add(new Issue("other issue", 1234, repo));
+		repo.setIssues(issues);
+		assertEquals("other issue", repo.getIssueByNumber(1234).getTitle());
+		assertTrue(repo.getIssueByNumber(30)==null);
+	}
+	
+	@Test
+	public void testRender() throws IOException{
+		Repository repo = new Repository("repo", "owner");
+		for(int i=1; i<6; i++){
+			repo.addIssue(new Issue("issue"+i, i, repo));
+		}
+		StringWriter writer = new StringWriter();
+		repo.render(writer, 1, 2);
+		String output = writer.toString();
+		assertTrue(output.contains("2. "+repo.getIssue(2).getCondensedString()));
+		assertTrue(output.contains("3. "+repo.getIssue(3).getCondensedString()));
+		assertFalse(output.contains("1. "+repo.getIssue(1).getCondensedString()));
+		assertFalse(output.contains("4. "+repo.getIssue(4).getCondensedString()));
+		
+		writer = new StringWriter();
+		repo.render(writer, 0, repo.getNumIssues());
+		assertEquals(repo.toString(), writer.toString());
+	}
+	
+	@Test
+	public void testVersion(){
+		Repository repo = new Repository("repo", "owner");
+		int version = repo.getVersion();
+		repo.addIssue(new Issue("issue1", 1, repo));
+		assertTrue(repo.getVersion()!=version);
+		version = repo.getVersion();
+		repo.replaceIssue("issue1", new Issue("edited issue", 1, repo));
+		assertTrue(repo.getVersion()!=version);
+		version = repo.getVersion();
+		repo.replaceIssue("missing issue", new Issue("other issue", 2, repo));
+		repo.getIssue(1);
+		repo.toString();
+		assertEquals(version, repo.getVersion());
+		repo.setLabels(new ArrayList<String>());
+		assertTrue(repo.getVersion()!=version);
+	}
+	
+	@Test
+	public void testIssueListBuilder(){
+		Repository repo = new Repository("repo", "owner");
+		IssueListBuilder builder = new IssueListBuilder(repo);
+		for(int i=1; i<=2500; i++){
+			builder.add(new Issue("issue"+i, i, repo));
+		}
+		assertEquals(0, repo.getNumIssues());	//Unchanged until the issues are set.
+		repo.setIssues(builder);
+		assertEquals(2500, repo.getNumIssues());
+		assertEquals("issue2400", repo.getIssueByNumber(2400).getTitle());
+		assertEquals(2100, repo.getIssue("issue2100").getNumber());
+		assertEquals(2500, repo.getStats().getNumOpen());
+		
+		builder = new IssueListBuilder(repo);
+		builder.add(new Issue("other issue", 7, repo));
+		repo.setIssues(builder);
+		assertEquals(1, repo.getNumIssues());
+		assertEquals("other issue", repo.getIssueByNumber(7).getTitle());
+		assertTrue(repo.getIssueByNumber(2400)==null);
+	}
 }
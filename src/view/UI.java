@@ -2,17 +2,23 @@ package view;
 
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 
 import controller.Controller;
 
 /**
  * Defines the UI class that prompts user and receives user input.
+ * Input is not read while a command runs, as commands such as adding an issue prompt for more input themselves.
+ * Pressing Ctrl-C cancels the running command.
  * @author ZiXian92
  */
 public class UI {
 	//Constants
 	private static final String COMMAND_EXIT = "exit";
+	private static final String SIGNAL_INTERRUPT = "INT";
+	private static final int EXITCODE_INTERRUPT = 130;	//As when the program is ended by Ctrl-C by default.
 	private static final String PROMPT_USERNAME = "GitHub username: ";
 	private static final String PROMPT_PASSWORD = "GitHub password: ";
 	private static final String PROMPT_COMMAND = "Command: ";
@@ -25,8 +31,9 @@ public class UI {
 	 * Creates a new instance of UI.
 	 */
 	public UI(){
-		reader = new BufferedReader(new InputStreamReader(System.in));
+		reader = View.getInstance().getInputReader();
 		controller = new Controller();
+		handleInterrupts();
 	}
 
 	/**
@@ -47,12 +54,40 @@ public class UI {
 			System.exit(0);
 		}
 		promptUserInput();
-		while(!(input = readInput()).equals(COMMAND_EXIT)){
-			controller.processInput(input);
+		while((input = readInput())!=null && !input.equals(COMMAND_EXIT)){
+			controller.processInput(input);	//Commands may read their own input from the same reader.
 			promptUserInput();
 		}
 		reader.close();
 	}
+	
+	/**
+	 * Makes Ctrl-C cancel the running command instead of ending the program. Ctrl-C still ends the program
+	 * if no command is running. The signal is handled on its own thread, so it is received while the command runs.
+	 */
+	private void handleInterrupts(){
+		try{	//Looked up by reflection as signal handling is not part of the standard Java API.
+			Class<?> signalClass = Class.forName("sun.misc.Signal");
+			Class<?> handlerClass = Class.forName("sun.misc.SignalHandler");
+			Object handler = Proxy.newProxyInstance(handlerClass.getClassLoader(), new Class<?>[] {handlerClass},
+					new InvocationHandler(){
+						@Override
+						public Object invoke(Object proxy, Method method, Object[] args) throws Throwable{
+							if(method.getDeclaringClass()==Object.class){
+								return method.invoke(this, args);
+							}
+							if(!controller.cancel()){
+								System.exit(EXITCODE_INTERRUPT);
+							}
+							return null;
+						}
+					});
+			Object signal = signalClass.getConstructor(String.class).newInstance(SIGNAL_INTERRUPT);
+			signalClass.getMethod("handle", signalClass, handlerClass).invoke(null, signal, handler);
+		} catch(Exception e){
+			//Ctrl-C ends the program as usual.
+		}
+	}
 
 	private String readUsername() throws IOException{
 		return reader.readLine();
@@ -1,5 +1,18 @@
 package view;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import misc.Constants;
+import misc.Metrics;
 import structure.Issue;
 import structure.Repository;
 
@@ -11,12 +24,55 @@ import structure.Repository;
  */
 public class View {
 	private static final String MSG_EMPTYLIST = "The list is empty.";
+	private static final String MSG_PAGE = "Page %1$d of %2$d. Enter \"page <number>\" to view another page.";
+	private static final String MSG_INVALIDPAGE = "Page %1$d does not exist. There are %2$d page(s).";
+	private static final String MSG_OUTPUTERROR = "Failed to display output.";
+	private static final String MSG_REPOISSUES = "%1$s (%2$d):";
+	
+	//Number of issues shown per page of a repository, which holds all of its open issues as Model loads every page.
+	private static final int PAGE_SIZE = 50;
+	
+	//Maximum number of repositories whose rendered page is kept. Issues are not kept, as their bodies and comments
+	//are held off the heap until they are displayed.
+	private static final int MAX_CACHEDVIEWS = 16;
 	
 	//The only instance of this calss.
 	private static View view = null;
 	
-	private View(){
+	//Buffers console output so that large views are written in chunks rather than line by line.
+	private Writer out;
+	
+	//The only reader of console input, shared by the UI and commands that prompt for more input.
+	private BufferedReader in;
+	
+	//Rendered page of recently displayed repositories, in least recently displayed order.
+	private LinkedHashMap<Repository, RenderedView> renderCache;
+	
+	/**
+	 * Holds the page rendered for a repository, together with the version it was rendered from.
+	 */
+	private static class RenderedView{
+		private int version, page;
+		private String text;
 		
+		private RenderedView(int version, int page, String text){
+			this.version = version;
+			this.page = page;
+			this.text = text;
+		}
+	}
+	
+	private View(){
+		out = new BufferedWriter(new OutputStreamWriter(System.out));
+		in = new BufferedReader(new InputStreamReader(System.in));
+		renderCache = new LinkedHashMap<Repository, RenderedView>(MAX_CACHEDVIEWS, 0.75f, true){
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Repository, RenderedView> eldest){
+				return size()>MAX_CACHEDVIEWS;
+			}
+		};
 	}
 	
 	/**
@@ -30,6 +86,15 @@ public class View {
 		return view;
 	}
 	
+	/**
+	 * Gets the reader of console input. All input must be read through it, as a second reader of System.in
+	 * would take lines buffered ahead by this one.
+	 * @return The reader of console input.
+	 */
+	public BufferedReader getInputReader(){
+		return in;
+	}
+	
 	/**
 	 * Prints the given message to the console.
 	 * @param message The message to be printed. Cannot be null or empty string.
@@ -55,20 +120,93 @@ public class View {
 	}
 	
 	/**
-	 * Prints the contents of the given repository to the console, formatted in its toString() method.
+	 * Prints the contents of the given repository to the console, showing the first page of its issues.
 	 * @param repo The repository to be displayed.
 	 */
     public void updateView(Repository repo){
+    	updateView(repo, 1);
+    }
+    
+    /**
+     * Prints the contents of the given repository to the console, showing only the given page of its issues.
+     * @param repo The repository to be displayed. Cannot be null.
+     * @param page The 1-based page number of the issues to display.
+     */
+    public synchronized void updateView(Repository repo, int page){
     	assert repo!=null;
-    	System.out.println(repo);
+    	int numPages = Math.max(1, (repo.getNumIssues()+PAGE_SIZE-1)/PAGE_SIZE);
+    	if(page<1 || page>numPages){
+    		updateView(String.format(MSG_INVALIDPAGE, page, numPages));
+    		return;
+    	}
+    	RenderedView rendered = renderCache.get(repo);
+    	try{
+    		if(rendered==null || rendered.version!=repo.getVersion() || rendered.page!=page){
+    			StringWriter writer = new StringWriter();
+    			repo.render(writer, (page-1)*PAGE_SIZE, PAGE_SIZE);
+    			if(numPages>1){
+    				writer.write(String.format(MSG_PAGE, page, numPages));
+    				writer.write(System.lineSeparator());
+    			}
+    			writer.write(System.lineSeparator());
+    			rendered = new RenderedView(repo.getVersion(), page, writer.toString());
+    			renderCache.put(repo, rendered);
+    			Metrics.getInstance().increment(Metrics.COUNTER_VIEWMISS);
+    		} else{
+    			Metrics.getInstance().increment(Metrics.COUNTER_VIEWHIT);
+    		}
+    		out.write(rendered.text);
+    		out.flush();
+    	} catch(IOException e){
+    		System.out.println(MSG_OUTPUTERROR);
+    	}
     }
     
     /**
      * Prints the contents of the given issue to the console, formatted in its toString() method.
+     * The issue is rendered straight to the console each time rather than cached, so that its body and comments
+     * are not kept on the heap as a string.
      * @param issue The issue to be displayed.
      */
-    public void updateView(Issue issue){
+    public synchronized void updateView(Issue issue){
     	assert issue!=null;
-    	System.out.println(issue);
+    	try{
+    		issue.render(out);
+    		out.write(System.lineSeparator());
+    		out.flush();
+    	} catch(IOException e){
+    		System.out.println(MSG_OUTPUTERROR);
+    	}
+    }
+    
+    /**
+     * Prints the given issues under the full name of their repositories, 1 condensed row per issue,
+     * each prefixed with its GitHub number so that it can be selected in its repository.
+     * @param groups The issues grouped by repository. Cannot be null.
+     */
+    public void updateView(Map<Repository, ? extends List<Issue>> groups){
+    	assert groups!=null;
+    	if(groups.isEmpty()){
+    		updateView(MSG_EMPTYLIST);
+    		return;
+    	}
+    	String lineDelim = System.lineSeparator();
+    	try{
+    		for(Map.Entry<Repository, ? extends List<Issue>> group: groups.entrySet()){
+    			out.write(String.format(MSG_REPOISSUES, group.getKey().getFullName(), group.getValue().size()));
+    			out.write(lineDelim);
+    			for(Issue issue: group.getValue()){
+    				out.write(Constants.ISSUE_NUMBERPREFIX);
+    				out.write(Integer.toString(issue.getNumber()));
+    				out.write(". ");
+    				out.write(issue.getCondensedString());
+    				out.write(lineDelim);
+    			}
+    			out.write(lineDelim);
+    		}
+    		out.flush();
+    	} catch(IOException e){
+    		System.out.println(MSG_OUTPUTERROR);
+    	}
     }
 }